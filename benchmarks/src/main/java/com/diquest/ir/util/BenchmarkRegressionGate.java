@@ -0,0 +1,253 @@
+package com.diquest.ir.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 벤치마크 실행 및 성능 회귀 검사 클래스
+ * 벤치마크를 GC 프로파일러와 함께 실행하여 초당 처리 파일 수와 할당량을 출력하고,
+ * 기준값 파일과 비교하여 허용 범위를 벗어나면 종료코드 1로 종료한다. (네트워크 없이 실행 가능)
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class BenchmarkRegressionGate {
+
+    /** 기준값 파일 기본 경로 */
+    public static final String DEFAULT_BASELINE_FILE = "benchmark-baseline.properties";
+    /** 기본 허용 오차 (10%) */
+    public static final double DEFAULT_TOLERANCE = 0.10;
+
+    private static final String FILES_COUNTER = "files";
+    private static final String ALLOC_RATE = "gc.alloc.rate";
+    private static final String ALLOC_RATE_NORM = "gc.alloc.rate.norm";
+
+    /**
+     * 벤치마크 실행 메인 함수
+     *
+     * @param args 옵션 (선택)
+     *             --include=REGEX: 실행할 벤치마크 (기본값 전체)
+     *             --param=NAME=V1,V2: 벤치마크 파라미터 값 지정 (여러 번 사용 가능)
+     *             --baseline=FILE: 기준값 파일 (기본값 benchmark-baseline.properties)
+     *             --record: 비교하지 않고 이번 결과를 기준값 파일로 저장
+     *             --tolerance=RATIO: 허용 오차 비율 (기본값 0.10)
+     *             --quick: 예열/측정 반복을 줄여서 실행
+     */
+    public static void main(String[] args) {
+        String include = ".*Benchmark.*";
+        Path baselineFile = Paths.get(DEFAULT_BASELINE_FILE);
+        boolean record = false;
+        boolean quick = false;
+        double tolerance = DEFAULT_TOLERANCE;
+        Map<String, String[]> params = new TreeMap<>();
+        try {
+            for (String arg : args) {
+                int equalIndex = arg.indexOf('=');
+                String name = (equalIndex == -1) ? arg : arg.substring(0, equalIndex);
+                String value = (equalIndex == -1) ? null : arg.substring(equalIndex + 1);
+                if ("--include".equals(name)) {
+                    include = requireValue(name, value);
+                } else if ("--param".equals(name)) {
+                    String param = requireValue(name, value);
+                    int paramEqualIndex = param.indexOf('=');
+                    if (paramEqualIndex <= 0) {
+                        throw new IllegalArgumentException(name + " 옵션은 NAME=V1,V2 형식이어야 합니다: " + param);
+                    }
+                    params.put(param.substring(0, paramEqualIndex), param.substring(paramEqualIndex + 1).split(","));
+                } else if ("--baseline".equals(name)) {
+                    baselineFile = Paths.get(requireValue(name, value));
+                } else if ("--record".equals(name)) {
+                    record = true;
+                } else if ("--tolerance".equals(name)) {
+                    tolerance = Double.parseDouble(requireValue(name, value));
+                } else if ("--quick".equals(name)) {
+                    quick = true;
+                } else {
+                    throw new IllegalArgumentException("알 수 없는 옵션입니다: " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class);
+        for (Map.Entry<String, String[]> param : params.entrySet()) {
+            options.param(param.getKey(), param.getValue());
+        }
+        if (quick) {
+            options.warmupIterations(1).measurementIterations(2);
+        }
+
+        try {
+            Map<String, Measurement> measurements = collect(new Runner(options.build()).run());
+            print(measurements);
+            if (record) {
+                saveBaseline(baselineFile, measurements);
+                System.out.println("기준값을 저장했습니다: " + baselineFile);
+                return;
+            }
+            if (!Files.exists(baselineFile)) {
+                System.out.println("기준값 파일이 없어 비교하지 않습니다. (--record 로 생성): " + baselineFile);
+                return;
+            }
+            List<String> regressions = compare(loadBaseline(baselineFile), measurements, tolerance);
+            if (!regressions.isEmpty()) {
+                System.err.println("성능 회귀가 발견되었습니다. (" + regressions.size() + "건)");
+                for (String regression : regressions) {
+                    System.err.println("Regressed: " + regression);
+                }
+                System.exit(1);
+            }
+            System.out.println("기준값 대비 성능 회귀가 없습니다. (허용 오차 " + Math.round(tolerance * 100) + "%)");
+        } catch (RunnerException | IOException e) {
+            e.printStackTrace();
+            System.exit(2);
+        }
+    }
+
+    private static String requireValue(String name, String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException(name + " 옵션의 값이 필요합니다.");
+        }
+        return value;
+    }
+
+    /**
+     * 실행 결과를 벤치마크+파라미터 조합별 측정값으로 정리한다.
+     */
+    private static Map<String, Measurement> collect(Collection<RunResult> runResults) {
+        Map<String, Measurement> measurements = new TreeMap<>();
+        for (RunResult runResult : runResults) {
+            BenchmarkParams benchmarkParams = runResult.getParams();
+            StringBuilder key = new StringBuilder(benchmarkParams.getBenchmark());
+            for (String paramKey : new TreeSet<>(benchmarkParams.getParamsKeys())) {
+                key.append(':').append(paramKey).append('=').append(benchmarkParams.getParam(paramKey));
+            }
+            Map<String, Result> secondaryResults = runResult.getSecondaryResults();
+            if (secondaryResults.containsKey(FILES_COUNTER)) {
+                // 전체 변환 벤치마크는 1회에 여러 파일을 처리하므로 files 카운터를 처리량으로 사용한다.
+                // 변환은 파이프라인 작업 스레드에서 이루어져 GC 프로파일러의 할당량(벤치마크 스레드 기준)에 잡히지 않으므로 제외한다.
+                measurements.put(key.toString(), new Measurement(
+                        secondaryResults.get(FILES_COUNTER).getScore(), Double.NaN, Double.NaN));
+            } else {
+                measurements.put(key.toString(), new Measurement(
+                        runResult.getPrimaryResult().getScore(),
+                        findScore(secondaryResults, ALLOC_RATE),
+                        findScore(secondaryResults, ALLOC_RATE_NORM)
+                ));
+            }
+        }
+        return measurements;
+    }
+
+    /**
+     * 보조 결과에서 이름이 일치하는 값을 찾는다. (JMH 버전에 따라 이름 앞에 접두 문자가 붙는다.)
+     */
+    private static double findScore(Map<String, Result> secondaryResults, String name) {
+        for (Map.Entry<String, Result> secondaryResult : secondaryResults.entrySet()) {
+            String resultName = secondaryResult.getKey();
+            if (resultName.equals(name) || resultName.endsWith("·" + name)) {
+                return secondaryResult.getValue().getScore();
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static void print(Map<String, Measurement> measurements) {
+        System.out.println();
+        System.out.println(String.format("%-110s %14s %14s %16s", "Benchmark", "files/s", "alloc MB/s", "alloc B/op"));
+        for (Map.Entry<String, Measurement> measurement : measurements.entrySet()) {
+            Measurement value = measurement.getValue();
+            System.out.println(String.format("%-110s %14.1f %14.1f %16.0f",
+                    measurement.getKey(), value.filesPerSecond, value.allocationRate, value.allocationPerOperation));
+        }
+    }
+
+    /**
+     * 기준값과 비교하여 처리량이 허용 오차 이상 떨어졌거나 할당량이 허용 오차 이상 늘어난 항목을 찾는다.
+     * 기준값에 없는 항목은 비교하지 않는다.
+     */
+    private static List<String> compare(Properties baseline, Map<String, Measurement> measurements, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Measurement> measurement : measurements.entrySet()) {
+            String key = measurement.getKey();
+            Measurement value = measurement.getValue();
+            String baselineThroughput = baseline.getProperty(key + ".filesPerSecond");
+            if (baselineThroughput != null && value.filesPerSecond < Double.parseDouble(baselineThroughput) * (1 - tolerance)) {
+                regressions.add(String.format("%s files/s %.1f (기준값 %s)", key, value.filesPerSecond, baselineThroughput));
+            }
+            String baselineAllocation = baseline.getProperty(key + ".allocationPerOperation");
+            if (
+                baselineAllocation != null
+                && !Double.isNaN(value.allocationPerOperation)
+                && value.allocationPerOperation > Double.parseDouble(baselineAllocation) * (1 + tolerance)
+            ) {
+                regressions.add(String.format("%s alloc B/op %.0f (기준값 %s)", key, value.allocationPerOperation, baselineAllocation));
+            }
+        }
+        return regressions;
+    }
+
+    private static Properties loadBaseline(Path baselineFile) throws IOException {
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(baselineFile, StandardCharsets.UTF_8)) {
+            baseline.load(reader);
+        }
+        return baseline;
+    }
+
+    private static void saveBaseline(Path baselineFile, Map<String, Measurement> measurements) throws IOException {
+        Properties baseline = new Properties();
+        for (Map.Entry<String, Measurement> measurement : measurements.entrySet()) {
+            Measurement value = measurement.getValue();
+            baseline.setProperty(measurement.getKey() + ".filesPerSecond", String.valueOf(value.filesPerSecond));
+            if (!Double.isNaN(value.allocationPerOperation)) {
+                baseline.setProperty(measurement.getKey() + ".allocationPerOperation", String.valueOf(value.allocationPerOperation));
+            }
+        }
+        try (Writer writer = Files.newBufferedWriter(baselineFile, StandardCharsets.UTF_8)) {
+            baseline.store(writer, "m4-m5-setting-convertor benchmark baseline");
+        }
+    }
+
+    /**
+     * 벤치마크+파라미터 조합 1개의 측정값
+     */
+    private static class Measurement {
+
+        private final double filesPerSecond;
+        private final double allocationRate;
+        private final double allocationPerOperation;
+
+        Measurement(double filesPerSecond, double allocationRate, double allocationPerOperation) {
+            this.filesPerSecond = filesPerSecond;
+            this.allocationRate = allocationRate;
+            this.allocationPerOperation = allocationPerOperation;
+        }
+    }
+}
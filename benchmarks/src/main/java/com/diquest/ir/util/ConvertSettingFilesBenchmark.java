@@ -0,0 +1,106 @@
+package com.diquest.ir.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * setting 폴더 전체 변환(XmlFileProcessor.convertSettingFiles) 벤치마크
+ * 변환 1회당 처리한 파일 수를 files 카운터로 집계하여 초당 처리 파일 수를 보고한다.
+ * 변환할 때마다 출력 폴더를 비워서, 이미 같은 내용이 저장된 파일을 건너뛰지 않고 매번 기록하도록 한다.
+ * 파일별 info 로그는 측정 시간에 콘솔 출력이 섞이지 않도록 warn 이상만 출력한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConvertSettingFilesBenchmark {
+
+    @Param({"20", "100"})
+    public int collectionCount;
+
+    @Param({"5"})
+    public int dbWatcherCount;
+
+    @Param({"256", "8192"})
+    public int sqlBlockSize;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    @Param({"stream", "dom"})
+    public String watcherEngine;
+
+    private Path workPath;
+    private Path settingPath;
+    private Path outputPath;
+    private XmlFileProcessor xmlFileProcessor;
+
+    @Setup(Level.Trial)
+    public void generateSettingTree() throws IOException {
+        workPath = Files.createTempDirectory("m5-convert-bench");
+        settingPath = workPath.resolve("setting");
+        outputPath = workPath.resolve("output");
+        new SettingTreeGenerator(collectionCount, dbWatcherCount, sqlBlockSize).generate(settingPath);
+        xmlFileProcessor = new XmlFileProcessor(SettingTreeGenerator.IR4_HOME, SettingTreeGenerator.IR5_HOME);
+        xmlFileProcessor.setStreamingDbWatcher("stream".equals(watcherEngine));
+        ConversionLog.configure(ConversionLog.Level.WARN, ConversionLog.Level.WARN, null);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearOutput() throws IOException {
+        BenchmarkFiles.deleteRecursively(outputPath);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSettingTree() throws IOException {
+        ConversionLog.close();
+        BenchmarkFiles.deleteRecursively(workPath);
+    }
+
+    @Benchmark
+    public ConversionResult convertSettingFiles(FileCounter fileCounter) {
+        ConversionResult result = xmlFileProcessor.convertSettingFiles(settingPath.toString(), outputPath.toString(), threads);
+        if (result.hasFailures()) {
+            throw new IllegalStateException("변환에 실패한 파일이 있습니다: " + result.getFailures());
+        }
+        fileCounter.files += result.getProcessedCount();
+        return result;
+    }
+
+    /**
+     * 변환 1회에 처리한 파일 수를 초당 처리량으로 보고하기 위한 카운터
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class FileCounter {
+
+        public long files;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            files = 0;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.diquest.ir.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 파일 종류별 읽기(파싱) + 변환 벤치마크 (디스크 저장 제외)
+ * 파이프라인의 읽기/변환 단계를 그대로 호출하므로 1회 = 파일 1건이며, 초당 처리 파일 수를 보고한다.
+ * 단계별 메소드가 패키지 내부용이므로 같은 패키지에 둔다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SettingFileTransformBenchmark {
+
+    @Param({"collectionList", "profileSetting", "collectionSetting", "list", "watcher"})
+    public String fileType;
+
+    @Param({"256", "8192"})
+    public int sqlBlockSize;
+
+    @Param({"stream", "dom"})
+    public String watcherEngine;
+
+    private Path workPath;
+    private String settingPath;
+    private String outputPath;
+    private File xmlFile;
+    private XmlFileProcessor xmlFileProcessor;
+
+    @Setup(Level.Trial)
+    public void generateSettingTree() throws IOException {
+        workPath = Files.createTempDirectory("m5-convert-bench");
+        Path setting = workPath.resolve("setting");
+        new SettingTreeGenerator(1, 1, sqlBlockSize).generate(setting);
+        settingPath = setting.toString();
+        outputPath = workPath.resolve("output").toString();
+        xmlFile = resolveFile(setting).toFile();
+        xmlFileProcessor = new XmlFileProcessor(SettingTreeGenerator.IR4_HOME, SettingTreeGenerator.IR5_HOME);
+        xmlFileProcessor.setStreamingDbWatcher("stream".equals(watcherEngine));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSettingTree() throws IOException {
+        BenchmarkFiles.deleteRecursively(workPath);
+    }
+
+    @Benchmark
+    public Object transform() throws Exception {
+        SettingFileTask task = new SettingFileTask(xmlFile);
+        xmlFileProcessor.parseSettingFile(task);
+        xmlFileProcessor.transformSettingFile(task, settingPath, outputPath);
+        return task;
+    }
+
+    private Path resolveFile(Path setting) {
+        Path collection = setting.resolve("col0000");
+        switch (fileType) {
+            case "collectionList":
+                return setting.resolve("collectionList.xml");
+            case "profileSetting":
+                return collection.resolve("profileSetting.xml");
+            case "collectionSetting":
+                return collection.resolve("collectionSetting.xml");
+            case "list":
+                return collection.resolve("dbwatcher").resolve("list.xml");
+            case "watcher":
+                return collection.resolve("dbwatcher").resolve("col0000_watcher0.xml");
+            default:
+                throw new IllegalArgumentException("알 수 없는 파일 종류입니다: " + fileType);
+        }
+    }
+}
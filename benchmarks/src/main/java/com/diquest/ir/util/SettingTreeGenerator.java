@@ -0,0 +1,167 @@
+package com.diquest.ir.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * 벤치마크용 Mariner4 setting 폴더를 생성하는 클래스
+ * 컬렉션 수, 컬렉션별 dbwatcher 수, SQL 블록 크기를 지정하여 변환 대상 파일 5종을 모두 만든다.
+ * 같은 인자로 생성하면 항상 같은 내용이 만들어진다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class SettingTreeGenerator {
+
+    /** 생성되는 collectionSetting.xml 의 baseDirectory 에 사용하는 IR4_HOME 경로 */
+    public static final String IR4_HOME = "/home/ir4";
+    /** 변환 시 사용하는 IR5_HOME 경로 */
+    public static final String IR5_HOME = "/home/ir5";
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+    private static final String[] SQL_WORDS = {
+            "SELECT", "A.ID", "A.TITLE", "B.BODY", "FROM", "DOC_TABLE A", "JOIN", "BODY_TABLE B", "ON",
+            "A.ID = B.ID", "WHERE", "A.REG_DATE >", "'2025-01-01'", "AND", "B.STATUS <> 'D'", "OR", "A.SEQ < 100"
+    };
+
+    private final int collectionCount;
+    private final int dbWatcherCount;
+    private final int sqlBlockSize;
+
+    /**
+     * @param collectionCount 컬렉션 폴더 수
+     * @param dbWatcherCount  컬렉션별 dbwatcher 설정 파일 수
+     * @param sqlBlockSize    dbwatcher 설정 파일 SQL 태그 1개의 대략적인 크기 (문자 수)
+     */
+    public SettingTreeGenerator(int collectionCount, int dbWatcherCount, int sqlBlockSize) {
+        this.collectionCount = collectionCount;
+        this.dbWatcherCount = dbWatcherCount;
+        this.sqlBlockSize = sqlBlockSize;
+    }
+
+    /**
+     * @return 생성되는 변환 대상 파일 수
+     */
+    public int getFileCount() {
+        // collectionList.xml + 컬렉션별 (profileSetting.xml, collectionSetting.xml, list.xml, dbwatcher 파일들)
+        return 1 + collectionCount * (3 + dbWatcherCount);
+    }
+
+    /**
+     * setting 폴더를 생성한다.
+     *
+     * @param settingPath 생성할 setting 폴더 경로
+     */
+    public void generate(Path settingPath) throws IOException {
+        Random random = new Random(collectionCount * 31L + dbWatcherCount * 17L + sqlBlockSize);
+        Files.createDirectories(settingPath);
+        writeCollectionList(settingPath.resolve("collectionList.xml"));
+        for (int collectionIdx = 0; collectionIdx < collectionCount; collectionIdx++) {
+            String collectionName = collectionName(collectionIdx);
+            Path collectionPath = settingPath.resolve(collectionName);
+            Path dbWatcherPath = collectionPath.resolve("dbwatcher");
+            Files.createDirectories(dbWatcherPath);
+            writeProfileSetting(collectionPath.resolve("profileSetting.xml"), collectionName);
+            writeCollectionSetting(collectionPath.resolve("collectionSetting.xml"), collectionName, collectionIdx);
+            writeDbWatcherList(dbWatcherPath.resolve("list.xml"), collectionName);
+            for (int watcherIdx = 0; watcherIdx < dbWatcherCount; watcherIdx++) {
+                String watcherName = watcherName(collectionName, watcherIdx);
+                writeDbWatcher(dbWatcherPath.resolve(watcherName + ".xml"), watcherName, random);
+            }
+        }
+    }
+
+    private void writeCollectionList(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(XML_DECLARATION + "\n<collectionList>\n");
+            for (int collectionIdx = 0; collectionIdx < collectionCount; collectionIdx++) {
+                writer.write("    <collection id=\"" + collectionName(collectionIdx) + "\"/>\n");
+            }
+            writer.write("</collectionList>\n");
+        }
+    }
+
+    private void writeProfileSetting(Path file, String collectionName) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(XML_DECLARATION + "\n<profileSetting collection=\"" + collectionName + "\">\n");
+            writer.write("    <profile id=\"default\" rankingModel=\"bm25\" maxResult=\"1000\"/>\n");
+            writer.write("    <profile id=\"recent\" rankingModel=\"date\" maxResult=\"100\"/>\n");
+            writer.write("</profileSetting>\n");
+        }
+    }
+
+    private void writeCollectionSetting(Path file, String collectionName, int collectionIdx) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(XML_DECLARATION + "\n");
+            writer.write("<collectionSetting id=\"" + collectionName + "\" baseDirectory=\"" + IR4_HOME + "/collection/"
+                    + collectionName + "\" union=\"" + (collectionIdx % 5 == 1) + "\" join=\"" + (collectionIdx % 5 == 2) + "\">\n");
+            writer.write("    <!-- 컬렉션 설정 -->\n");
+            for (int fieldIdx = 0; fieldIdx < 20; fieldIdx++) {
+                writer.write("    <field name=\"FIELD_" + fieldIdx + "\" type=\"" + (fieldIdx % 3 == 0 ? "text" : "keyword")
+                        + "\" index=\"true\" store=\"true\">필드 설명 &amp; " + fieldIdx + "</field>\n");
+            }
+            writer.write("</collectionSetting>\n");
+        }
+    }
+
+    private void writeDbWatcherList(Path file, String collectionName) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(XML_DECLARATION + "\n<list>\n");
+            for (int watcherIdx = 0; watcherIdx < dbWatcherCount; watcherIdx++) {
+                String watcherName = watcherName(collectionName, watcherIdx);
+                writer.write("    <element id=\"" + watcherName + "\" file=\"" + watcherName + ".xml\"/>\n");
+            }
+            writer.write("</list>\n");
+        }
+    }
+
+    private void writeDbWatcher(Path file, String watcherName, Random random) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(XML_DECLARATION + "\n<dbwatcher>\n");
+            writer.write("    <id>" + watcherName + "</id>\n");
+            writer.write("    <!-- SQL 목록 -->\n");
+            writeSqlElement(writer, "fullCollectSqlPre", random, false);
+            writeSqlElement(writer, "fullCollectSql", random, true);
+            writeSqlElement(writer, "fullCollectSqlPost", random, false);
+            writeSqlElement(writer, "autoUpdateCheckPre", random, false);
+            writeSqlElement(writer, "updateIdSelectSql", random, false);
+            writeSqlElement(writer, "incCollectSql", random, true);
+            writeSqlElement(writer, "autoUpdateCheckPost", random, false);
+            writeSqlElement(writer, "manualUpdateCheckPost", random, false);
+            writeSqlElement(writer, "fieldUpdateCollectSqlPre", random, false);
+            writeSqlElement(writer, "fieldUpdateCollectSqlPost", random, false);
+            writer.write("    <connection driver=\"oracle.jdbc.OracleDriver\" url=\"jdbc:oracle:thin:@db:1521:ORCL\"/>\n");
+            writer.write("</dbwatcher>\n");
+        }
+    }
+
+    /**
+     * SQL 태그를 기록한다. CDATA 와 엔티티 참조가 섞이도록 일부는 CDATA 로 감싼다.
+     */
+    private void writeSqlElement(Writer writer, String tagName, Random random, boolean cdata) throws IOException {
+        StringBuilder sql = new StringBuilder(sqlBlockSize + 32);
+        while (sql.length() < sqlBlockSize) {
+            sql.append(SQL_WORDS[random.nextInt(SQL_WORDS.length)]).append(' ');
+        }
+        String text = sql.toString().trim();
+        writer.write("    <" + tagName + ">");
+        if (cdata) {
+            writer.write("<![CDATA[" + text + "]]>");
+        } else {
+            writer.write(text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;"));
+        }
+        writer.write("</" + tagName + ">\n");
+    }
+
+    private static String collectionName(int collectionIdx) {
+        return String.format("col%04d", collectionIdx);
+    }
+
+    private static String watcherName(String collectionName, int watcherIdx) {
+        return collectionName + "_watcher" + watcherIdx;
+    }
+}
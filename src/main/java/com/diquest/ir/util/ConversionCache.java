@@ -0,0 +1,232 @@
+package com.diquest.ir.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 변환 결과 캐시 (내용 주소 방식)
+ * 정규화된 원본 내용과 변환 설정값의 해시를 키로 직렬화된 m5 설정 파일 내용을 보관한다.
+ * 메모리에는 정해진 크기만큼 최근에 사용한 결과를 보관하고(LRU), 디스크 폴더를 지정하면 실행 간에도 유지한다.
+ * 여러 작업 스레드에서 동시에 사용할 수 있다. 같은 키를 여러 작업이 동시에 찾으면 먼저 찾은 작업만 변환하고,
+ * 나머지 작업은 그 변환이 끝날 때까지 기다렸다가 결과를 사용한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class ConversionCache {
+
+    /** 메모리 캐시 기본 크기 (byte) */
+    public static final long DEFAULT_MEMORY_BYTES = 64L * 1024 * 1024;
+
+    private final long maxMemoryBytes;
+    private final Path directory;
+    private final LinkedHashMap<String, byte[]> memoryEntries = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes;
+    /** 변환 중인 키별 선점 */
+    private final ConcurrentHashMap<String, Claim> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxMemoryBytes 메모리에 보관할 변환 결과 크기 합계 (byte, 0 일 경우 메모리에 보관하지 않음)
+     * @param directory      변환 결과를 보관할 디스크 폴더 (디스크에 보관하지 않을 경우 null)
+     */
+    public ConversionCache(long maxMemoryBytes, Path directory) throws IOException {
+        this.maxMemoryBytes = Math.max(0, maxMemoryBytes);
+        this.directory = directory;
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+    }
+
+    /**
+     * 캐시된 변환 결과를 가져온다. 메모리에 없으면 디스크에서 읽어 메모리에 올린다.
+     *
+     * @param key 캐시 키
+     * @return 변환 결과 (없을 경우 null, 돌려받은 배열은 수정하면 안 된다.)
+     */
+    byte[] get(String key) {
+        byte[] content;
+        synchronized (memoryEntries) {
+            content = memoryEntries.get(key);
+        }
+        if (content == null && directory != null) {
+            content = readEntry(key);
+            if (content != null) {
+                putMemory(key, content);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * 캐시된 변환 결과를 가져오고, 없으면 이 작업이 변환하도록 키를 선점한다.
+     * 같은 키를 다른 작업이 선점하여 변환 중이면 그 변환이 끝날 때까지 기다린 뒤 결과를 돌려준다.
+     * (선점한 작업이 변환하지 못했으면 다시 선점을 시도한다.)
+     *
+     * @param key 캐시 키
+     * @return 캐시된 변환 결과를 담은 Claim, 또는 이 작업이 선점한 Claim (getCachedContent() 가 null 이며,
+     *         변환을 마치면 complete, 변환하지 못하면 abandon 을 호출해야 한다.)
+     * @throws InterruptedException 다른 작업의 변환을 기다리는 도중 인터럽트되었을 경우
+     */
+    Claim claim(String key) throws InterruptedException {
+        while (true) {
+            byte[] content = get(key);
+            if (content != null) {
+                return new Claim(key, content);
+            }
+            Claim claim = new Claim(key, null);
+            Claim owner = inFlight.putIfAbsent(key, claim);
+            if (owner == null) {
+                // 선점하기 직전에 다른 작업이 변환을 마쳤을 수 있으므로 다시 확인한다.
+                content = get(key);
+                if (content != null) {
+                    claim.abandon();
+                    return new Claim(key, content);
+                }
+                return claim;
+            }
+            content = owner.await();
+            if (content != null) {
+                return new Claim(key, content);
+            }
+        }
+    }
+
+    /**
+     * 변환 결과를 캐시에 넣는다.
+     *
+     * @param key     캐시 키
+     * @param content 변환 결과 (넣은 뒤에는 수정하면 안 된다.)
+     */
+    private void put(String key, byte[] content) {
+        putMemory(key, content);
+        if (directory != null) {
+            writeEntry(key, content);
+        }
+    }
+
+    private void putMemory(String key, byte[] content) {
+        if (content.length > maxMemoryBytes) {
+            return;
+        }
+        synchronized (memoryEntries) {
+            byte[] previous = memoryEntries.put(key, content);
+            memoryBytes += content.length - ((previous == null) ? 0 : previous.length);
+            // 가장 오래 사용하지 않은 결과부터 제거한다.
+            Iterator<Map.Entry<String, byte[]>> eldest = memoryEntries.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().getValue().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * 디스크 폴더의 캐시 파일 경로 (키 앞 2글자로 하위 폴더를 나누어 한 폴더에 파일이 몰리지 않게 한다.)
+     */
+    private Path getEntryPath(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private byte[] readEntry(String key) {
+        try {
+            return Files.readAllBytes(getEntryPath(key));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            // 디스크 캐시를 읽지 못하면 캐시에 없는 것으로 보고 다시 변환한다.
+            ConversionLog.warn("Failed to read conversion cache: " + getEntryPath(key) + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    private void writeEntry(String key, byte[] content) {
+        Path entryPath = getEntryPath(key);
+        if (Files.exists(entryPath)) {
+            return;
+        }
+        Path tempFile = null;
+        try {
+            Files.createDirectories(entryPath.getParent());
+            // 같은 키를 여러 스레드가 동시에 저장할 수 있으므로 임시 파일 이름은 겹치지 않게 만든다.
+            tempFile = Files.createTempFile(entryPath.getParent(), key, XmlFileWriter.TEMP_FILE_SUFFIX);
+            Files.write(tempFile, content);
+            XmlFileWriter.moveIntoPlace(tempFile, entryPath);
+        } catch (IOException e) {
+            // 디스크 캐시는 다음 실행을 빠르게 하기 위한 것이므로 저장하지 못해도 변환은 계속한다.
+            ConversionLog.warn("Failed to write conversion cache: " + entryPath + " (" + e.getMessage() + ")");
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    // 남은 임시 파일은 다음 저장에 영향을 주지 않는다.
+                }
+            }
+        }
+    }
+
+    /**
+     * 캐시 키 1개에 대한 조회 결과 또는 변환 선점
+     */
+    final class Claim {
+
+        private final String key;
+        private final byte[] cachedContent;
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile byte[] convertedContent;
+
+        private Claim(String key, byte[] cachedContent) {
+            this.key = key;
+            this.cachedContent = cachedContent;
+        }
+
+        /**
+         * @return 캐시된 변환 결과 (이 작업이 선점하여 변환해야 할 경우 null, 돌려받은 배열은 수정하면 안 된다.)
+         */
+        byte[] getCachedContent() {
+            return cachedContent;
+        }
+
+        /**
+         * 선점한 키의 변환 결과를 캐시에 넣고, 기다리는 작업에 결과를 넘긴다. (선점하지 않았거나 이미 끝난 경우 무시)
+         *
+         * @param content 변환 결과 (넣은 뒤에는 수정하면 안 된다.)
+         */
+        synchronized void complete(byte[] content) {
+            if (cachedContent == null && finished.getCount() > 0) {
+                put(key, content);
+                convertedContent = content;
+                release();
+            }
+        }
+
+        /**
+         * 선점한 키를 변환하지 못했을 때 선점을 풀어, 기다리는 작업이 다시 선점하도록 한다. (이미 끝난 경우 무시)
+         */
+        synchronized void abandon() {
+            if (cachedContent == null && finished.getCount() > 0) {
+                release();
+            }
+        }
+
+        private void release() {
+            inFlight.remove(key, this);
+            finished.countDown();
+        }
+
+        /**
+         * @return 선점한 작업의 변환 결과 (변환하지 못했을 경우 null)
+         */
+        private byte[] await() throws InterruptedException {
+            finished.await();
+            return convertedContent;
+        }
+    }
+}
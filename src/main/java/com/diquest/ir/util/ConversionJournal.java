@@ -0,0 +1,380 @@
+package com.diquest.ir.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 이어서 변환하기 위한 진행 기록 (체크포인트 저널)
+ * 출력 폴더에 변환을 마친 입력 파일별 크기, 수정시각, 출력 파일과 출력 내용의 CRC32 값을 1줄씩 덧붙여 기록한다.
+ * 출력 파일을 대상 경로로 옮긴 뒤에 기록하므로, 프로세스가 중단된 경우 기록된 파일은 출력 파일이 완성되어 있다.
+ * 각 줄 끝에 CRC32 값을 기록하여, 기록 도중 중단되어 잘린 줄은 읽을 때 무시한다.
+ * 변환이 중단되면 다음 실행에서 --resume 으로 기록된 파일을 건너뛰고 남은 파일만 변환한다.
+ * 중단은 미리 알 수 없으므로 --resume 없이 실행해도 폴더에 저장할 때는 항상 기록한다. (중단된 실행이 기록해 두어야 이어갈 수 있다.)
+ * 기록은 파일마다 1줄을 덧붙이기만 하고, 디스크 동기화(fsync)는 일정 건수나 시간마다 모아서 하므로 변환 속도에 주는 영향은 작다.
+ * 프로세스가 종료되어도(메모리 부족, 세션 종료, 디스크 부족) 덧붙인 줄은 남는다.
+ * 출력 파일도 파일마다 동기화하지 않으므로, 시스템이 멈추거나 전원이 꺼진 경우에는 기록된 파일이라도 출력 내용이 비어 있거나 잘릴 수 있다.
+ * 그래서 이어서 변환할 때 출력 파일을 다시 읽어 기록한 CRC32 값(그대로 복사한 파일은 원본 내용)과 비교하고, 다르면 다시 변환한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+class ConversionJournal {
+
+    /** 출력 폴더에 저장되는 저널 파일명 */
+    static final String JOURNAL_FILE_NAME = ".m5-convert-journal";
+
+    private static final String HEADER = "# m4-m5-setting-convertor journal";
+    /** 변환 설정값을 기록하는 줄의 시작 문자열 */
+    private static final String PARAMETERS_PREFIX = "#\t";
+    /** 디스크에 동기화하지 않고 쌓아둘 최대 기록 수 */
+    private static final int SYNC_INTERVAL_RECORDS = 256;
+    /** 디스크에 동기화하지 않고 기다릴 최대 시간 (ms) */
+    private static final long SYNC_INTERVAL_MILLIS = 1000;
+    private static final int CHECKSUM_BUFFER_SIZE = 64 * 1024;
+
+    private final Path inputRoot;
+    private final Path outputRoot;
+    private final Path journalFile;
+    private final Map<String, Entry> completedEntries;
+    private FileChannel channel;
+    /** 마지막 동기화 이후 덧붙인 기록 수 */
+    private int unsyncedRecords;
+    private long lastSyncedAt;
+
+    private ConversionJournal(Path inputRoot, Path outputRoot, Map<String, Entry> completedEntries) {
+        this.inputRoot = inputRoot;
+        this.outputRoot = outputRoot;
+        this.journalFile = outputRoot.resolve(JOURNAL_FILE_NAME);
+        this.completedEntries = completedEntries;
+    }
+
+    /**
+     * 출력 폴더에 저널을 연다.
+     * 이어서 변환할 경우 이전 저널에서 변환을 마친 파일 목록을 읽어오고, 출력 폴더에 남은 임시 파일을 삭제한다.
+     * 변환기 버전이나 입력/IR4/IR5 경로가 이전 저널과 다르면 이전 기록을 사용하지 않는다.
+     *
+     * @param inputFilePath     기존 XML 파일이 있는 폴더 또는 압축 파일 경로
+     * @param outputFilePath    출력 폴더 경로
+     * @param converterVersion  변환기 버전
+     * @param ir4HomePath       기존 mariner4 경로
+     * @param ir5HomePath       mariner5 경로
+     * @param resume            이어서 변환할 경우 true (false 일 경우 새 저널을 시작한다.)
+     * @return 저널
+     */
+    static ConversionJournal open(
+            String inputFilePath,
+            String outputFilePath,
+            String converterVersion,
+            String ir4HomePath,
+            String ir5HomePath,
+            boolean resume
+    ) throws IOException {
+        Path inputRoot = Paths.get(inputFilePath).toAbsolutePath().normalize();
+        Path outputRoot = Paths.get(outputFilePath).toAbsolutePath().normalize();
+        String parameters = PARAMETERS_PREFIX + String.join("\t",
+                RecordFields.escape(converterVersion),
+                RecordFields.escape(inputRoot.toString()),
+                RecordFields.escape(Objects.toString(ir4HomePath, "")),
+                RecordFields.escape(Objects.toString(ir5HomePath, ""))
+        );
+        Map<String, Entry> completedEntries = new HashMap<>();
+        ConversionJournal journal = new ConversionJournal(inputRoot, outputRoot, completedEntries);
+        if (resume) {
+            journal.load(parameters);
+            int removedCount = journal.removeTempFiles();
+            ConversionLog.info("Resume: " + completedEntries.size() + " converted files in journal, "
+                    + removedCount + " orphaned temp files removed");
+        }
+        journal.rewrite(parameters);
+        return journal;
+    }
+
+    /**
+     * 이전 실행에서 변환을 마친 파일인지 확인한다.
+     * 원본 크기/수정시각이 기록과 같고, 출력 파일의 내용이 기록한 CRC32 값(그대로 복사한 파일은 원본 파일 내용)과 같을 때만
+     * 변환을 마친 것으로 본다. (동기화 전에 시스템이 멈춰 비거나 잘린 출력 파일은 다시 변환한다.)
+     *
+     * @param xmlFile       입력 파일
+     * @param size          입력 파일 크기 (byte)
+     * @param lastModified  입력 파일 수정시각 (ms)
+     * @return 변환을 마친 파일의 출력 파일 경로 (출력하지 않는 파일은 빈 문자열), 다시 변환해야 할 경우 null
+     */
+    String getCompletedOutput(File xmlFile, long size, long lastModified) {
+        Entry entry = completedEntries.get(toRelativePath(xmlFile));
+        if (entry == null || entry.size != size || entry.lastModified != lastModified) {
+            return null;
+        }
+        if (entry.outputPath == null) {
+            return "";
+        }
+        Path outputFile = outputRoot.resolve(entry.outputPath);
+        if (!Files.isRegularFile(outputFile)) {
+            return null;
+        }
+        try {
+            boolean completed = (entry.outputChecksum == null)
+                    ? XmlFileWriter.hasSameContent(xmlFile.toPath(), outputFile)
+                    : entry.outputChecksum.equals(checksum(outputFile));
+            return completed ? outputFile.toString() : null;
+        } catch (IOException e) {
+            return null;    // 확인하지 못한 파일은 다시 변환한다.
+        }
+    }
+
+    /**
+     * 변환을 마친 파일을 저널에 덧붙인다. 1줄을 한 번에 기록하며 여러 스레드에서 호출할 수 있다.
+     * SYNC_INTERVAL_RECORDS 건이 쌓이거나 마지막 동기화 후 SYNC_INTERVAL_MILLIS 가 지나면 디스크에 동기화한다.
+     * 저널을 기록하지 못하면 이후 기록을 멈추고 변환은 계속한다. (다음 --resume 에서 해당 파일부터 다시 변환한다.)
+     *
+     * @param xmlFile        입력 파일
+     * @param size           입력 파일 크기 (byte)
+     * @param lastModified   입력 파일 수정시각 (ms)
+     * @param savedFilePath  저장한 파일 경로 (저장하지 않았을 경우 null)
+     * @param savedContent   저장한 파일 내용 (원본 파일을 그대로 복사했을 경우 null)
+     */
+    synchronized void record(File xmlFile, long size, long lastModified, String savedFilePath, byte[] savedContent) {
+        if (channel == null) {
+            return;
+        }
+        String outputPath = null;
+        String outputChecksum = null;
+        if (savedFilePath != null) {
+            outputPath = RecordFields.toKey(outputRoot, Paths.get(savedFilePath));
+            if (savedContent != null) {
+                CRC32 crc = new CRC32();
+                crc.update(savedContent);
+                outputChecksum = Long.toHexString(crc.getValue());
+            }
+        }
+        ByteBuffer line = ByteBuffer.wrap((new Entry(toRelativePath(xmlFile), size, lastModified, outputPath, outputChecksum).format() + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        try {
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            unsyncedRecords++;
+            if (unsyncedRecords >= SYNC_INTERVAL_RECORDS || System.currentTimeMillis() - lastSyncedAt >= SYNC_INTERVAL_MILLIS) {
+                sync();
+            }
+        } catch (IOException e) {
+            // 저널은 중단된 변환을 이어가기 위한 것이므로 기록하지 못해도 변환은 계속한다.
+            ConversionLog.warn("Failed to write conversion journal: " + journalFile + " (" + e.getMessage() + ")");
+            closeChannel();
+        }
+    }
+
+    /**
+     * 저널 기록을 마친다.
+     * 모든 파일을 변환했을 경우 더 이어갈 작업이 없으므로 저널을 삭제하고, 아니면 다음 --resume 을 위해 남겨둔다.
+     *
+     * @param completed 모든 파일을 오류 없이 변환했을 경우 true
+     */
+    synchronized void close(boolean completed) throws IOException {
+        try {
+            if (channel != null && !completed) {
+                sync();     // 다음 --resume 에서 사용할 마지막 기록까지 디스크에 남긴다.
+            }
+        } finally {
+            closeChannel();
+        }
+        if (completed) {
+            Files.deleteIfExists(journalFile);
+        }
+    }
+
+    /**
+     * 덧붙인 기록을 디스크에 동기화한다.
+     */
+    private void sync() throws IOException {
+        channel.force(false);
+        unsyncedRecords = 0;
+        lastSyncedAt = System.currentTimeMillis();
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // 기록은 이미 파일에 반영되었다.
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    private void load(String parameters) throws IOException {
+        if (!Files.exists(journalFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(PARAMETERS_PREFIX) && !line.equals(parameters)) {
+                    ConversionLog.warn("Resume: 변환기 버전 또는 입력/IR4/IR5 경로가 바뀌어 이전 진행 기록을 사용하지 않습니다.");
+                    completedEntries.clear();
+                    return;
+                }
+                Entry entry = Entry.parse(line);
+                if (entry != null) {
+                    completedEntries.put(entry.relativePath, entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * 중단된 실행이 남긴 임시 파일(변환 결과, 매니페스트, 저널)을 출력 폴더에서 삭제한다.
+     *
+     * @return 삭제한 파일 수
+     */
+    private int removeTempFiles() throws IOException {
+        if (!Files.isDirectory(outputRoot)) {
+            return 0;
+        }
+        int removedCount = 0;
+        try (Stream<Path> paths = Files.walk(outputRoot)) {
+            Iterator<Path> tempFiles = paths.filter(ConversionJournal::isOrphanedTempFile).iterator();
+            while (tempFiles.hasNext()) {
+                if (Files.deleteIfExists(tempFiles.next())) {
+                    removedCount++;
+                }
+            }
+        }
+        return removedCount;
+    }
+
+    private static boolean isOrphanedTempFile(Path path) {
+        String fileName = path.getFileName().toString();
+        return (fileName.endsWith(".xml" + XmlFileWriter.TEMP_FILE_SUFFIX)
+                || fileName.equals(ConversionManifest.MANIFEST_FILE_NAME + XmlFileWriter.TEMP_FILE_SUFFIX)
+                || fileName.equals(JOURNAL_FILE_NAME + XmlFileWriter.TEMP_FILE_SUFFIX))
+                && Files.isRegularFile(path);
+    }
+
+    /**
+     * 읽어온 기록만 담은 저널을 새로 만든 뒤 덧붙여 기록할 수 있도록 연다.
+     * (이전 실행이 기록 도중 중단되어 잘린 마지막 줄에 이어서 기록하지 않도록 한다.)
+     */
+    private void rewrite(String parameters) throws IOException {
+        Files.createDirectories(outputRoot);
+        Path tempFile = Paths.get(journalFile + XmlFileWriter.TEMP_FILE_SUFFIX);
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.write('\n');
+                writer.write(parameters);
+                writer.write('\n');
+                for (Entry entry : completedEntries.values()) {
+                    writer.write(entry.format());
+                    writer.write('\n');
+                }
+            }
+            XmlFileWriter.moveIntoPlace(tempFile, journalFile);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        channel = FileChannel.open(journalFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        lastSyncedAt = System.currentTimeMillis();
+    }
+
+    private String toRelativePath(File xmlFile) {
+        return RecordFields.toKey(inputRoot, xmlFile.toPath());
+    }
+
+    /**
+     * 출력 파일 내용의 CRC32 값을 계산한다.
+     */
+    private static String checksum(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(CHECKSUM_BUFFER_SIZE);
+            while (fileChannel.read(buffer) >= 0) {
+                ((Buffer) buffer).flip();
+                crc.update(buffer);
+                ((Buffer) buffer).clear();
+            }
+        }
+        return Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * 변환을 마친 입력 파일별 저널 항목
+     */
+    private static class Entry {
+
+        private final String relativePath;
+        private final long size;
+        private final long lastModified;
+        /** 출력 폴더 기준 출력 파일 경로 (출력하지 않았을 경우 null) */
+        private final String outputPath;
+        /** 출력 파일 내용의 CRC32 값 (출력하지 않았거나 원본 파일을 그대로 복사했을 경우 null) */
+        private final String outputChecksum;
+
+        Entry(String relativePath, long size, long lastModified, String outputPath, String outputChecksum) {
+            this.relativePath = relativePath;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.outputPath = outputPath;
+            this.outputChecksum = outputChecksum;
+        }
+
+        String format() {
+            String line = String.join("\t",
+                    RecordFields.escape(relativePath),
+                    Long.toString(size),
+                    Long.toString(lastModified),
+                    (outputPath == null) ? "" : RecordFields.escape(outputPath),
+                    (outputChecksum == null) ? "" : outputChecksum
+            );
+            return line + "\t" + checksum(line);
+        }
+
+        static Entry parse(String line) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                return null;
+            }
+            int checksumIndex = line.lastIndexOf('\t');
+            if (checksumIndex == -1 || !line.substring(checksumIndex + 1).equals(checksum(line.substring(0, checksumIndex)))) {
+                return null;    // 기록 도중 중단되어 잘린 줄
+            }
+            String[] fields = line.substring(0, checksumIndex).split("\t", -1);
+            if (fields.length != 5) {
+                return null;
+            }
+            try {
+                return new Entry(
+                        RecordFields.unescape(fields[0]),
+                        Long.parseLong(fields[1]),
+                        Long.parseLong(fields[2]),
+                        fields[3].isEmpty() ? null : RecordFields.unescape(fields[3]),
+                        fields[4].isEmpty() ? null : fields[4]
+                );
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static String checksum(String line) {
+            CRC32 crc = new CRC32();
+            crc.update(line.getBytes(StandardCharsets.UTF_8));
+            return Long.toHexString(crc.getValue());
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.diquest.ir.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 변환 중 발생한 이벤트(파일별 저장 결과, 오류, 안내 메시지, 실행 결과 요약)를 콘솔과 로그 파일에 기록하는 클래스
+ * 변환 스레드는 이벤트를 큐에 넣기만 하고, 기록 스레드 1개가 쌓인 이벤트를 모아서 한 번에 출력하므로
+ * 콘솔이나 디스크 쓰기가 느려도 변환 스레드는 기다리지 않는다.
+ * 콘솔은 수준별로 출력을 줄일 수 있고(--quiet, --summary), 로그 파일에는 이벤트 1건을 JSON 1줄로 덧붙여 기록한다.
+ * 종료 시(System.exit 포함) 남은 이벤트를 모두 기록한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public final class ConversionLog {
+
+    /**
+     * 이벤트 수준
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR,
+        /** 실행 결과 요약 (항상 기록한다.) */
+        SUMMARY;
+
+        String jsonName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * @param name 수준 이름 (debug, info, warn, error)
+         * @return 이벤트 수준
+         * @throws IllegalArgumentException 알 수 없는 이름일 경우
+         */
+        public static Level parse(String name) {
+            Level level = valueOf(name.toUpperCase(Locale.ROOT));
+            if (level == SUMMARY) {
+                throw new IllegalArgumentException(name);
+            }
+            return level;
+        }
+    }
+
+    /** 기록 스레드가 한 번에 모아서 출력할 최대 이벤트 수 */
+    private static final int BATCH_SIZE = 1024;
+    /** 기록을 마치도록 알리는 표시 */
+    private static final Event END_OF_EVENTS = new Event(Level.SUMMARY, null, null, null, null, null, null, null);
+
+    private static volatile ConversionLog current;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ConversionLog::close, "m5-convert-log-shutdown"));
+    }
+
+    private final Level consoleLevel;
+    private final Level fileLevel;
+    /** 큐에 넣을 최소 수준 (콘솔과 로그 파일 중 낮은 수준) */
+    private final Level enqueueLevel;
+    private final Path logFile;
+    private Writer logWriter;
+    private final LinkedBlockingQueue<Event> events = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+
+    private ConversionLog(Level consoleLevel, Level fileLevel, Path logFile) throws IOException {
+        this.consoleLevel = consoleLevel;
+        this.fileLevel = fileLevel;
+        this.logFile = logFile;
+        if (logFile != null) {
+            Path parent = logFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.logWriter = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        this.enqueueLevel = (logFile != null && fileLevel.compareTo(consoleLevel) < 0) ? fileLevel : consoleLevel;
+        this.writerThread = new Thread(this::drain, "m5-convert-log");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 이벤트 기록 방식을 설정한다. 이전 설정으로 쌓인 이벤트는 모두 기록한 뒤 바꾼다.
+     * 설정하지 않았을 경우 info 이상의 이벤트를 콘솔에만 출력한다.
+     *
+     * @param level        기록할 최소 수준
+     * @param consoleLevel 콘솔에 출력할 최소 수준 (level 보다 낮으면 level 을 사용한다.)
+     * @param logFile      이벤트를 JSON 1줄씩 덧붙여 기록할 파일 (기록하지 않을 경우 null)
+     * @throws IOException 로그 파일을 열지 못했을 경우
+     */
+    public static void configure(Level level, Level consoleLevel, Path logFile) throws IOException {
+        ConversionLog log = new ConversionLog((consoleLevel.compareTo(level) < 0) ? level : consoleLevel, level, logFile);
+        ConversionLog previous;
+        synchronized (ConversionLog.class) {
+            previous = current;
+            current = log;
+        }
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * 쌓인 이벤트를 모두 기록하고 로그 파일을 닫는다. 이후 이벤트는 기본 설정(콘솔)으로 기록한다.
+     */
+    public static void close() {
+        ConversionLog log;
+        synchronized (ConversionLog.class) {
+            log = current;
+            current = null;
+        }
+        if (log != null) {
+            log.shutdown();
+        }
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message, null);
+    }
+
+    public static void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    /**
+     * 실행 결과 요약을 기록한다. (콘솔 출력을 줄여도 항상 출력한다.)
+     */
+    public static void summary(String message) {
+        get().enqueue(new Event(Level.SUMMARY, "summary", null, null, null, null, message, null));
+    }
+
+    /**
+     * 실행 결과 요약 중 실패 내용을 기록한다. (콘솔에서는 표준 오류로 출력한다.)
+     */
+    public static void summaryFailure(String message) {
+        get().enqueue(new Event(Level.SUMMARY, "summaryFailure", null, null, null, null, message, null));
+    }
+
+    /**
+     * 파일 1건의 저장 결과를 기록한다. (info)
+     *
+     * @param xmlFile       원본 파일
+     * @param savedMessage  저장 결과 (예: "Copied: ")
+     * @param savedFilePath 저장한 파일 경로
+     */
+    static void saved(File xmlFile, String savedMessage, String savedFilePath) {
+        ConversionLog log = get();
+        if (Level.INFO.compareTo(log.enqueueLevel) >= 0) {
+            log.enqueue(new Event(Level.INFO, "saved", xmlFile.getPath(), savedFilePath, null, null, savedMessage, null));
+        }
+    }
+
+    /**
+     * 파일 1건의 변환 실패를 실패한 변환 규칙, 단계와 함께 기록한다. (error)
+     *
+     * @param failure 변환 결과에 기록한 실패 내용
+     */
+    static void failed(ConversionResult.Failure failure) {
+        get().enqueue(new Event(Level.ERROR, "failed", failure.getFile().getPath(), null, failure.getRule(),
+                (failure.getPhase() == null) ? null : failure.getPhase().jsonName(), null, failure.getCause()));
+    }
+
+    private static void log(Level level, String message, Throwable error) {
+        ConversionLog log = get();
+        if (level.compareTo(log.enqueueLevel) >= 0) {
+            log.enqueue(new Event(level, "message", null, null, null, null, message, error));
+        }
+    }
+
+    private static ConversionLog get() {
+        ConversionLog log = current;
+        if (log == null) {
+            synchronized (ConversionLog.class) {
+                if (current == null) {
+                    try {
+                        current = new ConversionLog(Level.INFO, Level.INFO, null);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);     // 로그 파일이 없으면 발생하지 않는다.
+                    }
+                }
+                log = current;
+            }
+        }
+        return log;
+    }
+
+    private void enqueue(Event event) {
+        // 크기 제한이 없는 큐이므로 기다리지 않는다.
+        events.offer(event);
+    }
+
+    private void shutdown() {
+        events.offer(END_OF_EVENTS);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 쌓인 이벤트를 최대 BATCH_SIZE 건씩 모아 콘솔과 로그 파일에 한 번에 기록한다.
+     */
+    private void drain() {
+        List<Event> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder out = new StringBuilder();
+        StringBuilder err = new StringBuilder();
+        StringBuilder json = new StringBuilder();
+        boolean finished = false;
+        try {
+            while (!finished) {
+                batch.add(events.take());
+                events.drainTo(batch, BATCH_SIZE - 1);
+                for (Event event : batch) {
+                    if (event == END_OF_EVENTS) {
+                        finished = true;
+                        continue;
+                    }
+                    if (event.level.compareTo(consoleLevel) >= 0) {
+                        event.appendConsole(event.isError() ? err : out, consoleLevel == Level.DEBUG);
+                    }
+                    if (logWriter != null && event.level.compareTo(fileLevel) >= 0) {
+                        event.appendJson(json);
+                    }
+                }
+                batch.clear();
+                flush(out, err, json);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeLogWriter();
+        }
+    }
+
+    private void flush(StringBuilder out, StringBuilder err, StringBuilder json) {
+        if (out.length() > 0) {
+            System.out.print(out);
+            System.out.flush();
+            out.setLength(0);
+        }
+        if (err.length() > 0) {
+            System.err.print(err);
+            System.err.flush();
+            err.setLength(0);
+        }
+        if (json.length() > 0) {
+            try {
+                logWriter.write(json.toString());
+                logWriter.flush();
+            } catch (IOException e) {
+                // 로그 파일을 기록하지 못하면 이후에는 콘솔에만 출력한다.
+                System.err.println("Failed to write log file: " + logFile + " (" + e.getMessage() + ")");
+                closeLogWriter();
+            }
+            json.setLength(0);
+        }
+    }
+
+    private void closeLogWriter() {
+        if (logWriter != null) {
+            try {
+                logWriter.close();
+            } catch (IOException ignored) {
+                // 기록한 내용은 flush 로 이미 반영되었다.
+            } finally {
+                logWriter = null;
+            }
+        }
+    }
+
+    /**
+     * 이벤트 1건 (메시지는 기록 스레드에서 만든다.)
+     */
+    private static final class Event {
+
+        private final long timeMillis = System.currentTimeMillis();
+        private final Level level;
+        private final String type;
+        private final String file;
+        private final String output;
+        private final String rule;
+        private final String phase;
+        private final String message;
+        private final Throwable error;
+
+        Event(Level level, String type, String file, String output, String rule, String phase, String message, Throwable error) {
+            this.level = level;
+            this.type = type;
+            this.file = file;
+            this.output = output;
+            this.rule = rule;
+            this.phase = phase;
+            this.message = message;
+            this.error = error;
+        }
+
+        boolean isError() {
+            return level == Level.ERROR || "summaryFailure".equals(type);
+        }
+
+        void appendConsole(StringBuilder console, boolean stackTrace) {
+            if ("saved".equals(type)) {
+                console.append(message).append(output);
+            } else if ("failed".equals(type)) {
+                console.append("Failed: ").append(file);
+                if (rule != null) {
+                    console.append(" [").append(rule).append('/').append(phase).append(']');
+                }
+                console.append(" : ").append(error);
+            } else {
+                console.append(message);
+                if (error != null) {
+                    console.append(" : ").append(error);
+                }
+            }
+            console.append(System.lineSeparator());
+            if (stackTrace && error != null) {
+                console.append(getStackTrace(error));
+            }
+        }
+
+        void appendJson(StringBuilder json) {
+            json.append("{\"time\": ");
+            appendJsonString(json, Instant.ofEpochMilli(timeMillis).toString());
+            json.append(", \"level\": \"").append(level.jsonName()).append('"');
+            json.append(", \"event\": \"").append(type).append('"');
+            appendJsonField(json, "file", file);
+            appendJsonField(json, "output", output);
+            appendJsonField(json, "rule", rule);
+            appendJsonField(json, "phase", phase);
+            appendJsonField(json, "message", (message == null) ? null : getJsonMessage());
+            if (error != null) {
+                appendJsonField(json, "error", error.toString());
+                appendJsonField(json, "stackTrace", getStackTrace(error));
+            }
+            json.append("}\n");
+        }
+
+        /**
+         * @return 로그 파일에 기록할 메시지 (저장 결과는 "Copied: " 를 "Copied" 로 기록한다.)
+         */
+        private String getJsonMessage() {
+            String trimmed = message.trim();
+            if ("saved".equals(type) && trimmed.endsWith(":")) {
+                return trimmed.substring(0, trimmed.length() - 1);
+            }
+            return trimmed;
+        }
+
+        private static void appendJsonField(StringBuilder json, String name, String value) {
+            if (value != null) {
+                json.append(", \"").append(name).append("\": ");
+                appendJsonString(json, value);
+            }
+        }
+
+        private static void appendJsonString(StringBuilder json, String value) {
+            json.append('"');
+            for (int idx = 0; idx < value.length(); idx++) {
+                char ch = value.charAt(idx);
+                if (ch == '"' || ch == '\\') {
+                    json.append('\\').append(ch);
+                } else if (ch == '\n') {
+                    json.append("\\n");
+                } else if (ch == '\r') {
+                    json.append("\\r");
+                } else if (ch == '\t') {
+                    json.append("\\t");
+                } else if (ch < 0x20) {
+                    json.append(String.format("\\u%04x", (int) ch));
+                } else {
+                    json.append(ch);
+                }
+            }
+            json.append('"');
+        }
+
+        private static String getStackTrace(Throwable error) {
+            StringWriter stackTrace = new StringWriter();
+            error.printStackTrace(new PrintWriter(stackTrace));
+            return stackTrace.toString();
+        }
+    }
+}
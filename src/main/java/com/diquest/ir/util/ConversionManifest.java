@@ -0,0 +1,361 @@
+package com.diquest.ir.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 증분 변환용 매니페스트
+ * 출력 폴더에 입력 파일별 크기, 수정시각, 내용 해시(SHA-256), 변환기 버전, IR4/IR5 경로, 출력 파일을 기록하여
+ * 다음 실행 시 바뀌지 않은 파일은 건너뛰고, 원본이 삭제된 출력 파일은 정리한다.
+ * 크기와 수정시각이 같으면 해시를 계산하지 않고, 다를 때만 내용 해시로 비교한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class ConversionManifest {
+
+    /** 출력 폴더에 저장되는 매니페스트 파일명 */
+    public static final String MANIFEST_FILE_NAME = ".m5-convert-manifest";
+
+    private static final String HEADER = "# m4-m5-setting-convertor manifest";
+    /** 변환에 실패하여 다음 실행 시 반드시 다시 변환해야 하는 항목의 해시 값 */
+    private static final String STALE_HASH = "-";
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private final Path inputRoot;
+    private final Path outputRoot;
+    private final String converterVersion;
+    private final String ir4HomePath;
+    private final String ir5HomePath;
+    private final Map<String, Entry> previousEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> seenPaths = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<ByteBuffer> hashBuffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(HASH_BUFFER_SIZE));
+
+    private ConversionManifest(
+            Path inputRoot,
+            Path outputRoot,
+            String converterVersion,
+            String ir4HomePath,
+            String ir5HomePath,
+            Map<String, Entry> previousEntries
+    ) {
+        this.inputRoot = inputRoot;
+        this.outputRoot = outputRoot;
+        this.converterVersion = converterVersion;
+        this.ir4HomePath = Objects.toString(ir4HomePath, "");
+        this.ir5HomePath = Objects.toString(ir5HomePath, "");
+        this.previousEntries = previousEntries;
+    }
+
+    /**
+     * 출력 폴더에 저장된 이전 매니페스트를 읽어온다. (없을 경우 빈 매니페스트)
+     *
+     * @param inputFilePath     기존 XML 파일이 있는 폴더 경로
+     * @param outputFilePath    출력 파일 경로
+     * @param converterVersion  변환기 버전
+     * @param ir4HomePath       기존 mariner4 경로
+     * @param ir5HomePath       mariner5 경로
+     * @return 매니페스트
+     */
+    public static ConversionManifest load(
+            String inputFilePath,
+            String outputFilePath,
+            String converterVersion,
+            String ir4HomePath,
+            String ir5HomePath
+    ) throws IOException {
+        Path outputRoot = Paths.get(outputFilePath).toAbsolutePath().normalize();
+        Map<String, Entry> previousEntries = new HashMap<>();
+        Path manifestFile = outputRoot.resolve(MANIFEST_FILE_NAME);
+        if (Files.exists(manifestFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Entry entry = Entry.parse(line);
+                    if (entry != null) {
+                        previousEntries.put(entry.relativePath, entry);
+                    }
+                }
+            }
+        }
+        return new ConversionManifest(
+                Paths.get(inputFilePath).toAbsolutePath().normalize(),
+                outputRoot,
+                converterVersion,
+                ir4HomePath,
+                ir5HomePath,
+                previousEntries
+        );
+    }
+
+    /**
+     * 입력 파일을 이전 실행 결과와 비교한다.
+     * 바뀌지 않았을 경우 이전 항목을 그대로 이어서 기록한다.
+     *
+     * @param xmlFile 입력 파일
+     * @return 변환이 필요할 경우 변환 후 record 에 넘길 새 항목, 바뀌지 않았을 경우 null
+     */
+    public Entry checkChanged(File xmlFile) throws IOException {
+        String relativePath = RecordFields.toKey(inputRoot, xmlFile.toPath());
+        seenPaths.add(relativePath);
+        BasicFileAttributes attributes = Files.readAttributes(xmlFile.toPath(), BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        Entry previous = previousEntries.get(relativePath);
+        if (previous != null && isReusable(previous)) {
+            if (previous.size == size && previous.lastModified == lastModified) {
+                entries.put(relativePath, previous);
+                return null;
+            }
+            String hash = hash(xmlFile.toPath());
+            if (previous.hash.equals(hash)) {
+                // 내용은 같고 수정시각만 바뀐 경우
+                entries.put(relativePath, previous.withAttributes(size, lastModified, hash));
+                return null;
+            }
+            return newEntry(relativePath, size, lastModified, hash);
+        }
+        return newEntry(relativePath, size, lastModified, hash(xmlFile.toPath()));
+    }
+
+    /**
+     * 변환을 마친 파일을 기록한다.
+     *
+     * @param entry          checkChanged 에서 받은 항목
+     * @param savedFilePath  저장한 파일 경로 (저장하지 않았을 경우 null)
+     */
+    public void record(Entry entry, String savedFilePath) {
+        String outputPath = null;
+        if (savedFilePath != null) {
+            outputPath = RecordFields.toKey(outputRoot, Paths.get(savedFilePath));
+        }
+        entries.put(entry.relativePath, entry.withOutputPath(outputPath));
+    }
+
+    /**
+     * 변환에 실패한 파일을 기록한다.
+     * 이전 출력 파일은 그대로 두고, 다음 실행 시 반드시 다시 변환하도록 한다.
+     *
+     * @param entry checkChanged 에서 받은 항목
+     */
+    public void recordFailure(Entry entry) {
+        Entry previous = previousEntries.get(entry.relativePath);
+        if (previous != null) {
+            entries.put(entry.relativePath, previous.withAttributes(previous.size, previous.lastModified, STALE_HASH));
+        }
+    }
+
+    /**
+     * 원본이 삭제되었거나 출력 경로가 바뀐 이전 출력 파일을 삭제한다.
+     * (이번 실행의 다른 파일이 같은 출력 경로를 사용하는 경우는 제외)
+     *
+     * @return 삭제한 파일 수
+     */
+    public int prune() throws IOException {
+        Set<String> currentOutputs = new HashSet<>();
+        for (Entry entry : entries.values()) {
+            if (entry.outputPath != null) {
+                currentOutputs.add(entry.outputPath);
+            }
+        }
+        int prunedCount = 0;
+        for (Entry previous : previousEntries.values()) {
+            if (previous.outputPath == null || currentOutputs.contains(previous.outputPath)) {
+                continue;
+            }
+            if (!seenPaths.contains(previous.relativePath) || entries.containsKey(previous.relativePath)) {
+                if (Files.deleteIfExists(outputRoot.resolve(previous.outputPath))) {
+                    prunedCount++;
+                }
+            }
+        }
+        return prunedCount;
+    }
+
+    /**
+     * 이번 실행에서 찾지 못한 이전 항목을 그대로 이어서 기록한다.
+     * 탐색이 중간에 실패하여 prune 을 하지 않을 때, 찾지 못한 파일의 출력 파일을 다음 실행에서도 관리하도록 한다.
+     */
+    public void keepUnseen() {
+        for (Entry previous : previousEntries.values()) {
+            if (!seenPaths.contains(previous.relativePath)) {
+                entries.putIfAbsent(previous.relativePath, previous);
+            }
+        }
+    }
+
+    /**
+     * 매니페스트를 출력 폴더에 저장한다.
+     */
+    public void save() throws IOException {
+        Files.createDirectories(outputRoot);
+        Path manifestFile = outputRoot.resolve(MANIFEST_FILE_NAME);
+        Path tempFile = Paths.get(manifestFile + XmlFileWriter.TEMP_FILE_SUFFIX);
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (Entry entry : new TreeMap<>(entries).values()) {
+                    writer.write(entry.format());
+                    writer.newLine();
+                }
+            }
+            XmlFileWriter.moveIntoPlace(tempFile, manifestFile);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private boolean isReusable(Entry previous) {
+        if (!converterVersion.equals(previous.converterVersion)
+                || !ir4HomePath.equals(previous.ir4HomePath)
+                || !ir5HomePath.equals(previous.ir5HomePath)) {
+            return false;
+        }
+        return previous.outputPath == null || Files.exists(outputRoot.resolve(previous.outputPath));
+    }
+
+    private Entry newEntry(String relativePath, long size, long lastModified, String hash) {
+        return new Entry(relativePath, size, lastModified, hash, converterVersion, ir4HomePath, ir5HomePath, null);
+    }
+
+    private String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = hashBuffers.get();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ((Buffer) buffer).clear();
+            while (channel.read(buffer) >= 0) {
+                ((Buffer) buffer).flip();
+                digest.update(buffer);
+                ((Buffer) buffer).clear();
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * 입력 파일별 매니페스트 항목
+     */
+    public static class Entry {
+
+        private final String relativePath;
+        private final long size;
+        private final long lastModified;
+        private final String hash;
+        private final String converterVersion;
+        private final String ir4HomePath;
+        private final String ir5HomePath;
+        /** 출력 폴더 기준 출력 파일 경로 (출력하지 않았을 경우 null) */
+        private final String outputPath;
+
+        Entry(
+                String relativePath,
+                long size,
+                long lastModified,
+                String hash,
+                String converterVersion,
+                String ir4HomePath,
+                String ir5HomePath,
+                String outputPath
+        ) {
+            this.relativePath = relativePath;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.converterVersion = converterVersion;
+            this.ir4HomePath = ir4HomePath;
+            this.ir5HomePath = ir5HomePath;
+            this.outputPath = outputPath;
+        }
+
+        Entry withAttributes(long size, long lastModified, String hash) {
+            return new Entry(relativePath, size, lastModified, hash, converterVersion, ir4HomePath, ir5HomePath, outputPath);
+        }
+
+        Entry withOutputPath(String outputPath) {
+            return new Entry(relativePath, size, lastModified, hash, converterVersion, ir4HomePath, ir5HomePath, outputPath);
+        }
+
+        /**
+         * @return 입력 폴더 기준 입력 파일 경로
+         */
+        public String getRelativePath() {
+            return relativePath;
+        }
+
+        /**
+         * @return 입력 파일 내용 해시 (SHA-256)
+         */
+        public String getHash() {
+            return hash;
+        }
+
+        String format() {
+            return String.join("\t",
+                    RecordFields.escape(relativePath),
+                    Long.toString(size),
+                    Long.toString(lastModified),
+                    hash,
+                    RecordFields.escape(converterVersion),
+                    RecordFields.escape(ir4HomePath),
+                    RecordFields.escape(ir5HomePath),
+                    (outputPath == null) ? "" : RecordFields.escape(outputPath)
+            );
+        }
+
+        static Entry parse(String line) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                return null;
+            }
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 8) {
+                return null;
+            }
+            try {
+                return new Entry(
+                        RecordFields.unescape(fields[0]),
+                        Long.parseLong(fields[1]),
+                        Long.parseLong(fields[2]),
+                        fields[3],
+                        RecordFields.unescape(fields[4]),
+                        RecordFields.unescape(fields[5]),
+                        RecordFields.unescape(fields[6]),
+                        fields[7].isEmpty() ? null : RecordFields.unescape(fields[7])
+                );
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
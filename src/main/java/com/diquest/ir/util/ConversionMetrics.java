@@ -0,0 +1,351 @@
+package com.diquest.ir.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 변환 실행 측정값 (단계별 소요시간 분포, 읽기/쓰기 바이트 수, 파일 종류별 처리 건수, 단계별 오류 건수)
+ * 여러 작업 스레드에서 동시에 기록할 수 있으며, 실행이 끝나면 JSON 으로 저장할 수 있다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class ConversionMetrics {
+
+    /**
+     * 변환 단계
+     * 스트리밍 변환은 파싱/변환/직렬화를 한 번에 처리하므로 transform 으로 기록한다.
+     */
+    public enum Phase {
+        WALK, READ, PARSE, TRANSFORM, SERIALIZE, WRITE, COPY;
+
+        String jsonName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 처리된 파일 종류
+     */
+    public enum FileType {
+        /** 그대로 복사한 파일 (collectionList.xml, profileSetting.xml) */
+        COPIED("copied"),
+        COLLECTION_SETTING("collectionSetting"),
+        DBWATCHER_LIST("dbwatcherList"),
+        DBWATCHER("dbwatcher"),
+        /** 바뀌지 않았거나 저장 대상이 아니어서 저장하지 않은 파일 */
+        SKIPPED("skipped");
+
+        private final String jsonName;
+
+        FileType(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        String jsonName() {
+            return jsonName;
+        }
+    }
+
+    private final long startedAt = System.nanoTime();
+    private volatile long finishedAt;
+    private final AtomicLong discoveredCount = new AtomicLong();
+    private final AtomicLong finishedCount = new AtomicLong();
+    private volatile boolean walkFinished;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong identicalCount = new AtomicLong();
+    private final AtomicLong cachedCount = new AtomicLong();
+    private final AtomicLongArray fileTypeCounts = new AtomicLongArray(FileType.values().length);
+    private final AtomicLongArray phaseErrorCounts = new AtomicLongArray(Phase.values().length);
+    private final LatencyHistogram fileLatency = new LatencyHistogram();
+    private final LatencyHistogram[] phaseLatencies = new LatencyHistogram[Phase.values().length];
+
+    public ConversionMetrics() {
+        for (int idx = 0; idx < phaseLatencies.length; idx++) {
+            phaseLatencies[idx] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * 변환 대상 파일을 찾았음을 기록한다.
+     */
+    void addDiscovered() {
+        discoveredCount.incrementAndGet();
+    }
+
+    /**
+     * 파일 탐색이 끝났음을 기록한다. (이후 진행 상황에 남은 시간을 표시한다.)
+     */
+    void walkFinished() {
+        walkFinished = true;
+    }
+
+    /**
+     * 변환 작업 1건이 끝났음을 기록한다.
+     *
+     * @param task     끝난 변환 작업
+     * @param fileType 처리된 파일 종류
+     */
+    void recordFinished(SettingFileTask task, FileType fileType) {
+        fileTypeCounts.incrementAndGet(fileType.ordinal());
+        if (task.isOutputIdentical()) {
+            identicalCount.incrementAndGet();
+        }
+        if (task.isCacheHit()) {
+            cachedCount.incrementAndGet();
+        }
+        recordTask(task);
+    }
+
+    /**
+     * 변환 작업 1건이 오류로 끝났음을 기록한다. 오류는 마지막으로 시작한 단계에 집계한다.
+     *
+     * @param task 실패한 변환 작업
+     */
+    void recordFailure(SettingFileTask task) {
+        Phase phase = task.getCurrentPhase();
+        addError((phase == null) ? Phase.READ : phase);
+        recordTask(task);
+    }
+
+    /**
+     * 파일과 관계없이 발생한 오류를 기록한다. (폴더 탐색 오류 등)
+     *
+     * @param phase 오류가 발생한 단계
+     */
+    void addError(Phase phase) {
+        phaseErrorCounts.incrementAndGet(phase.ordinal());
+    }
+
+    private void recordTask(SettingFileTask task) {
+        long fileNanos = 0;
+        for (Phase phase : Phase.values()) {
+            long phaseNanos = task.getPhaseNanos(phase);
+            if (phaseNanos > 0) {
+                phaseLatencies[phase.ordinal()].record(phaseNanos);
+                fileNanos += phaseNanos;
+            }
+        }
+        fileLatency.record(fileNanos);
+        bytesRead.addAndGet(task.getBytesRead());
+        bytesWritten.addAndGet(task.getBytesWritten());
+        finishedCount.incrementAndGet();
+    }
+
+    /**
+     * 실행이 끝났음을 기록한다.
+     */
+    void finish() {
+        finishedAt = System.nanoTime();
+    }
+
+    /**
+     * @return 실행 시간 (ms)
+     */
+    public long getElapsedMillis() {
+        long endedAt = (finishedAt == 0) ? System.nanoTime() : finishedAt;
+        return TimeUnit.NANOSECONDS.toMillis(endedAt - startedAt);
+    }
+
+    /**
+     * @param fileType 파일 종류
+     * @return 해당 종류로 처리된 파일 수
+     */
+    public long getFileTypeCount(FileType fileType) {
+        return fileTypeCounts.get(fileType.ordinal());
+    }
+
+    /**
+     * @return 오류 건수 합계
+     */
+    public long getErrorCount() {
+        long errorCount = 0;
+        for (int idx = 0; idx < phaseErrorCounts.length(); idx++) {
+            errorCount += phaseErrorCounts.get(idx);
+        }
+        return errorCount;
+    }
+
+    /**
+     * @return 이미 같은 내용의 파일이 있어 기록하지 않은 파일 수
+     */
+    public long getIdenticalCount() {
+        return identicalCount.get();
+    }
+
+    /**
+     * @return 변환하지 않고 캐시된 변환 결과를 사용한 파일 수
+     */
+    public long getCachedCount() {
+        return cachedCount.get();
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * 진행 상황을 주기적으로 출력한다.
+     *
+     * @param intervalMillis 출력 주기 (ms)
+     * @return 출력을 멈출 때 shutdown 할 스케줄러
+     */
+    ScheduledExecutorService startProgress(long intervalMillis) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "m5-convert-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(
+                () -> ConversionLog.info(formatProgress()), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return scheduler;
+    }
+
+    /**
+     * @return 처리 건수, 초당 처리량, 남은 시간 (파일 탐색이 끝나기 전에는 남은 시간을 알 수 없다.)
+     */
+    String formatProgress() {
+        long finished = finishedCount.get();
+        long discovered = discoveredCount.get();
+        double elapsedSeconds = getElapsedMillis() / 1000.0;
+        double filesPerSecond = (elapsedSeconds > 0) ? finished / elapsedSeconds : 0;
+        String eta;
+        if (!walkFinished) {
+            eta = "탐색 중";
+        } else if (filesPerSecond > 0) {
+            long remainingSeconds = (long) Math.ceil((discovered - finished) / filesPerSecond);
+            eta = String.format("%02d:%02d", remainingSeconds / 60, remainingSeconds % 60);
+        } else {
+            eta = "-";
+        }
+        return String.format(Locale.ROOT, "Progress: %d/%d files, %.1f files/s, ETA %s",
+                finished, discovered, filesPerSecond, eta);
+    }
+
+    /**
+     * 측정값을 JSON 파일로 저장한다.
+     *
+     * @param file 저장할 파일 경로
+     */
+    public void writeJson(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(toJson());
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    /**
+     * @return 측정값 JSON
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(2048);
+        json.append("{\n");
+        json.append("  \"elapsedMillis\": ").append(getElapsedMillis()).append(",\n");
+        json.append("  \"files\": {\"discovered\": ").append(discoveredCount.get())
+                .append(", \"finished\": ").append(finishedCount.get());
+        for (FileType fileType : FileType.values()) {
+            json.append(", \"").append(fileType.jsonName).append("\": ").append(getFileTypeCount(fileType));
+        }
+        json.append(", \"identical\": ").append(identicalCount.get())
+                .append(", \"cached\": ").append(cachedCount.get())
+                .append(", \"failed\": ").append(getErrorCount()).append("},\n");
+        json.append("  \"bytes\": {\"read\": ").append(bytesRead.get())
+                .append(", \"written\": ").append(bytesWritten.get()).append("},\n");
+        json.append("  \"errors\": {");
+        for (Phase phase : Phase.values()) {
+            json.append((phase.ordinal() == 0) ? "" : ", ")
+                    .append('"').append(phase.jsonName()).append("\": ").append(phaseErrorCounts.get(phase.ordinal()));
+        }
+        json.append("},\n");
+        json.append("  \"latency\": {\n");
+        json.append("    \"file\": ");
+        fileLatency.appendJson(json);
+        for (Phase phase : Phase.values()) {
+            json.append(",\n    \"").append(phase.jsonName()).append("\": ");
+            phaseLatencies[phase.ordinal()].appendJson(json);
+        }
+        json.append("\n  }\n");
+        json.append("}");
+        return json.toString();
+    }
+
+    /**
+     * 소요시간 분포 (마이크로초 단위 2의 거듭제곱 구간)
+     */
+    static class LatencyHistogram {
+
+        private static final int BUCKET_COUNT = 40;
+
+        /** buckets[i]: 2^(i-1) 이상 2^i 미만 (us) */
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalMicros = new AtomicLong();
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        void record(long nanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            int bucket = Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+            buckets.incrementAndGet(bucket);
+            count.incrementAndGet();
+            totalMicros.addAndGet(micros);
+            maxMicros.accumulateAndGet(micros, Math::max);
+        }
+
+        /**
+         * @param ratio 백분위 (0~1)
+         * @return 해당 백분위가 속한 구간의 상한값 (us, 최대값을 넘지 않는다.)
+         */
+        long percentileMicros(double ratio) {
+            long target = (long) Math.ceil(count.get() * ratio);
+            long cumulative = 0;
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                cumulative += buckets.get(bucket);
+                if (cumulative >= target && cumulative > 0) {
+                    return Math.min(maxMicros.get(), (1L << bucket) - 1);
+                }
+            }
+            return maxMicros.get();
+        }
+
+        void appendJson(StringBuilder json) {
+            long recordedCount = count.get();
+            json.append("{\"count\": ").append(recordedCount)
+                    .append(", \"totalMicros\": ").append(totalMicros.get())
+                    .append(", \"meanMicros\": ").append((recordedCount == 0) ? 0 : totalMicros.get() / recordedCount)
+                    .append(", \"p50Micros\": ").append(percentileMicros(0.5))
+                    .append(", \"p90Micros\": ").append(percentileMicros(0.9))
+                    .append(", \"p99Micros\": ").append(percentileMicros(0.99))
+                    .append(", \"maxMicros\": ").append(maxMicros.get())
+                    .append(", \"buckets\": [");
+            boolean first = true;
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                long bucketCount = buckets.get(bucket);
+                if (bucketCount > 0) {
+                    json.append(first ? "" : ", ")
+                            .append("{\"ltMicros\": ").append(1L << bucket)
+                            .append(", \"count\": ").append(bucketCount).append('}');
+                    first = false;
+                }
+            }
+            json.append("]}");
+        }
+    }
+}
@@ -0,0 +1,592 @@
+package com.diquest.ir.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 파일 탐색 → 읽기(파싱) → 변환 → 저장 단계를 각각의 스레드에서 동시에 처리하는 변환 파이프라인
+ * 단계 사이는 크기가 정해진 큐로 연결되어, 뒤 단계가 밀리면 앞 단계가 기다린다.
+ * 탐색이 끝나기 전에 찾은 파일부터 바로 변환을 시작하며, 디스크 쓰기와 파싱이 겹쳐서 진행된다.
+ * 압축 파일 입력은 탐색 단계에서 항목을 순서대로 읽어 넘기고, 압축 파일 출력은 저장 단계에서 항목으로 기록한다.
+ * 읽기 단계는 탐색된 파일 중 큰 파일부터 꺼내고, 파일 크기로 예상한 메모리를 MemoryBudget 에 예약한 뒤 읽는다.
+ * 예약한 메모리는 저장이 끝나거나 실패하면 반납하므로, 동시에 메모리에 올라가는 파일 크기 합계가 제한된다.
+ * 저장을 마친 파일은 저널에 기록하고, 이어서 변환할 경우 저널에 기록된 파일은 읽지 않고 건너뛴다.
+ * 작업 중 메모리 부족(OutOfMemoryError) 등의 Error 가 발생하면 모든 단계를 멈추고 run 에서 그 Error 를 던진다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+class ConversionPipeline {
+
+    /** 단계별 작업 스레드 1개당 큐에 쌓아둘 수 있는 파일 수 */
+    private static final int QUEUE_CAPACITY_PER_WORKER = 4;
+    /** 앞 단계가 끝났음을 알리는 표시 */
+    private static final SettingFileTask END_OF_TASKS = new SettingFileTask(null);
+    /** 읽기 단계를 기다리는 파일 수 한도 (이 범위 안에서 큰 파일부터 처리한다.) */
+    private static final int WALK_AHEAD_LIMIT = 10000;
+    /** 큰 파일부터 꺼내고, 종료 표시는 항상 마지막에 꺼낸다. */
+    private static final Comparator<SettingFileTask> LARGEST_FIRST = (left, right) -> {
+        if (left == END_OF_TASKS || right == END_OF_TASKS) {
+            return Boolean.compare(left == END_OF_TASKS, right == END_OF_TASKS);
+        }
+        return Long.compare(right.getSourceSize(), left.getSourceSize());
+    };
+
+    private final XmlFileProcessor xmlFileProcessor;
+    private final String inputFilePath;
+    private final String outputFilePath;
+    private final ConversionManifest manifest;
+    private final ConversionJournal journal;
+    private final ConversionResult result;
+    private final ConversionMetrics metrics;
+    private final int workerCount;
+    private final boolean archiveInput;
+    private final SettingArchive.EntryWriter archiveWriter;
+    private final MemoryBudget memoryBudget;
+    private final Executor stageExecutor;
+    private final Semaphore walkAhead = new Semaphore(WALK_AHEAD_LIMIT);
+    /** 저장 경로별로 먼저 찾은 원본 파일 (탐색 스레드에서만 사용) */
+    private final Map<String, File> claimedOutputs = new HashMap<>();
+    /** 저장 경로가 겹쳐 변환하지 않은 파일 수 */
+    private volatile int rejectedOutputCount;
+    private volatile boolean walkCompleted;
+    private volatile boolean walkFailed;
+    /** 실행 중인 작업 스레드 (Error 가 발생하면 모두 인터럽트하여 멈춘다.) */
+    private final Set<Thread> workerThreads = new HashSet<>();
+    /** 작업 중 처음 발생한 Error */
+    private volatile Error fatalError;
+    /** Error 가 발생하거나 호출한 스레드가 인터럽트되어 모든 작업 스레드를 멈추는 중이면 true */
+    private volatile boolean stopping;
+
+    /**
+     * @param xmlFileProcessor 단계별 변환을 수행할 XmlFileProcessor
+     * @param inputFilePath    기존 XML 파일이 있는 폴더 경로
+     * @param outputFilePath   출력 파일 경로
+     * @param manifest         증분 변환용 매니페스트 (증분 변환이 아닐 경우 null)
+     * @param journal          진행 기록 저널 (압축 파일에 저장할 경우 null)
+     * @param result           변환 결과를 기록할 객체
+     * @param workerCount      읽기/변환/저장 단계별 작업 스레드 수
+     * @param archiveInput     입력 경로가 압축 파일일 경우 true
+     * @param archiveWriter    출력 압축 파일 (폴더에 저장할 경우 null)
+     * @param stageExecutor    단계별 작업을 실행할 Executor (null 일 경우 작업마다 스레드를 만든다.)
+     */
+    ConversionPipeline(
+            XmlFileProcessor xmlFileProcessor,
+            String inputFilePath,
+            String outputFilePath,
+            ConversionManifest manifest,
+            ConversionJournal journal,
+            ConversionResult result,
+            int workerCount,
+            boolean archiveInput,
+            SettingArchive.EntryWriter archiveWriter,
+            Executor stageExecutor
+    ) {
+        this.xmlFileProcessor = xmlFileProcessor;
+        this.inputFilePath = inputFilePath;
+        this.outputFilePath = outputFilePath;
+        this.manifest = manifest;
+        this.journal = journal;
+        this.result = result;
+        this.metrics = result.getMetrics();
+        this.workerCount = Math.max(1, workerCount);
+        this.archiveInput = archiveInput;
+        this.archiveWriter = archiveWriter;
+        this.memoryBudget = xmlFileProcessor.getMemoryBudget();
+        this.stageExecutor = stageExecutor;
+    }
+
+    /**
+     * 모든 단계가 끝날 때까지 변환을 진행한다.
+     * 작업 중 Error 가 발생하면 남은 파일은 변환하지 않고, 모든 작업 스레드가 멈춘 뒤 그 Error 를 던진다.
+     * 기다리는 도중 호출한 스레드가 인터럽트되면 모든 작업 스레드를 멈추고 끝날 때까지 기다린 뒤 반환한다.
+     * (호출한 스레드의 인터럽트 상태는 유지되며, 반환된 뒤에는 출력 파일이나 저널을 기록하는 작업 스레드가 없다.)
+     * (저장을 마친 파일은 저널에 기록되어 있으므로 --resume 으로 이어서 변환할 수 있다.)
+     */
+    void run() {
+        int queueCapacity = workerCount * QUEUE_CAPACITY_PER_WORKER;
+        // 탐색 단계는 walkAhead 로 쌓아둘 파일 수를 제한하고, 읽기 단계는 그중 큰 파일부터 꺼낸다.
+        BlockingQueue<SettingFileTask> parseQueue = new PriorityBlockingQueue<>(queueCapacity, LARGEST_FIRST);
+        BlockingQueue<SettingFileTask> transformQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<SettingFileTask> writeQueue = new ArrayBlockingQueue<>(queueCapacity);
+
+        // 탐색 1개와 읽기/변환/저장 단계별 workerCount 개의 작업이 모두 끝날 때까지 기다린다.
+        CountDownLatch finished = new CountDownLatch(1 + workerCount * 3);
+        startWorker("m5-convert-walk", () -> walk(parseQueue), finished);
+        startStage("parse", parseQueue, transformQueue, this::parse, finished);
+        startStage("transform", transformQueue, writeQueue, this::transform, finished);
+        startStage("write", writeQueue, null, this::write, finished);
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                finished.await();
+                break;
+            } catch (InterruptedException e) {
+                // 작업 스레드가 출력 파일과 저널을 기록하는 도중에 반환하지 않도록, 멈추게 한 뒤 끝날 때까지 기다린다.
+                interrupted = true;
+                stopWorkers();
+            }
+        }
+        // 멈춘 단계의 큐에 남은 작업은 예약한 메모리와 선점한 캐시 키를 놓아준다. (다른 사이트의 변환이 기다리지 않도록)
+        for (BlockingQueue<SettingFileTask> queue : Arrays.asList(parseQueue, transformQueue, writeQueue)) {
+            for (SettingFileTask task : queue) {
+                if (task != END_OF_TASKS) {
+                    releaseMemory(task);
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (fatalError != null) {
+            throw fatalError;
+        }
+    }
+
+    /**
+     * 탐색 단계가 오류 없이 끝까지 진행되었는지 확인한다. (run 이 끝난 뒤 호출)
+     * false 일 경우 찾지 못한 파일이 있을 수 있으므로, 찾지 못한 파일의 출력 파일을 삭제하면 안 된다.
+     *
+     * @return 모든 파일을 찾았을 경우 true
+     */
+    boolean isWalkCompleted() {
+        return walkCompleted && !walkFailed;
+    }
+
+    /**
+     * 저장 경로가 먼저 찾은 파일과 겹쳐 변환하지 않은 파일 수를 반환한다. (run 이 끝난 뒤 호출)
+     * 이 파일들은 실패로 기록되지만 다른 파일의 출력에는 영향이 없으므로, 압축 파일 기록을 취소할 이유가 되지 않는다.
+     *
+     * @return 저장 경로가 겹친 파일 수
+     */
+    int getRejectedOutputCount() {
+        return rejectedOutputCount;
+    }
+
+    /**
+     * 폴더를 탐색하면서 찾은 변환 대상 파일을 바로 다음 단계로 넘긴다.
+     */
+    private void walk(BlockingQueue<SettingFileTask> parseQueue) {
+        try {
+            if (archiveInput) {
+                walkArchive(parseQueue);
+            } else {
+                walkFolder(parseQueue);
+            }
+            walkCompleted = true;
+        } catch (IOException | RuntimeException e) {
+            walkFailed = true;
+            metrics.addError(ConversionMetrics.Phase.WALK);
+            ConversionLog.failed(result.addFailure(new File(inputFilePath), e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            metrics.walkFinished();
+            endStage(parseQueue);
+        }
+    }
+
+    private void walkFolder(BlockingQueue<SettingFileTask> parseQueue) throws IOException, InterruptedException {
+        Path inputRoot = Paths.get(inputFilePath);
+        Files.walkFileTree(inputRoot, new SimpleFileVisitor<Path>() {
+            private long startedAt = System.nanoTime();
+
+            @Override
+            public FileVisitResult visitFile(Path xmlFile, BasicFileAttributes attributes) throws IOException {
+                if (!XmlFileProcessor.isTargetXmlFile(xmlFile)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                if (attributes.isSymbolicLink()) {
+                    // 링크는 가리키는 파일의 속성으로 판단한다.
+                    try {
+                        attributes = Files.readAttributes(xmlFile, BasicFileAttributes.class);
+                    } catch (IOException e) {
+                        return visitFileFailed(xmlFile, e);
+                    }
+                }
+                if (!attributes.isRegularFile()) {
+                    return FileVisitResult.CONTINUE;
+                }
+                SettingFileTask task = new SettingFileTask(xmlFile.toFile());
+                // 큰 파일부터 처리하고 필요한 메모리를 예상할 수 있도록 크기를 확인해 둔다. (수정시각은 저널 기록용)
+                task.setSourceSize(attributes.size());
+                task.setSourceLastModified(attributes.lastModifiedTime().toMillis());
+                // 다음 단계를 기다린 시간은 제외하고, 파일 1건을 찾는 데 걸린 시간만 기록한다.
+                task.addPhaseNanos(ConversionMetrics.Phase.WALK, System.nanoTime() - startedAt);
+                metrics.addDiscovered();
+                if (!claimOutput(task)) {
+                    startedAt = System.nanoTime();
+                    return FileVisitResult.CONTINUE;
+                }
+                try {
+                    enqueue(parseQueue, task);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return FileVisitResult.TERMINATE;
+                }
+                startedAt = System.nanoTime();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path path, IOException e) throws IOException {
+                if (path.equals(inputRoot)) {
+                    throw e;
+                }
+                // 목록을 만든 뒤 삭제되었거나 읽을 수 없는 파일(폴더)은 실패로 기록하고 탐색을 계속한다.
+                walkFailed = true;
+                metrics.addError(ConversionMetrics.Phase.WALK);
+                ConversionLog.failed(result.addFailure(path.toFile(), e));
+                startedAt = System.nanoTime();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    /**
+     * 압축 파일 항목을 순서대로 읽어 변환 대상 항목만 내용과 함께 다음 단계로 넘긴다.
+     * 항목은 "압축 파일 경로/항목명" 경로의 파일로 다루므로, 출력 경로는 폴더와 같은 규칙으로 정해진다.
+     */
+    private void walkArchive(BlockingQueue<SettingFileTask> parseQueue) throws IOException, InterruptedException {
+        try (SettingArchive.EntryReader entries = SettingArchive.openReader(Paths.get(inputFilePath))) {
+            long startedAt = System.nanoTime();
+            while (true) {
+                SettingArchive.Entry entry;
+                try {
+                    entry = entries.next();
+                } catch (SettingArchive.UnsafeEntryException e) {
+                    // 출력 폴더 밖을 가리키는 항목은 실패로 기록하고 다음 항목을 계속 읽는다.
+                    metrics.addError(ConversionMetrics.Phase.WALK);
+                    ConversionLog.failed(result.addFailure(new File(inputFilePath, e.getEntryName()), e));
+                    startedAt = System.nanoTime();
+                    continue;
+                }
+                if (entry == null) {
+                    break;
+                }
+                File xmlFile = new File(inputFilePath, entry.getName());
+                if (!XmlFileProcessor.isTargetXmlFile(xmlFile)) {
+                    continue;   // 변환 대상이 아닌 항목은 내용을 읽지 않는다.
+                }
+                SettingFileTask task = new SettingFileTask(xmlFile);
+                task.addPhaseNanos(ConversionMetrics.Phase.WALK, System.nanoTime() - startedAt);
+                task.setSourceSize(entry.getSize());
+                task.setSourceLastModified(entry.getLastModified());
+                if (!claimOutput(task) || skipCompleted(task)) {
+                    metrics.addDiscovered();
+                    startedAt = System.nanoTime();
+                    continue;   // 저장 경로가 겹치거나 이전 실행에서 변환을 마친 항목은 내용을 읽지 않는다.
+                }
+                // 항목 내용은 탐색 단계에서 메모리에 올리므로, 크기를 알면 읽기 전에 메모리를 예약한다.
+                reserveMemory(task);
+                long readStartedAt = task.startPhase(ConversionMetrics.Phase.READ);
+                try {
+                    task.setSourceContent(entries.readContent(), entry.getLastModified());
+                } catch (IOException | RuntimeException e) {
+                    releaseMemory(task);
+                    throw e;
+                }
+                task.endPhase(ConversionMetrics.Phase.READ, readStartedAt);
+                task.addBytesRead(task.getSourceContent().length);
+                if (task.getSourceSize() < 0) {
+                    task.setSourceSize(task.getSourceContent().length);
+                    reserveMemory(task);
+                }
+                metrics.addDiscovered();
+                try {
+                    enqueue(parseQueue, task);
+                } catch (InterruptedException e) {
+                    releaseMemory(task);
+                    throw e;
+                }
+                startedAt = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * 바뀐 파일인지 확인한 뒤 파일을 읽어온다.
+     */
+    private boolean parse(SettingFileTask task) throws Exception {
+        walkAhead.release();
+        if (manifest != null) {
+            ConversionManifest.Entry manifestEntry = manifest.checkChanged(task.getXmlFile());
+            if (manifestEntry == null) {    // 이전 실행 이후 바뀌지 않은 파일
+                result.addSkipped();
+                metrics.recordFinished(task, ConversionMetrics.FileType.SKIPPED);
+                releaseMemory(task);
+                return false;
+            }
+            task.setManifestEntry(manifestEntry);
+        }
+        if (!archiveInput && skipCompleted(task)) {
+            return false;
+        }
+        reserveMemory(task);
+        xmlFileProcessor.parseSettingFile(task);
+        return true;
+    }
+
+    private boolean transform(SettingFileTask task) throws Exception {
+        xmlFileProcessor.transformSettingFile(task, inputFilePath, outputFilePath);
+        XmlFileProcessor.checkInsideOutput(task.getSaveFilePath(), outputFilePath);
+        return true;
+    }
+
+    private boolean write(SettingFileTask task) throws Exception {
+        String savedFilePath = (archiveWriter == null)
+                ? xmlFileProcessor.writeSettingFile(task)
+                : xmlFileProcessor.writeArchiveEntry(task, archiveWriter, outputFilePath);
+        if (task.getManifestEntry() != null) {
+            manifest.record(task.getManifestEntry(), savedFilePath);
+        }
+        if (journal != null) {
+            journal.record(task.getXmlFile(), task.getSourceSize(), task.getSourceLastModified(), savedFilePath,
+                    (task.getConvertedContent() == null) ? task.getSourceContent() : task.getConvertedContent());
+        }
+        metrics.recordFinished(task, (savedFilePath == null)
+                ? ConversionMetrics.FileType.SKIPPED
+                : XmlFileProcessor.getFileType(task.getXmlFile()));
+        result.addProcessed();
+        releaseMemory(task);
+        return false;
+    }
+
+    /**
+     * 저장 경로를 이 파일의 것으로 정한다. (탐색 단계에서 호출)
+     * dbwatcher 파일명 대문자 변환으로 먼저 찾은 파일과 저장 경로가 같아지면(a.xml, A.xml) 뒤에 찾은 파일을 실패로 기록한다.
+     * 저장 단계는 여러 스레드에서 진행되므로, 같은 경로에 기록하는 순서가 정해지지 않고 압축 파일에는 같은 항목을 두 번 기록할 수 없다.
+     *
+     * @return 변환을 계속할 경우 true
+     */
+    private boolean claimOutput(SettingFileTask task) {
+        String saveFilePath = xmlFileProcessor.resolveSaveFilePath(task.getXmlFile(), inputFilePath, outputFilePath);
+        if (saveFilePath == null) {
+            return true;
+        }
+        File claimedFile = claimedOutputs.putIfAbsent(saveFilePath, task.getXmlFile());
+        if (claimedFile == null) {
+            return true;
+        }
+        rejectedOutputCount++;
+        task.startPhase(ConversionMetrics.Phase.WALK);
+        fail(task, new IOException("다른 파일과 저장 경로가 같아 변환하지 않았습니다: " + claimedFile + " -> " + saveFilePath));
+        return false;
+    }
+
+    /**
+     * 이전 실행에서 변환을 마친 파일이면 건너뛴 것으로 기록한다. (이어서 변환할 경우)
+     *
+     * @return 건너뛸 경우 true
+     */
+    private boolean skipCompleted(SettingFileTask task) {
+        if (journal == null) {
+            return false;
+        }
+        String completedOutput = journal.getCompletedOutput(task.getXmlFile(), task.getSourceSize(), task.getSourceLastModified());
+        if (completedOutput == null) {
+            return false;
+        }
+        if (task.getManifestEntry() != null) {
+            manifest.record(task.getManifestEntry(), completedOutput.isEmpty() ? null : completedOutput);
+        }
+        result.addResumed();
+        metrics.recordFinished(task, ConversionMetrics.FileType.SKIPPED);
+        return true;
+    }
+
+    /**
+     * 읽기 단계로 작업을 넘긴다. 읽기 단계를 기다리는 파일이 한도만큼 쌓였으면 줄어들 때까지 기다린다.
+     */
+    private void enqueue(BlockingQueue<SettingFileTask> parseQueue, SettingFileTask task) throws InterruptedException {
+        walkAhead.acquire();
+        parseQueue.put(task);
+    }
+
+    /**
+     * 파일 크기로 예상한 메모리를 예약한다. 이미 예약한 작업은 다시 예약하지 않는다.
+     */
+    private void reserveMemory(SettingFileTask task) throws InterruptedException {
+        if (task.getReservedMemory() == 0) {
+            task.setReservedMemory(memoryBudget.reserve(xmlFileProcessor.estimateMemory(task, archiveInput)));
+        }
+    }
+
+    /**
+     * 처리가 끝난 작업의 내용을 놓아주고 예약한 메모리를 반납한다.
+     */
+    private void releaseMemory(SettingFileTask task) {
+        task.releaseContent();
+        memoryBudget.release(task.getReservedMemory());
+        task.setReservedMemory(0);
+    }
+
+    /**
+     * 한 단계의 작업 스레드들을 시작한다.
+     * 마지막 스레드가 끝나면 다음 단계에 종료를 알린다.
+     *
+     * @param name       단계 이름
+     * @param input      처리할 작업을 가져올 큐
+     * @param output     처리한 작업을 넘길 큐 (마지막 단계일 경우 null)
+     * @param stageTask  작업 1건의 처리 (다음 단계로 넘길 경우 true 반환)
+     * @param finished   작업 스레드가 끝날 때마다 줄일 카운터
+     */
+    private void startStage(
+            String name,
+            BlockingQueue<SettingFileTask> input,
+            BlockingQueue<SettingFileTask> output,
+            StageTask stageTask,
+            CountDownLatch finished
+    ) {
+        AtomicInteger runningWorkers = new AtomicInteger(workerCount);
+        for (int idx = 1; idx <= workerCount; idx++) {
+            startWorker("m5-convert-" + name + "-" + idx, () -> {
+                try {
+                    SettingFileTask task;
+                    while ((task = input.take()) != END_OF_TASKS) {
+                        try {
+                            if (stageTask.process(task) && output != null) {
+                                output.put(task);
+                            }
+                        } catch (InterruptedException e) {
+                            releaseMemory(task);    // 다음 단계로 넘기지 못한 작업
+                            throw e;
+                        } catch (Exception e) {
+                            fail(task, e);
+                        } catch (Error e) {
+                            // 메모리 부족 등은 다음 파일에서도 반복되므로 계속 처리하지 않고 모든 단계를 멈춘다.
+                            releaseMemory(task);
+                            stop(e);
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    if (runningWorkers.decrementAndGet() == 0 && output != null) {
+                        endStage(output);
+                    }
+                }
+            }, finished);
+        }
+    }
+
+    /**
+     * 다음 단계의 작업 스레드 수만큼 종료 표시를 넣는다.
+     */
+    private void endStage(BlockingQueue<SettingFileTask> output) {
+        try {
+            for (int idx = 0; idx < workerCount; idx++) {
+                output.put(END_OF_TASKS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Error 를 기록하고 모든 작업 스레드를 인터럽트하여 멈춘다.
+     */
+    private void stop(Error e) {
+        synchronized (workerThreads) {
+            if (fatalError == null) {
+                fatalError = e;
+            }
+        }
+        stopWorkers();
+    }
+
+    /**
+     * 실행 중인 작업 스레드를 모두 인터럽트하고, 아직 시작하지 않은 작업은 시작하자마자 멈추게 한다.
+     */
+    private void stopWorkers() {
+        synchronized (workerThreads) {
+            stopping = true;
+            for (Thread thread : workerThreads) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    private void fail(SettingFileTask task, Exception e) {
+        releaseMemory(task);
+        if (task.getManifestEntry() != null) {
+            manifest.recordFailure(task.getManifestEntry());
+        }
+        metrics.recordFailure(task);
+        ConversionLog.failed(result.addFailure(task, e));
+    }
+
+    /**
+     * 작업 스레드를 시작한다. Executor 가 지정되었으면 Executor 의 스레드에서 실행하며, 실행 중에는 스레드 이름을 바꾼다.
+     *
+     * @param name     작업 스레드 이름
+     * @param runnable 실행할 작업
+     * @param finished 작업이 끝나면 줄일 카운터
+     */
+    private void startWorker(String name, Runnable runnable, CountDownLatch finished) {
+        Runnable worker = () -> {
+            Thread thread = Thread.currentThread();
+            String previousName = thread.getName();
+            thread.setName(name);
+            synchronized (workerThreads) {
+                workerThreads.add(thread);
+                if (stopping) {
+                    thread.interrupt();
+                }
+            }
+            try {
+                runnable.run();
+            } catch (Error e) {
+                stop(e);
+            } finally {
+                // Executor 의 스레드는 다른 작업에 다시 사용되므로, 목록에서 뺀 뒤에는 인터럽트하지 않는다.
+                synchronized (workerThreads) {
+                    workerThreads.remove(thread);
+                }
+                thread.setName(previousName);
+                finished.countDown();
+            }
+        };
+        if (stageExecutor == null) {
+            new Thread(worker, name).start();
+        } else {
+            stageExecutor.execute(worker);
+        }
+    }
+
+    /**
+     * 파이프라인 단계에서 작업 1건을 처리한다.
+     */
+    private interface StageTask {
+
+        /**
+         * @param task 처리할 작업
+         * @return 다음 단계로 넘길 경우 true
+         */
+        boolean process(SettingFileTask task) throws Exception;
+    }
+}
@@ -0,0 +1,181 @@
+package com.diquest.ir.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 변환 실행 결과 (처리 파일 수, 파일별 오류 목록 및 단계별 측정값)
+ * 여러 작업 스레드에서 동시에 기록할 수 있다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class ConversionResult {
+
+    private final AtomicInteger processedCount = new AtomicInteger();
+    private final AtomicInteger skippedCount = new AtomicInteger();
+    private final AtomicInteger prunedCount = new AtomicInteger();
+    private final AtomicInteger resumedCount = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Failure> failures = new ConcurrentLinkedQueue<>();
+    private final ConversionMetrics metrics = new ConversionMetrics();
+
+    /**
+     * 정상 처리된 파일 1건을 기록한다.
+     */
+    void addProcessed() {
+        processedCount.incrementAndGet();
+    }
+
+    /**
+     * 이전 변환 이후 바뀌지 않아 건너뛴 파일 1건을 기록한다.
+     */
+    void addSkipped() {
+        skippedCount.incrementAndGet();
+    }
+
+    /**
+     * 이전 실행에서 변환을 마쳐 건너뛴 파일 1건을 기록한다. (이어서 변환할 경우)
+     */
+    void addResumed() {
+        resumedCount.incrementAndGet();
+    }
+
+    /**
+     * 원본이 삭제되어 정리한 출력 파일 수를 기록한다.
+     *
+     * @param count 정리한 파일 수
+     */
+    void addPruned(int count) {
+        prunedCount.addAndGet(count);
+    }
+
+    /**
+     * 처리 중 오류가 발생한 파일을 기록한다.
+     *
+     * @param file  오류가 발생한 파일
+     * @param cause 발생한 오류
+     * @return 기록한 오류 정보
+     */
+    Failure addFailure(File file, Exception cause) {
+        return addFailure(file, null, null, cause);
+    }
+
+    /**
+     * 변환 작업 1건의 오류를 실패한 변환 규칙(파일 종류)과 단계와 함께 기록한다.
+     *
+     * @param task  오류가 발생한 변환 작업
+     * @param cause 발생한 오류
+     * @return 기록한 오류 정보
+     */
+    Failure addFailure(SettingFileTask task, Exception cause) {
+        ConversionMetrics.Phase phase = task.getCurrentPhase();
+        return addFailure(task.getXmlFile(), XmlFileProcessor.getFileType(task.getXmlFile()).jsonName(),
+                (phase == null) ? ConversionMetrics.Phase.READ : phase, cause);
+    }
+
+    private Failure addFailure(File file, String rule, ConversionMetrics.Phase phase, Exception cause) {
+        Failure failure = new Failure(file, rule, phase, cause);
+        failures.add(failure);
+        return failure;
+    }
+
+    /**
+     * @return 정상 처리된 파일 수
+     */
+    public int getProcessedCount() {
+        return processedCount.get();
+    }
+
+    /**
+     * @return 바뀌지 않아 건너뛴 파일 수
+     */
+    public int getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    /**
+     * @return 원본이 삭제되어 정리한 출력 파일 수
+     */
+    public int getPrunedCount() {
+        return prunedCount.get();
+    }
+
+    /**
+     * @return 이전 실행에서 변환을 마쳐 건너뛴 파일 수
+     */
+    public int getResumedCount() {
+        return resumedCount.get();
+    }
+
+    /**
+     * @return 오류가 발생한 파일 목록
+     */
+    public List<Failure> getFailures() {
+        return new ArrayList<>(failures);
+    }
+
+    /**
+     * @return 오류가 발생한 파일이 하나라도 있을 경우 true
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    /**
+     * @return 단계별 소요시간, 읽기/쓰기 바이트 수, 파일 종류별 처리 건수 등의 측정값
+     */
+    public ConversionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 파일별 오류 정보
+     */
+    public static class Failure {
+
+        private final File file;
+        private final String rule;
+        private final ConversionMetrics.Phase phase;
+        private final Exception cause;
+
+        Failure(File file, String rule, ConversionMetrics.Phase phase, Exception cause) {
+            this.file = file;
+            this.rule = rule;
+            this.phase = phase;
+            this.cause = cause;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * @return 실패한 변환 규칙 (파일 종류: copied, collectionSetting, dbwatcherList, dbwatcher, 파일 변환이 아닐 경우 null)
+         */
+        public String getRule() {
+            return rule;
+        }
+
+        /**
+         * @return 실패한 단계 (파일 변환이 아닐 경우 null)
+         */
+        public ConversionMetrics.Phase getPhase() {
+            return phase;
+        }
+
+        public Exception getCause() {
+            return cause;
+        }
+
+        @Override
+        public String toString() {
+            if (rule == null) {
+                return file.getPath() + " : " + cause;
+            }
+            return file.getPath() + " [" + rule + "/" + phase.jsonName() + "] : " + cause;
+        }
+    }
+}
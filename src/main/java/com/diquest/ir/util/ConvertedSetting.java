@@ -0,0 +1,63 @@
+package com.diquest.ir.util;
+
+/**
+ * 메모리에서 변환된 m5 설정 파일 1건
+ * 경로는 m5 setting 폴더 기준 논리 경로이며, 내용은 선언된 인코딩으로 직렬화된 파일 내용이다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class ConvertedSetting extends SettingDocument {
+
+    /**
+     * 변환된 설정 파일 종류
+     */
+    public enum SettingType {
+        /** 그대로 복사하는 파일 (collectionList.xml, profileSetting.xml) */
+        COPIED,
+        /** 컬렉션 설정 파일 (collectionSetting.xml) */
+        COLLECTION_SETTING,
+        /** dbwatcher 목록 파일 (dbwatcher/list.xml) */
+        DBWATCHER_LIST,
+        /** dbwatcher SQL 설정 파일 */
+        DBWATCHER
+    }
+
+    private final String sourcePath;
+    private final SettingType settingType;
+
+    ConvertedSetting(String sourcePath, String path, byte[] content, ConversionMetrics.FileType fileType) {
+        super(path, content);
+        this.sourcePath = sourcePath;
+        this.settingType = toSettingType(fileType);
+    }
+
+    private static SettingType toSettingType(ConversionMetrics.FileType fileType) {
+        switch (fileType) {
+            case COPIED:
+                return SettingType.COPIED;
+            case COLLECTION_SETTING:
+                return SettingType.COLLECTION_SETTING;
+            case DBWATCHER_LIST:
+                return SettingType.DBWATCHER_LIST;
+            case DBWATCHER:
+                return SettingType.DBWATCHER;
+            default:
+                throw new IllegalArgumentException("변환된 설정 파일 종류가 아닙니다: " + fileType);
+        }
+    }
+
+    /**
+     * @return 원본 m4 설정 파일의 논리 경로
+     */
+    public String getSourcePath() {
+        return sourcePath;
+    }
+
+    /**
+     * @return 설정 파일 종류 (COPIED 일 경우 원본 내용을 그대로 돌려준다.)
+     */
+    public SettingType getSettingType() {
+        return settingType;
+    }
+}
@@ -0,0 +1,362 @@
+package com.diquest.ir.util;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Convertor 실행 옵션
+ * 필수 인자 뒤에 "--이름=값" 형식으로 전달된 옵션을 해석한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class ConvertorOptions {
+
+    private int workerCount = 1;
+    private int parallelSites;
+    private String documentBuilderFactoryClassName;
+    private String transformerFactoryClassName;
+    private boolean streamingDbWatcher = true;
+    private boolean incremental;
+    private boolean resume;
+    private boolean watch;
+    private long watchDebounceMillis = SettingWatcher.DEFAULT_DEBOUNCE_MILLIS;
+    private String metricsFilePath;
+    private long progressIntervalMillis;
+    private boolean hardLinkPassThrough;
+    private long cacheMemoryBytes = ConversionCache.DEFAULT_MEMORY_BYTES;
+    private String cacheDirectoryPath;
+    private long memoryBudgetBytes;
+    private long streamingThresholdBytes = XmlFileProcessor.DEFAULT_STREAMING_THRESHOLD_BYTES;
+    private ConversionLog.Level logLevel = ConversionLog.Level.INFO;
+    private ConversionLog.Level consoleLevel = ConversionLog.Level.INFO;
+    private String logFilePath;
+
+    /**
+     * 실행 인자에서 옵션을 읽어온다.
+     *
+     * @param args   실행 시 전달되는 인자들
+     * @param offset 옵션이 시작되는 인자 위치
+     * @return 해석된 옵션
+     * @throws IllegalArgumentException 알 수 없는 옵션이거나 값이 올바르지 않을 경우
+     */
+    public static ConvertorOptions parse(String[] args, int offset) {
+        ConvertorOptions options = new ConvertorOptions();
+        for (int idx = offset; idx < args.length; idx++) {
+            String arg = args[idx];
+            int equalIndex = arg.indexOf('=');
+            String name = (equalIndex == -1) ? arg : arg.substring(0, equalIndex);
+            String value = (equalIndex == -1) ? null : arg.substring(equalIndex + 1);
+            if ("--threads".equals(name)) {
+                // 0 이하일 경우 사용 가능한 CPU 코어 수만큼 사용한다.
+                int threads = Integer.parseInt(requireValue(name, value));
+                options.workerCount = (threads <= 0) ? Runtime.getRuntime().availableProcessors() : threads;
+            } else if ("--parallel-sites".equals(name)) {
+                int sites = Integer.parseInt(requireValue(name, value));
+                if (sites <= 0) {
+                    throw new IllegalArgumentException(name + " 옵션은 1 이상이어야 합니다: " + sites);
+                }
+                options.parallelSites = sites;
+            } else if ("--parser-factory".equals(name)) {
+                options.documentBuilderFactoryClassName = requireValue(name, value);
+            } else if ("--transformer-factory".equals(name)) {
+                options.transformerFactoryClassName = requireValue(name, value);
+            } else if ("--watcher-engine".equals(name)) {
+                String engine = requireValue(name, value);
+                if ("stream".equals(engine)) {
+                    options.streamingDbWatcher = true;
+                } else if ("dom".equals(engine)) {
+                    options.streamingDbWatcher = false;
+                } else {
+                    throw new IllegalArgumentException(name + " 옵션은 stream 또는 dom 만 가능합니다: " + engine);
+                }
+            } else if ("--incremental".equals(name)) {
+                options.incremental = true;
+            } else if ("--resume".equals(name)) {
+                options.resume = true;
+            } else if ("--watch".equals(name)) {
+                options.watch = true;
+            } else if ("--watch-debounce".equals(name)) {
+                long debounceMillis = Long.parseLong(requireValue(name, value));
+                if (debounceMillis < 0) {
+                    throw new IllegalArgumentException(name + " 옵션은 0 이상이어야 합니다: " + debounceMillis);
+                }
+                options.watchDebounceMillis = debounceMillis;
+            } else if ("--metrics".equals(name)) {
+                options.metricsFilePath = requireValue(name, value);
+            } else if ("--progress".equals(name)) {
+                long progressSeconds = Long.parseLong(requireValue(name, value));
+                if (progressSeconds <= 0) {
+                    throw new IllegalArgumentException(name + " 옵션은 1 이상이어야 합니다: " + progressSeconds);
+                }
+                options.progressIntervalMillis = progressSeconds * 1000;
+            } else if ("--link-pass-through".equals(name)) {
+                options.hardLinkPassThrough = true;
+            } else if ("--cache-memory".equals(name)) {
+                long cacheMegabytes = Long.parseLong(requireValue(name, value));
+                if (cacheMegabytes < 0) {
+                    throw new IllegalArgumentException(name + " 옵션은 0 이상이어야 합니다: " + cacheMegabytes);
+                }
+                options.cacheMemoryBytes = cacheMegabytes * 1024 * 1024;
+            } else if ("--cache-dir".equals(name)) {
+                options.cacheDirectoryPath = requireValue(name, value);
+            } else if ("--memory-budget".equals(name)) {
+                long budgetMegabytes = Long.parseLong(requireValue(name, value));
+                if (budgetMegabytes <= 0) {
+                    throw new IllegalArgumentException(name + " 옵션은 1 이상이어야 합니다: " + budgetMegabytes);
+                }
+                options.memoryBudgetBytes = budgetMegabytes * 1024 * 1024;
+            } else if ("--stream-threshold".equals(name)) {
+                long thresholdKilobytes = Long.parseLong(requireValue(name, value));
+                if (thresholdKilobytes < 0) {
+                    throw new IllegalArgumentException(name + " 옵션은 0 이상이어야 합니다: " + thresholdKilobytes);
+                }
+                options.streamingThresholdBytes = thresholdKilobytes * 1024;
+            } else if ("--log-level".equals(name)) {
+                String level = requireValue(name, value);
+                try {
+                    options.logLevel = ConversionLog.Level.parse(level);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(name + " 옵션은 debug, info, warn, error 만 가능합니다: " + level);
+                }
+            } else if ("--quiet".equals(name)) {
+                options.consoleLevel = max(options.consoleLevel, ConversionLog.Level.WARN);
+            } else if ("--summary".equals(name)) {
+                options.consoleLevel = ConversionLog.Level.SUMMARY;
+            } else if ("--log-file".equals(name)) {
+                options.logFilePath = requireValue(name, value);
+            } else {
+                throw new IllegalArgumentException("알 수 없는 옵션입니다: " + arg);
+            }
+        }
+        return options;
+    }
+
+    private static ConversionLog.Level max(ConversionLog.Level level, ConversionLog.Level other) {
+        return (level.compareTo(other) >= 0) ? level : other;
+    }
+
+    private static String requireValue(String name, String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException(name + " 옵션의 값이 필요합니다.");
+        }
+        return value;
+    }
+
+    /**
+     * @return 변환 작업 스레드 수
+     */
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * @return 일괄 변환 시 동시에 변환할 사이트 수 (지정하지 않았을 경우 CPU 코어 수를 단계별 작업 스레드 수로 나눈 값)
+     */
+    public int getParallelSites() {
+        if (parallelSites > 0) {
+            return parallelSites;
+        }
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / workerCount);
+    }
+
+    /**
+     * @return 사용할 DocumentBuilderFactory 구현체 클래스명 (지정하지 않았을 경우 null)
+     */
+    public String getDocumentBuilderFactoryClassName() {
+        return documentBuilderFactoryClassName;
+    }
+
+    /**
+     * @return 사용할 TransformerFactory 구현체 클래스명 (지정하지 않았을 경우 null)
+     */
+    public String getTransformerFactoryClassName() {
+        return transformerFactoryClassName;
+    }
+
+    /**
+     * @return dbwatcher SQL 설정 파일 스트리밍 변환 여부
+     */
+    public boolean isStreamingDbWatcher() {
+        return streamingDbWatcher;
+    }
+
+    /**
+     * @return 증분 변환 여부
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * @return 중단된 이전 변환을 이어서 할지 여부
+     */
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * @return 최초 변환 후 m4 setting 폴더 변경 감시 여부
+     */
+    public boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * @return 감시 모드에서 마지막 변경 후 변환을 시작하기까지 기다리는 시간 (ms)
+     */
+    public long getWatchDebounceMillis() {
+        return watchDebounceMillis;
+    }
+
+    /**
+     * @return 변환 측정값(JSON)을 저장할 파일 경로 (지정하지 않았을 경우 null)
+     */
+    public String getMetricsFilePath() {
+        return metricsFilePath;
+    }
+
+    /**
+     * @return 진행 상황 출력 주기 (ms, 0 일 경우 출력하지 않음)
+     */
+    public long getProgressIntervalMillis() {
+        return progressIntervalMillis;
+    }
+
+    /**
+     * @return 그대로 복사하는 파일에 하드 링크 사용 여부
+     */
+    public boolean isHardLinkPassThrough() {
+        return hardLinkPassThrough;
+    }
+
+    /**
+     * @return 메모리에 보관할 변환 결과 캐시 크기 (byte, 0 일 경우 메모리에 보관하지 않음)
+     */
+    public long getCacheMemoryBytes() {
+        return cacheMemoryBytes;
+    }
+
+    /**
+     * @return 변환 결과 캐시를 보관할 디스크 폴더 경로 (지정하지 않았을 경우 null)
+     */
+    public String getCacheDirectoryPath() {
+        return cacheDirectoryPath;
+    }
+
+    /**
+     * @return 동시에 처리 중인 파일들이 사용할 메모리 한도 (byte, 0 일 경우 최대 힙 크기의 절반)
+     */
+    public long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    /**
+     * @return 스트리밍으로 변환하고 변환 결과 캐시를 사용하지 않는 큰 dbwatcher 설정 파일의 크기 기준 (byte)
+     */
+    public long getStreamingThresholdBytes() {
+        return streamingThresholdBytes;
+    }
+
+    /**
+     * @return 기록할 이벤트 최소 수준 (콘솔, 로그 파일)
+     */
+    public ConversionLog.Level getLogLevel() {
+        return logLevel;
+    }
+
+    /**
+     * @return 콘솔에 출력할 이벤트 최소 수준 (--quiet: warn, --summary: 실행 결과 요약만)
+     */
+    public ConversionLog.Level getConsoleLevel() {
+        return max(consoleLevel, logLevel);
+    }
+
+    /**
+     * @return 이벤트를 JSON 1줄씩 기록할 로그 파일 경로 (지정하지 않았을 경우 null)
+     */
+    public String getLogFilePath() {
+        return logFilePath;
+    }
+
+    /**
+     * 옵션에 지정된 수준과 로그 파일로 이벤트 기록 방식(ConversionLog)을 설정한다.
+     *
+     * @throws IOException 로그 파일을 열지 못했을 경우
+     */
+    public void configureLog() throws IOException {
+        ConversionLog.configure(logLevel, getConsoleLevel(), (logFilePath == null) ? null : Paths.get(logFilePath));
+    }
+
+    /**
+     * 옵션을 적용한 XmlFileProcessor 를 생성한다.
+     *
+     * @param ir4HomePath 기존 mariner4 경로
+     * @param ir5HomePath mariner5 경로
+     * @return 옵션이 적용된 XmlFileProcessor
+     * @throws IOException 캐시 폴더를 만들지 못했을 경우
+     */
+    public XmlFileProcessor createXmlFileProcessor(String ir4HomePath, String ir5HomePath) throws IOException {
+        return createXmlFileProcessor(ir4HomePath, ir5HomePath, createXmlParserPool(), createConversionCache());
+    }
+
+    /**
+     * 옵션을 적용하고, 다른 XmlFileProcessor 와 XML 파서 풀과 변환 결과 캐시를 함께 사용하는 XmlFileProcessor 를 생성한다.
+     * (여러 사이트 일괄 변환)
+     *
+     * @param ir4HomePath     기존 mariner4 경로
+     * @param ir5HomePath     mariner5 경로
+     * @param xmlParserPool   함께 사용할 XML 파서 풀
+     * @param conversionCache 함께 사용할 변환 결과 캐시 (사용하지 않을 경우 null)
+     * @return 옵션이 적용된 XmlFileProcessor
+     */
+    public XmlFileProcessor createXmlFileProcessor(
+            String ir4HomePath,
+            String ir5HomePath,
+            XmlParserPool xmlParserPool,
+            ConversionCache conversionCache
+    ) {
+        XmlFileProcessor xmlFileProcessor = new XmlFileProcessor(ir4HomePath, ir5HomePath, xmlParserPool);
+        xmlFileProcessor.setStreamingDbWatcher(streamingDbWatcher);
+        xmlFileProcessor.setStreamingThresholdBytes(streamingThresholdBytes);
+        xmlFileProcessor.setMemoryBudgetBytes(memoryBudgetBytes);
+        xmlFileProcessor.setIncremental(incremental);
+        xmlFileProcessor.setResume(resume);
+        xmlFileProcessor.setProgressIntervalMillis(progressIntervalMillis);
+        xmlFileProcessor.setHardLinkPassThrough(hardLinkPassThrough);
+        xmlFileProcessor.setConversionCache(conversionCache);
+        return xmlFileProcessor;
+    }
+
+    /**
+     * @return 변환 결과 캐시 사용 여부 (메모리 크기가 0 이고 디스크 폴더도 지정하지 않았을 경우 false)
+     */
+    public boolean isConversionCacheEnabled() {
+        return cacheMemoryBytes > 0 || cacheDirectoryPath != null;
+    }
+
+    /**
+     * 옵션에 지정된 크기와 폴더로 변환 결과 캐시를 생성한다.
+     *
+     * @return 변환 결과 캐시 (메모리 크기가 0 이고 디스크 폴더도 지정하지 않았을 경우 null)
+     */
+    public ConversionCache createConversionCache() throws IOException {
+        if (!isConversionCacheEnabled()) {
+            return null;
+        }
+        return new ConversionCache(cacheMemoryBytes, (cacheDirectoryPath == null) ? null : Paths.get(cacheDirectoryPath));
+    }
+
+    /**
+     * 옵션에 지정된 구현체로 XML 파서 풀을 생성한다.
+     * 구현체를 하나도 지정하지 않았을 경우 공유 풀을 사용한다.
+     *
+     * @return XML 파서 풀
+     */
+    public XmlParserPool createXmlParserPool() {
+        if (documentBuilderFactoryClassName == null && transformerFactoryClassName == null) {
+            return XmlParserPool.shared();
+        }
+        return new XmlParserPool(documentBuilderFactoryClassName, transformerFactoryClassName);
+    }
+}
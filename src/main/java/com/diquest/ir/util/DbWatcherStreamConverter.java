@@ -0,0 +1,490 @@
+package com.diquest.ir.util;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+/**
+ * dbwatcher SQL 설정 파일을 DOM 없이 한 번의 순방향 읽기로 m5 형식으로 변환하는 SAX 필터
+ * (setting/COLLECTION_NAME/dbwatcher/list_내_정의된_DBWATCHER_파일.xml)
+ * <p>
+ * XmlFileProcessor 의 DOM 변환 규칙과 같은 이벤트 순서를 만들어 내므로, 같은 Transformer 로 직렬화하면 결과가 동일하다.
+ * DOM 변환은 태그별로 차례대로 제거하므로, 각 태그에 처리 순서(rank)를 매겨 앞선 순서에 제거된 태그 안의 내용은
+ * 뒤의 태그 처리에서 보이지 않도록 한다.
+ * 메모리에는 sqlFull / sqlIncremental 로 옮길 SQL 문자열만 보관한다.
+ * 파일 하나당 하나의 인스턴스를 사용한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class DbWatcherStreamConverter extends XMLFilterImpl implements LexicalHandler {
+
+    private static final String LEXICAL_HANDLER_PROPERTY = "http://xml.org/sax/properties/lexical-handler";
+
+    /** 내용을 sqlFull / sqlIncremental 로 옮기고 제거하는 태그 (DOM 변환 처리 순서, 첫 번째 태그만 대상) */
+    private static final List<String> SQL_TAGS = Arrays.asList(
+            "fullCollectSqlPre", "fullCollectSql", "fullCollectSqlPost",
+            "autoUpdateCheckPre", "updateIdSelectSql", "incCollectSql", "autoUpdateCheckPost"
+    );
+    /** 사용하지 않아 제거하는 태그 (DOM 변환 처리 순서, DOM 변환 규칙과 같이 짝수 번째(0, 2, 4...) 태그만 제거된다.) */
+    private static final List<String> REMOVED_TAGS = Arrays.asList(
+            "manualUpdateCheckPost", "fieldUpdateCollectSqlPre", "fieldUpdateCollectSqlPost"
+    );
+    /** 태그별 처리 순서 */
+    private static final Map<String, Integer> TAG_RANKS = new HashMap<>();
+    /** 제거되지 않은 태그의 처리 순서 */
+    private static final int KEPT = Integer.MAX_VALUE;
+    /** id 태그 내부 (가장 먼저 처리되어 텍스트만 남는다.) */
+    private static final int INSIDE_ID = -1;
+    /** 모아둔 SQL 내용을 넘길 때 한 번에 복사하는 문자 수 */
+    private static final int CHARACTERS_CHUNK_SIZE = 8192;
+
+    static {
+        int rank = 0;
+        for (String tagName : SQL_TAGS) {
+            TAG_RANKS.put(tagName, rank++);
+        }
+        for (String tagName : REMOVED_TAGS) {
+            TAG_RANKS.put(tagName, rank++);
+        }
+    }
+
+    private LexicalHandler lexicalHandler;
+    private boolean inDtd;
+
+    /** 열려 있는 태그 목록 */
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    /** 내용을 모으는 중인 SQL 태그 목록 */
+    private final List<Capture> captures = new ArrayList<>();
+    private final Map<String, CharSequence> sqlTexts = new HashMap<>();
+    private final Map<String, Integer> removedTagCounts = new HashMap<>();
+
+    private boolean idReplaced;
+    private Frame idFrame;
+    private StringBuilder idText;
+
+    /**
+     * @param parent 원본 XML 을 읽을 XMLReader
+     */
+    public DbWatcherStreamConverter(XMLReader parent) {
+        super(parent);
+    }
+
+    // ---------------------------------------------------------------- 설정
+
+    @Override
+    public void setProperty(String name, Object value) throws SAXNotRecognizedException, SAXNotSupportedException {
+        if (LEXICAL_HANDLER_PROPERTY.equals(name)) {
+            lexicalHandler = (LexicalHandler) value;
+        } else {
+            super.setProperty(name, value);
+        }
+    }
+
+    @Override
+    public Object getProperty(String name) throws SAXNotRecognizedException, SAXNotSupportedException {
+        if (LEXICAL_HANDLER_PROPERTY.equals(name)) {
+            return lexicalHandler;
+        }
+        return super.getProperty(name);
+    }
+
+    @Override
+    public void parse(InputSource input) throws SAXException, IOException {
+        // XMLFilterImpl 은 LexicalHandler 를 연결하지 않으므로 직접 연결한다.
+        getParent().setProperty(LEXICAL_HANDLER_PROPERTY, this);
+        try {
+            super.parse(input);
+        } finally {
+            // 재사용되는 XMLReader 가 이 필터를 계속 참조하므로, 모아둔 SQL 내용과 출력 대상(직렬화 버퍼)은 변환이 끝나면 놓아준다.
+            sqlTexts.clear();
+            captures.clear();
+            setContentHandler(null);
+            lexicalHandler = null;
+        }
+    }
+
+    // ---------------------------------------------------------------- 태그
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+        int parentRank = frames.isEmpty() ? KEPT : frames.peek().minRank;
+        Frame frame = new Frame(parentRank);
+        frames.push(frame);
+
+        if (idFrame != null) {  // id 태그 내부는 텍스트만 남긴다.
+            frame.remove(INSIDE_ID, captures);
+            return;
+        }
+        if (!idReplaced && "id".equals(qName)) {    // 첫 번째 id 태그의 내용을 대문자로 변환
+            idReplaced = true;
+            idFrame = frame;
+            idText = new StringBuilder();
+        } else if (TAG_RANKS.containsKey(qName)) {
+            int rank = TAG_RANKS.get(qName);
+            // 앞선 순서에 이미 제거된 태그 안에 있으면 DOM 변환에서도 찾을 수 없다.
+            if (parentRank > rank) {
+                if (SQL_TAGS.contains(qName)) {
+                    if (!sqlTexts.containsKey(qName)) {
+                        sqlTexts.put(qName, null);
+                        frame.remove(rank, captures);
+                        frame.capture = new Capture(qName, rank);
+                        captures.add(frame.capture);
+                    }
+                } else if (removedTagCounts.merge(qName, 1, Integer::sum) % 2 == 1) {
+                    frame.remove(rank, captures);
+                }
+            }
+        }
+        if (frame.minRank == KEPT) {
+            emitElementStart(frame, uri, localName, qName, atts);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        Frame frame = frames.pop();
+        frame.restore();
+        if (frame == idFrame) {
+            String id = idText.toString().toUpperCase();
+            idFrame = null;
+            idText = null;
+            appendToCaptures(id);
+            if (frame.minRank == KEPT && !id.isEmpty()) {
+                emitCharacters(id);
+            }
+        } else if (frame.capture != null) {
+            captures.remove(frame.capture);
+            // 큰 SQL 내용을 다시 복사하지 않도록 모은 버퍼를 그대로 보관한다.
+            sqlTexts.put(frame.capture.tagName, frame.capture.text);
+        }
+        if (frame.minRank == KEPT) {
+            if (frames.isEmpty()) { // 최상위 태그가 닫히기 전에 새로운 태그들을 추가한다.
+                appendSqlElements();
+            }
+            super.endElement(uri, localName, qName);
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        if (idFrame != null) {
+            idText.append(ch, start, length);
+            return;
+        }
+        for (Capture capture : captures) {
+            if (capture.hiddenCount == 0) {
+                capture.text.append(ch, start, length);
+            }
+        }
+        if (isEmitting()) {
+            super.characters(ch, start, length);
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+        characters(ch, start, length);
+    }
+
+    @Override
+    public void processingInstruction(String target, String data) throws SAXException {
+        if (isEmitting() && idFrame == null) {
+            super.processingInstruction(target, data);
+        }
+    }
+
+    // ---------------------------------------------------------------- LexicalHandler
+
+    @Override
+    public void startDTD(String name, String publicId, String systemId) {
+        // DOM 변환 결과에도 DOCTYPE 은 기록되지 않는다.
+        inDtd = true;
+    }
+
+    @Override
+    public void endDTD() {
+        inDtd = false;
+    }
+
+    @Override
+    public void startEntity(String name) {
+        // 엔티티는 DOM 파싱과 같이 펼쳐진 내용만 전달한다.
+    }
+
+    @Override
+    public void endEntity(String name) {
+    }
+
+    @Override
+    public void startCDATA() throws SAXException {
+        if (lexicalHandler != null && isEmitting() && idFrame == null) {
+            lexicalHandler.startCDATA();
+        }
+    }
+
+    @Override
+    public void endCDATA() throws SAXException {
+        if (lexicalHandler != null && isEmitting() && idFrame == null) {
+            lexicalHandler.endCDATA();
+        }
+    }
+
+    @Override
+    public void comment(char[] ch, int start, int length) throws SAXException {
+        if (lexicalHandler != null && !inDtd && isEmitting() && idFrame == null) {
+            lexicalHandler.comment(ch, start, length);
+        }
+    }
+
+    // ---------------------------------------------------------------- 변환
+
+    private boolean isEmitting() {
+        return frames.isEmpty() || frames.peek().minRank == KEPT;
+    }
+
+    private void appendToCaptures(String text) {
+        for (Capture capture : captures) {
+            if (capture.hiddenCount == 0) {
+                capture.text.append(text);
+            }
+        }
+    }
+
+    /**
+     * sqlFull, sqlIncremental, sqlFieldUpdate, sqlDocAdd 태그를 추가한다.
+     */
+    private void appendSqlElements() throws SAXException {
+        // 전체색인 (sqlFull)
+        emitStartElement("sqlFull", null);
+        if (hasAnySqlText("fullCollectSqlPre", "fullCollectSql", "fullCollectSqlPost")) {
+            emitStartElement("fullQuery", "FULL_SQL");
+            emitSqlElement("pre", "fullCollectSqlPre");
+            emitSqlElement("main", "fullCollectSql");
+            emitSqlElement("post", "fullCollectSqlPost");
+            emitEndElement("fullQuery");
+        }
+        emitEndElement("sqlFull");
+
+        // 추가색인 (sqlIncremental)
+        emitStartElement("sqlIncremental", null);
+        if (hasAnySqlText("autoUpdateCheckPre", "updateIdSelectSql", "incCollectSql", "autoUpdateCheckPost")) {
+            emitStartElement("incrementalQuery", "INC_SQL");
+            emitSqlElement("pre", "autoUpdateCheckPre");
+            emitSqlElement("updateId", "updateIdSelectSql");
+            emitSqlElement("main", "incCollectSql");
+            emitSqlElement("post", "autoUpdateCheckPost");
+            emitEndElement("incrementalQuery");
+        }
+        emitEndElement("sqlIncremental");
+
+        // 새로운 태그 추가
+        emitStartElement("sqlFieldUpdate", null);
+        emitEndElement("sqlFieldUpdate");
+        emitStartElement("sqlDocAdd", null);
+        emitEndElement("sqlDocAdd");
+    }
+
+    private boolean hasAnySqlText(String... tagNames) {
+        for (String tagName : tagNames) {
+            if (sqlTexts.containsKey(tagName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void emitSqlElement(String tagName, String sqlTagName) throws SAXException {
+        CharSequence queryText = sqlTexts.get(sqlTagName);
+        if (queryText != null && queryText.length() > 0) {
+            emitStartElement(tagName, null);
+            emitCharacters(queryText);
+            emitEndElement(tagName);
+        }
+    }
+
+    private void emitStartElement(String tagName, String id) throws SAXException {
+        AttributesImpl atts = new AttributesImpl();
+        if (id != null) {
+            atts.addAttribute("", "", "id", "CDATA", id);
+        }
+        super.startElement("", "", tagName, atts);
+    }
+
+    private void emitEndElement(String tagName) throws SAXException {
+        super.endElement("", "", tagName);
+    }
+
+    /**
+     * 내용을 정해진 크기로 나누어 넘긴다. 큰 SQL 내용 전체를 char[] 로 복사하지 않는다. (서로게이트 쌍은 나누지 않는다.)
+     */
+    private void emitCharacters(CharSequence text) throws SAXException {
+        char[] chunk = new char[Math.min(text.length(), CHARACTERS_CHUNK_SIZE)];
+        int start = 0;
+        while (start < text.length()) {
+            int end = Math.min(text.length(), start + chunk.length);
+            if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1))) {
+                end--;
+            }
+            for (int idx = start; idx < end; idx++) {
+                chunk[idx - start] = text.charAt(idx);
+            }
+            super.characters(chunk, 0, end - start);
+            start = end;
+        }
+    }
+
+    /**
+     * 원본 태그를 시작한다.
+     * DOM 직렬화와 같이 네임스페이스 선언(xmlns) 속성을 먼저, 나머지 속성을 그 뒤에 출력한다.
+     * DOM 직렬화는 선언과 속성을 DOM 의 속성 목록 순서(이름순)로 출력하되, 최상위 태그는 태그 자신의 접두어
+     * (없으면 기본 네임스페이스) 선언을 맨 앞에 두므로 같은 순서로 정렬한다.
+     * 상위 태그에서 이미 같은 값으로 선언된 네임스페이스 선언은 생략한다.
+     */
+    private void emitElementStart(Frame frame, String uri, String localName, String qName, Attributes atts) throws SAXException {
+        int length = atts.getLength();
+        List<Integer> namespaceOrder = new ArrayList<>();
+        List<Integer> attributeOrder = new ArrayList<>(length);
+        for (int idx = 0; idx < length; idx++) {
+            String attributeName = atts.getQName(idx);
+            if (!isNamespaceDeclaration(attributeName)) {
+                attributeOrder.add(idx);
+            } else if (!isDeclaredInAncestor(attributeName, atts.getValue(idx))) {
+                namespaceOrder.add(idx);
+                frame.declare(attributeName, atts.getValue(idx));
+            }
+        }
+        if (namespaceOrder.size() + attributeOrder.size() == length && length < 2) {
+            super.startElement(uri, localName, qName, atts);
+            return;
+        }
+        Comparator<Integer> byName = (left, right) -> atts.getQName(left).compareTo(atts.getQName(right));
+        namespaceOrder.sort(byName);
+        attributeOrder.sort(byName);
+        int prefixEnd = qName.indexOf(':');
+        String elementDeclaration = (prefixEnd == -1) ? "xmlns" : "xmlns:" + qName.substring(0, prefixEnd);
+        for (int idx = 1; frames.size() == 1 && idx < namespaceOrder.size(); idx++) {
+            if (elementDeclaration.equals(atts.getQName(namespaceOrder.get(idx)))) {
+                namespaceOrder.add(0, namespaceOrder.remove(idx));
+                break;
+            }
+        }
+        AttributesImpl sorted = new AttributesImpl();
+        for (List<Integer> order : Arrays.asList(namespaceOrder, attributeOrder)) {
+            for (int idx : order) {
+                sorted.addAttribute(atts.getURI(idx), atts.getLocalName(idx), atts.getQName(idx), atts.getType(idx), atts.getValue(idx));
+            }
+        }
+        super.startElement(uri, localName, qName, sorted);
+    }
+
+    /**
+     * 상위 태그에서 같은 네임스페이스가 같은 값으로 선언되어 있는지 확인한다.
+     */
+    private boolean isDeclaredInAncestor(String attributeName, String value) {
+        Iterator<Frame> ancestors = frames.iterator();
+        ancestors.next();   // 현재 태그
+        while (ancestors.hasNext()) {
+            String declaredValue = ancestors.next().getDeclaration(attributeName);
+            if (declaredValue != null) {
+                return declaredValue.equals(value);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNamespaceDeclaration(String qName) {
+        return "xmlns".equals(qName) || qName.startsWith("xmlns:");
+    }
+
+    /**
+     * 열려 있는 태그의 상태
+     */
+    private static class Frame {
+
+        /** 이 태그 또는 상위 태그가 제거된 처리 순서 중 가장 빠른 순서 (KEPT: 제거되지 않음) */
+        int minRank;
+        /** 이 태그에서 출력한 네임스페이스 선언 (속성명 > 값) */
+        private Map<String, String> declarations;
+        /** 이 태그가 SQL 태그일 경우 내용을 모으는 객체 */
+        Capture capture;
+        /** 이 태그가 제거되어 내용이 보이지 않게 된 SQL 태그 목록 */
+        private List<Capture> hiddenCaptures;
+
+        Frame(int parentRank) {
+            this.minRank = parentRank;
+        }
+
+        void declare(String attributeName, String value) {
+            if (declarations == null) {
+                declarations = new HashMap<>();
+            }
+            declarations.put(attributeName, value);
+        }
+
+        String getDeclaration(String attributeName) {
+            return (declarations == null) ? null : declarations.get(attributeName);
+        }
+
+        /**
+         * 태그를 제거 대상으로 표시한다.
+         * 이 태그보다 늦게 처리되는 SQL 태그에서는 이 태그의 내용이 보이지 않는다.
+         */
+        void remove(int rank, List<Capture> captures) {
+            minRank = Math.min(minRank, rank);
+            for (Capture capture : captures) {
+                if (rank < capture.rank) {
+                    if (hiddenCaptures == null) {
+                        hiddenCaptures = new ArrayList<>();
+                    }
+                    capture.hiddenCount++;
+                    hiddenCaptures.add(capture);
+                }
+            }
+        }
+
+        /**
+         * 태그가 닫힐 때 가렸던 SQL 태그를 되돌린다.
+         */
+        void restore() {
+            if (hiddenCaptures != null) {
+                for (Capture capture : hiddenCaptures) {
+                    capture.hiddenCount--;
+                }
+            }
+        }
+    }
+
+    /**
+     * 내용을 모으는 중인 SQL 태그
+     */
+    private static class Capture {
+
+        final String tagName;
+        final int rank;
+        final StringBuilder text = new StringBuilder();
+        int hiddenCount;
+
+        Capture(String tagName, int rank) {
+            this.tagName = tagName;
+            this.rank = rank;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.diquest.ir.util;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * 변환 캐시 조회를 위해 정규화한 dbwatcher 설정 파일 내용
+ * 같은 SQL 템플릿을 복사해서 만든 파일들은 첫 번째 id 태그 값만 다르므로, id 값을 자리표시자로 바꾼 내용으로 캐시 키를 만든다.
+ * 캐시된 변환 결과의 자리표시자는 파일별 id 값(대문자)으로 바꾸어 사용한다.
+ * id 태그를 안전하게 찾을 수 없는 파일은 원본 내용 그대로 캐시 키를 만든다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+final class DbWatcherTemplate {
+
+    /** id 값 대신 넣는 자리표시자 (대문자 변환 결과가 자기 자신이어야 한다.) */
+    static final String ID_PLACEHOLDER = "M5CONVERTID0PLACEHOLDER0";
+
+    private static final byte[] ID_START_TAG = ascii("<id>");
+    private static final byte[] ID_END_TAG = ascii("</id>");
+    private static final byte[] ID_TAG_PREFIX = ascii("<id");
+    private static final byte[] COMMENT_START = ascii("<!--");
+    private static final byte[] COMMENT_END = ascii("-->");
+    private static final byte[] CDATA_START = ascii("<![CDATA[");
+    private static final byte[] CDATA_END = ascii("]]>");
+    private static final byte[] PI_START = ascii("<?");
+    private static final byte[] PI_END = ascii("?>");
+    private static final byte[] DOCTYPE_START = ascii("<!DOCTYPE");
+    private static final byte[] PLACEHOLDER_BYTES = ascii(ID_PLACEHOLDER);
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final String key;
+    private final XmlSource normalizedSource;
+    private final byte[] upperCaseId;
+
+    private DbWatcherTemplate(String key, XmlSource normalizedSource, byte[] upperCaseId) {
+        this.key = key;
+        this.normalizedSource = normalizedSource;
+        this.upperCaseId = upperCaseId;
+    }
+
+    /**
+     * 파일 내용을 정규화하여 캐시 키를 만든다.
+     *
+     * @param xmlSource  dbwatcher 설정 파일 내용
+     * @param parameters 변환 결과에 영향을 주는 설정값 (변환기 버전, Transformer 구현체 등)
+     * @return 정규화된 내용
+     */
+    static DbWatcherTemplate create(XmlSource xmlSource, String parameters) {
+        MessageDigest digest = newDigest();
+        digest.update(parameters.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+
+        ByteBuffer content = xmlSource.getContent();
+        Charset charset = XmlFileWriter.getDeclaredCharset(xmlSource.getXmlDeclaration());
+        int idStart = isAsciiCompatible(content, charset) ? findIdText(content) : -1;
+        int idEnd = (idStart == -1) ? -1 : indexOf(content, (byte) '<', idStart);
+        if (idEnd != -1 && indexOf(content, PLACEHOLDER_BYTES, 0) == -1) {
+            byte[] idBytes = new byte[idEnd - idStart];
+            range(content, idStart, idEnd).get(idBytes);
+            String upperCaseId = new String(idBytes, charset).toUpperCase();
+            if (charset.newEncoder().canEncode(upperCaseId)) {
+                byte[] normalized = new byte[content.limit() - idBytes.length + PLACEHOLDER_BYTES.length];
+                ByteBuffer target = ByteBuffer.wrap(normalized);
+                target.put(range(content, 0, idStart));
+                target.put(PLACEHOLDER_BYTES);
+                target.put(range(content, idEnd, content.limit()));
+                digest.update(normalized);
+                return new DbWatcherTemplate(
+                        toHex(digest.digest()),
+                        new XmlSource(xmlSource.getSystemId(), ByteBuffer.wrap(normalized)),
+                        upperCaseId.getBytes(charset)
+                );
+            }
+        }
+        // id 값을 정규화할 수 없으면 원본 내용이 완전히 같은 파일끼리만 캐시를 공유한다.
+        digest.update(content.duplicate());
+        return new DbWatcherTemplate(toHex(digest.digest()), xmlSource, null);
+    }
+
+    /**
+     * @return 캐시 키 (정규화된 내용과 설정값의 SHA-256)
+     */
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * @return 캐시에 없을 때 변환할 정규화된 내용
+     */
+    XmlSource getNormalizedSource() {
+        return normalizedSource;
+    }
+
+    /**
+     * 정규화된 내용의 변환 결과에서 자리표시자를 이 파일의 id 값(대문자)으로 바꾼다.
+     *
+     * @param convertedContent 정규화된 내용의 변환 결과
+     * @return 이 파일의 변환 결과
+     */
+    byte[] render(byte[] convertedContent) {
+        if (upperCaseId == null || Arrays.equals(upperCaseId, PLACEHOLDER_BYTES)) {
+            return convertedContent;
+        }
+        ByteBuffer source = ByteBuffer.wrap(convertedContent);
+        int count = 0;
+        for (int idx = indexOf(source, PLACEHOLDER_BYTES, 0); idx != -1; idx = indexOf(source, PLACEHOLDER_BYTES, idx + 1)) {
+            count++;
+        }
+        if (count == 0) {
+            return convertedContent;
+        }
+        byte[] rendered = new byte[convertedContent.length + count * (upperCaseId.length - PLACEHOLDER_BYTES.length)];
+        int sourceIndex = 0;
+        int targetIndex = 0;
+        for (int idx = indexOf(source, PLACEHOLDER_BYTES, 0); idx != -1; idx = indexOf(source, PLACEHOLDER_BYTES, idx + 1)) {
+            System.arraycopy(convertedContent, sourceIndex, rendered, targetIndex, idx - sourceIndex);
+            targetIndex += idx - sourceIndex;
+            System.arraycopy(upperCaseId, 0, rendered, targetIndex, upperCaseId.length);
+            targetIndex += upperCaseId.length;
+            sourceIndex = idx + PLACEHOLDER_BYTES.length;
+        }
+        System.arraycopy(convertedContent, sourceIndex, rendered, targetIndex, convertedContent.length - sourceIndex);
+        return rendered;
+    }
+
+    /**
+     * 태그 문자를 ASCII 바이트 그대로 비교할 수 있는 인코딩인지 확인한다. (UTF-16 등 제외)
+     */
+    private static boolean isAsciiCompatible(ByteBuffer content, Charset charset) {
+        if (!Arrays.equals(ascii("<id></id>"), "<id></id>".getBytes(charset)) || !content.hasRemaining()) {
+            return false;
+        }
+        int first = content.get(0) & 0xFF;
+        // 인코딩 선언 없이 UTF-16 BOM 으로 시작하는 파일은 제외한다.
+        return first == '<' || first == 0xEF || first == ' ' || first == '\t' || first == '\r' || first == '\n';
+    }
+
+    /**
+     * 첫 번째 id 태그의 값 시작 위치를 찾는다. 주석, CDATA, 처리 명령 안의 내용은 건너뛴다.
+     * DTD 가 있거나(엔티티 정의) id 태그가 비어 있거나 속성/하위 태그/엔티티 참조/줄바꿈을 포함하면 찾지 않는다.
+     *
+     * @return id 값 시작 위치 (찾지 못했을 경우 -1)
+     */
+    private static int findIdText(ByteBuffer content) {
+        int idx = indexOf(content, (byte) '<', 0);
+        while (idx != -1) {
+            if (startsWith(content, idx, COMMENT_START)) {
+                idx = skipPast(content, idx + COMMENT_START.length, COMMENT_END);
+            } else if (startsWith(content, idx, CDATA_START)) {
+                idx = skipPast(content, idx + CDATA_START.length, CDATA_END);
+            } else if (startsWith(content, idx, PI_START)) {
+                idx = skipPast(content, idx + PI_START.length, PI_END);
+            } else if (startsWith(content, idx, DOCTYPE_START)) {
+                return -1;
+            } else if (startsWith(content, idx, ID_START_TAG)) {
+                int textStart = idx + ID_START_TAG.length;
+                int textEnd = indexOf(content, (byte) '<', textStart);
+                if (textEnd == -1 || textEnd == textStart || !startsWith(content, textEnd, ID_END_TAG)) {
+                    return -1;  // 값이 없는 id 태그는 변환 결과가 <id/> 가 되므로 자리표시자를 넣지 않는다.
+                }
+                for (int textIdx = textStart; textIdx < textEnd; textIdx++) {
+                    byte value = content.get(textIdx);
+                    if (value == '&' || value == '>' || value == '\r' || value == '\n') {
+                        return -1;
+                    }
+                }
+                return textStart;
+            } else {
+                if (startsWith(content, idx, ID_TAG_PREFIX) && idx + ID_TAG_PREFIX.length < content.limit()) {
+                    byte next = content.get(idx + ID_TAG_PREFIX.length);
+                    if (next == '/' || next == ' ' || next == '\t' || next == '\r' || next == '\n') {
+                        return -1;  // 속성이 있거나 빈 id 태그
+                    }
+                }
+                idx++;
+            }
+            idx = (idx == -1) ? -1 : indexOf(content, (byte) '<', idx);
+        }
+        return -1;
+    }
+
+    /**
+     * @return 종료 표시 바로 뒤 위치 (종료 표시가 없을 경우 -1)
+     */
+    private static int skipPast(ByteBuffer content, int from, byte[] end) {
+        int idx = indexOf(content, end, from);
+        return (idx == -1) ? -1 : idx + end.length;
+    }
+
+    /**
+     * 원본 내용의 일부를 가리키는 ByteBuffer 를 만든다. (원본의 위치는 바꾸지 않는다.)
+     * JDK 9 이상에서 빌드해도 Java 8 에서 실행되도록 위치 지정은 Buffer 의 메서드로 호출한다.
+     */
+    private static ByteBuffer range(ByteBuffer content, int from, int to) {
+        ByteBuffer range = content.duplicate();
+        ((Buffer) range).limit(to);
+        ((Buffer) range).position(from);
+        return range;
+    }
+
+    private static boolean startsWith(ByteBuffer content, int offset, byte[] prefix) {
+        if (offset + prefix.length > content.limit()) {
+            return false;
+        }
+        for (int idx = 0; idx < prefix.length; idx++) {
+            if (content.get(offset + idx) != prefix[idx]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(ByteBuffer content, byte value, int from) {
+        for (int idx = from; idx < content.limit(); idx++) {
+            if (content.get(idx) == value) {
+                return idx;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(ByteBuffer content, byte[] value, int from) {
+        for (int idx = indexOf(content, value[0], from); idx != -1; idx = indexOf(content, value[0], idx + 1)) {
+            if (startsWith(content, idx, value)) {
+                return idx;
+            }
+        }
+        return -1;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);    // 모든 JVM 에서 지원하는 알고리즘
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int idx = 0; idx < bytes.length; idx++) {
+            hex[idx * 2] = HEX_DIGITS[(bytes[idx] >> 4) & 0x0F];
+            hex[idx * 2 + 1] = HEX_DIGITS[bytes[idx] & 0x0F];
+        }
+        return new String(hex);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
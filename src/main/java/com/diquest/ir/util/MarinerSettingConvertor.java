@@ -1,5 +1,12 @@
 package com.diquest.ir.util;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import javax.xml.parsers.FactoryConfigurationError;
+import javax.xml.transform.TransformerFactoryConfigurationError;
+
 /**
  * Mariner Setting Convertor 실행 클래스 (m4 > m5)
  *
@@ -9,26 +16,185 @@ package com.diquest.ir.util;
  */
 public class MarinerSettingConvertor {
 
+    /** 여러 사이트 일괄 변환 옵션 (첫 번째 인자로 사용) */
+    private static final String BATCH_OPTION = "--batch=";
+
     /**
      * Convertor 실행 메인 함수
      *
      * @param args 실행 시 전달되는 인자들입니다.
      *             args[0] ir4HomePath: 기존 mariner4 경로 (IR4_HOME 시스템 설정값)
      *             args[1] ir5HomePath: mariner5 경로
-     *             args[2] beforeSettingsFolderPath: 기존 mariner4 setting 폴더
-     *             args[3] convertSettingsFolderPath: 변환된 mariner5 setting 파일을 저장할 폴더
+     *             args[2] beforeSettingsFolderPath: 기존 mariner4 setting 폴더 (또는 setting 폴더 압축 파일 .zip/.tar/.tar.gz/.tgz)
+     *             args[3] convertSettingsFolderPath: 변환된 mariner5 setting 파일을 저장할 폴더 (또는 만들 압축 파일 .zip/.tar/.tar.gz/.tgz)
+     *             args[4~] 옵션 (선택)
+     *                      --threads=N: 읽기/변환/저장 단계별 작업 스레드 수 (0 이하일 경우 CPU 코어 수, 기본값 1)
+     *                      --parser-factory=CLASS: 사용할 DocumentBuilderFactory 구현체 (jdk: JDK 내장 구현체)
+     *                      --transformer-factory=CLASS: 사용할 TransformerFactory 구현체 (jdk: JDK 내장 구현체)
+     *                      --watcher-engine=stream|dom: dbwatcher SQL 설정 파일 변환 방식 (기본값 stream)
+     *                      --incremental: 이전 실행 이후 바뀐 파일만 변환하고, 원본이 삭제된 출력 파일은 정리
+     *                      --resume: 중단된 이전 변환을 이어서 실행 (출력 폴더의 저널에 기록된 파일은 건너뛰고, 남은 임시 파일은 삭제)
+     *                      --watch: 최초 변환 후 종료하지 않고 m4 setting 폴더의 변경을 감시하여 바뀐 파일만 변환
+     *                      --watch-debounce=MS: 감시 모드에서 마지막 변경 후 변환을 시작하기까지 기다리는 시간 (기본값 300)
+     *                      --metrics=FILE: 단계별 소요시간, 읽기/쓰기 바이트 수, 파일 종류별 처리 건수를 JSON 파일로 저장
+     *                      --link-pass-through: 그대로 복사하는 파일을 같은 파일시스템일 경우 하드 링크로 연결 (대상 파일을 수정하면 원본도 바뀜)
+     *                      --progress=SECONDS: 변환 중 진행 상황(처리 건수, 초당 처리량, 남은 시간)을 주기적으로 출력
+     *                      --cache-memory=MB: id 값만 다른 dbwatcher 설정 파일의 변환 결과를 메모리에 보관할 크기 (0 일 경우 보관하지 않음, 기본값 64)
+     *                      --cache-dir=DIR: dbwatcher 설정 파일 변환 결과를 디스크에 보관하여 다음 실행에도 사용
+     *                      --memory-budget=MB: 동시에 처리 중인 파일들이 사용할 메모리 한도 (기본값 최대 힙 크기의 절반)
+     *                      --stream-threshold=KB: 이 크기 이상인 dbwatcher 설정 파일은 dom 변환 방식에서도 스트리밍으로 변환하고 캐시하지 않음 (기본값 1024)
+     *                      --log-level=debug|info|warn|error: 기록할 최소 수준 (기본값 info, debug 는 오류의 stack trace 도 출력)
+     *                      --quiet: 파일별 저장 결과와 캐시 사용 건수는 출력하지 않고 경고와 오류, 실행 결과 요약만 출력
+     *                      --summary: 실행 결과 요약(실패 목록 포함)만 출력
+     *                      --log-file=FILE: 이벤트(파일별 저장 결과, 실패한 파일/변환 규칙/단계, 안내 메시지)를 JSON 1줄씩 FILE 에 덧붙여 기록
+     *             여러 사이트 일괄 변환 시
+     *             args[0] --batch=FILE: 사이트 목록 파일 (1줄에 1개 사이트씩 ir4HomePath, ir5HomePath, beforeSettingsFolderPath, convertSettingsFolderPath)
+     *             args[1~] 옵션 (선택, --watch 제외한 위 옵션을 모든 사이트에 적용)
+     *                      --parallel-sites=N: 동시에 변환할 사이트 수 (기본값 CPU 코어 수 / --threads)
      */
     public static void main(String[] args) {
         XmlFileProcessor xmlFileProcessor = null;
-        if (args.length >= 4) {
+        if (args.length >= 1 && args[0].startsWith(BATCH_OPTION)) {
+            convertSites(args[0].substring(BATCH_OPTION.length()), args);
+        } else if (args.length >= 4) {
             String ir4HomePath = args[0];
             String ir5HomePath = args[1];
             String beforeSettingsFolderPath = args[2];
             String convertSettingsFolderPath = args[3];
-            xmlFileProcessor = new XmlFileProcessor(ir4HomePath, ir5HomePath);
-            xmlFileProcessor.convertSettingFiles(beforeSettingsFolderPath, convertSettingsFolderPath);
+            ConvertorOptions options;
+            try {
+                options = ConvertorOptions.parse(args, 4);
+                options.configureLog();
+                if (options.isWatch() && SettingArchive.isArchiveInput(beforeSettingsFolderPath)) {
+                    throw new IllegalArgumentException("--watch 옵션은 m4 setting 폴더에서만 사용할 수 있습니다: " + beforeSettingsFolderPath);
+                }
+                xmlFileProcessor = options.createXmlFileProcessor(ir4HomePath, ir5HomePath);
+            } catch (IllegalArgumentException | IOException | FactoryConfigurationError | TransformerFactoryConfigurationError e) {
+                ConversionLog.summaryFailure(e.getMessage());
+                System.exit(2);
+                return;
+            }
+            ConversionResult result = xmlFileProcessor.convertSettingFiles(
+                    beforeSettingsFolderPath, convertSettingsFolderPath, options.getWorkerCount());
+            if (options.getMetricsFilePath() != null) {
+                try {
+                    result.getMetrics().writeJson(Paths.get(options.getMetricsFilePath()));
+                    ConversionLog.summary("Metrics: " + options.getMetricsFilePath());
+                } catch (IOException e) {
+                    ConversionLog.error("Failed to write metrics: " + options.getMetricsFilePath(), e);
+                }
+            }
+            if (options.isConversionCacheEnabled()) {
+                ConversionLog.info("Cached (reused conversion): " + result.getMetrics().getCachedCount());
+            }
+            if (options.isIncremental()) {
+                ConversionLog.summary("Skipped (unchanged): " + result.getSkippedCount() + ", Pruned: " + result.getPrunedCount());
+            }
+            if (options.isResume()) {
+                ConversionLog.summary("Resumed (already converted): " + result.getResumedCount());
+            }
+            if (result.hasFailures()) {
+                ConversionLog.summaryFailure("변환에 실패한 파일이 있습니다. (" + result.getFailures().size() + "건)");
+                if (isFailureListInSummary(options)) {
+                    for (ConversionResult.Failure failure : result.getFailures()) {
+                        ConversionLog.summaryFailure("Failed: " + failure);
+                    }
+                }
+                if (!options.isWatch()) {
+                    System.exit(1);
+                }
+            }
+            if (options.isWatch()) {
+                watchSettingFiles(xmlFileProcessor, beforeSettingsFolderPath, convertSettingsFolderPath, options);
+            }
         } else {
-            System.out.println("변환을 하기에 필요한 파라미터 입력이 부족합니다.");
+            ConversionLog.summaryFailure("변환을 하기에 필요한 파라미터 입력이 부족합니다.");
+        }
+    }
+
+    /**
+     * 사이트 목록 파일의 모든 사이트를 한 번의 실행에서 변환하고, 사이트별 결과와 전체 합계를 출력한다.
+     * 실패한 파일이 있는 사이트가 하나라도 있으면 모든 사이트를 처리한 뒤 종료코드 1로 종료한다.
+     */
+    private static void convertSites(String siteListFilePath, String[] args) {
+        ConvertorOptions options;
+        SiteBatch batch;
+        List<SiteBatch.Site> sites;
+        try {
+            options = ConvertorOptions.parse(args, 1);
+            options.configureLog();
+            if (options.isWatch()) {
+                throw new IllegalArgumentException("--watch 옵션은 일괄 변환에서 사용할 수 없습니다.");
+            }
+            sites = SiteBatch.loadSites(Paths.get(siteListFilePath));
+            batch = new SiteBatch(sites, options);
+        } catch (IllegalArgumentException | IOException | FactoryConfigurationError | TransformerFactoryConfigurationError e) {
+            ConversionLog.summaryFailure(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        long startedAt = System.nanoTime();
+        List<SiteBatch.SiteResult> siteResults = batch.run(options.getParallelSites());
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        int processedCount = 0;
+        int failedFileCount = 0;
+        int failedSiteCount = 0;
+        for (SiteBatch.SiteResult siteResult : siteResults) {
+            ConversionResult result = siteResult.getResult();
+            ConversionLog.summary(siteResult.toString());
+            if (isFailureListInSummary(options)) {
+                for (ConversionResult.Failure failure : result.getFailures()) {
+                    ConversionLog.summaryFailure("  Failed: " + failure);
+                }
+            }
+            if (options.getMetricsFilePath() != null) {
+                try {
+                    result.getMetrics().writeJson(SiteBatch.getSiteMetricsPath(options.getMetricsFilePath(), siteResult.getSite()));
+                } catch (IOException e) {
+                    ConversionLog.error("Failed to write metrics: " + options.getMetricsFilePath(), e);
+                }
+            }
+            processedCount += result.getProcessedCount();
+            failedFileCount += result.getFailures().size();
+            if (result.hasFailures()) {
+                failedSiteCount++;
+            }
+        }
+        ConversionLog.summary(String.format("Total: %d sites (%d failed), processed %d, failed %d files (%.1f s)",
+                sites.size(), failedSiteCount, processedCount, failedFileCount, elapsedNanos / 1e9));
+        if (siteResults.size() < sites.size() || failedSiteCount > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 파일별 실패 목록을 실행 결과 요약에 나열할지 확인한다.
+     * 실패한 파일은 변환 중 오류 이벤트로 콘솔에 출력되므로, 오류 이벤트를 출력하지 않는 --summary 에서만 요약에 나열한다.
+     */
+    private static boolean isFailureListInSummary(ConvertorOptions options) {
+        return options.getConsoleLevel().compareTo(ConversionLog.Level.ERROR) > 0;
+    }
+
+    /**
+     * m4 setting 폴더의 변경을 감시하여 종료될 때까지 바뀐 파일을 변환한다.
+     */
+    private static void watchSettingFiles(
+            XmlFileProcessor xmlFileProcessor,
+            String beforeSettingsFolderPath,
+            String convertSettingsFolderPath,
+            ConvertorOptions options
+    ) {
+        // 감시 중에는 매니페스트를 갱신하지 않으므로 증분 비교 없이 바뀐 파일을 바로 변환한다.
+        xmlFileProcessor.setIncremental(false);
+        try {
+            SettingWatcher watcher = new SettingWatcher(
+                    xmlFileProcessor, beforeSettingsFolderPath, convertSettingsFolderPath, options.getWatchDebounceMillis());
+            ConversionLog.info("Watching: " + beforeSettingsFolderPath);
+            SettingWatcher.runUntilShutdown(watcher);
+        } catch (IOException e) {
+            ConversionLog.error("Failed to watch: " + beforeSettingsFolderPath, e);
+            System.exit(1);
         }
     }
 }
@@ -0,0 +1,53 @@
+package com.diquest.ir.util;
+
+/**
+ * 동시에 처리 중인 변환 작업이 사용할 수 있는 힙 메모리 한도
+ * 작업마다 파일 크기로 예상한 사용량을 예약하고, 한도를 넘으면 앞선 작업이 끝나 반납할 때까지 기다린다.
+ * 한도보다 큰 작업 1건은 다른 작업이 모두 끝난 뒤 단독으로 처리한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+class MemoryBudget {
+
+    private final long limitBytes;
+    private long reservedBytes;
+
+    /**
+     * @param limitBytes 동시에 예약할 수 있는 메모리 합계 (byte, 0 이하일 경우 최대 힙 크기의 절반)
+     */
+    MemoryBudget(long limitBytes) {
+        this.limitBytes = (limitBytes > 0) ? limitBytes : Math.max(1, Runtime.getRuntime().maxMemory() / 2);
+    }
+
+    /**
+     * 메모리를 예약한다. 한도를 넘으면 반납될 때까지 기다린다.
+     *
+     * @param bytes 예약할 메모리 (byte)
+     * @return 실제로 예약한 메모리 (반납할 때 사용)
+     */
+    synchronized long reserve(long bytes) throws InterruptedException {
+        if (bytes <= 0) {
+            return 0;
+        }
+        // 진행 중인 작업이 없으면 한도보다 큰 작업도 받아들인다.
+        while (reservedBytes > 0 && reservedBytes + bytes > limitBytes) {
+            wait();
+        }
+        reservedBytes += bytes;
+        return bytes;
+    }
+
+    /**
+     * 예약한 메모리를 반납한다.
+     *
+     * @param bytes reserve 가 돌려준 메모리 (byte)
+     */
+    synchronized void release(long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        reservedBytes -= bytes;
+        notifyAll();
+    }
+}
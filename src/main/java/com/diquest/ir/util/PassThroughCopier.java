@@ -0,0 +1,138 @@
+package com.diquest.ir.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * 변환하지 않고 그대로 옮기는 파일(collectionList.xml, profileSetting.xml)을 복사하는 클래스
+ * 대상 파일이 이미 같으면 복사하지 않고, 다르면 커널 내 복사(FileChannel.transferTo)나 하드 링크로 옮긴다.
+ * 복사한 파일은 원본의 수정시각을 유지하므로, 다시 실행할 때 크기/수정시각만으로 같은 파일임을 확인할 수 있다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class PassThroughCopier {
+
+    /**
+     * 복사 결과
+     */
+    public enum Outcome {
+        /** 대상 파일이 이미 같아서 복사하지 않음 */
+        IDENTICAL,
+        /** 하드 링크로 연결함 */
+        LINKED,
+        /** 내용을 복사함 */
+        COPIED
+    }
+
+    private final boolean hardLinkAllowed;
+    /** 하드 링크를 만들 수 없는 환경(다른 파일시스템 등)이면 이후에는 시도하지 않는다. */
+    private volatile boolean hardLinkSupported = true;
+
+    /**
+     * @param hardLinkAllowed 원본과 대상이 같은 파일시스템에 있을 때 하드 링크 사용 여부
+     *                        (하드 링크는 원본과 내용을 공유하므로 대상 파일을 수정하면 원본도 바뀐다.)
+     */
+    public PassThroughCopier(boolean hardLinkAllowed) {
+        this.hardLinkAllowed = hardLinkAllowed;
+    }
+
+    /**
+     * 파일을 복사한다.
+     *
+     * @param sourceFilePath      원본 파일 경로
+     * @param destinationFilePath 대상 파일 경로
+     * @return 복사 결과
+     */
+    public Outcome copy(String sourceFilePath, String destinationFilePath) throws IOException {
+        Path source = Paths.get(sourceFilePath);
+        Path destination = Paths.get(destinationFilePath);
+        BasicFileAttributes sourceAttributes = Files.readAttributes(source, BasicFileAttributes.class);
+        if (isIdentical(source, sourceAttributes, destination)) {
+            return Outcome.IDENTICAL;
+        }
+
+        Files.createDirectories(destination.toAbsolutePath().getParent());
+        Path tempFile = Paths.get(destinationFilePath + XmlFileWriter.TEMP_FILE_SUFFIX);
+        try {
+            Files.deleteIfExists(tempFile);
+            Outcome outcome;
+            if (hardLinkAllowed && hardLinkSupported && createLink(tempFile, source)) {
+                outcome = Outcome.LINKED;
+            } else {
+                transfer(source, tempFile);
+                Files.setLastModifiedTime(tempFile, sourceAttributes.lastModifiedTime());
+                outcome = Outcome.COPIED;
+            }
+            XmlFileWriter.moveIntoPlace(tempFile, destination);
+            return outcome;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 대상 파일이 원본과 같은지 확인한다.
+     * 같은 파일(하드 링크)이거나 크기와 수정시각이 같으면 같은 파일로 보고,
+     * 크기만 같을 경우 내용을 비교하여 같으면 수정시각만 원본에 맞춘다.
+     */
+    private boolean isIdentical(Path source, BasicFileAttributes sourceAttributes, Path destination) throws IOException {
+        if (!Files.isRegularFile(destination)) {
+            return false;
+        }
+        BasicFileAttributes destinationAttributes = Files.readAttributes(destination, BasicFileAttributes.class);
+        if (destinationAttributes.size() != sourceAttributes.size()) {
+            return false;
+        }
+        if (Files.isSameFile(source, destination)) {
+            return true;
+        }
+        FileTime sourceModifiedTime = sourceAttributes.lastModifiedTime();
+        if (destinationAttributes.lastModifiedTime().equals(sourceModifiedTime)) {
+            return true;
+        }
+        if (XmlFileWriter.hasSameContent(source, destination)) {
+            Files.setLastModifiedTime(destination, sourceModifiedTime);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean createLink(Path link, Path source) {
+        try {
+            Files.createLink(link, source);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            // 다른 파일시스템이거나 하드 링크를 지원하지 않으면 복사로 처리한다.
+            hardLinkSupported = false;
+            return false;
+        }
+    }
+
+    /**
+     * 커널 내 복사(transferTo)로 파일 내용을 옮긴다.
+     */
+    private static void transfer(Path source, Path target) throws IOException {
+        try (
+            FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+            FileChannel targetChannel = FileChannel.open(target,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)
+        ) {
+            long size = sourceChannel.size();
+            long position = 0;
+            while (position < size) {
+                long transferred = sourceChannel.transferTo(position, size - position, targetChannel);
+                if (transferred <= 0) {   // 복사 도중 원본 크기가 줄어든 경우
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.diquest.ir.util;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * 매니페스트와 저널 파일에서 함께 사용하는 기록 형식 (탭으로 구분한 1줄에 1개 항목)
+ * 경로는 운영체제와 관계없이 "/" 로 구분하고, 필드 값의 탭과 줄바꿈은 "\" 로 이스케이프한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+final class RecordFields {
+
+    private RecordFields() {
+    }
+
+    /**
+     * 기준 폴더에 대한 상대 경로를 "/" 로 구분한 키로 만든다.
+     *
+     * @param root 기준 폴더 (절대 경로, 정규화된 경로)
+     * @param path 파일 경로
+     * @return 기준 폴더 기준 경로 키
+     */
+    static String toKey(Path root, Path path) {
+        return root.relativize(path.toAbsolutePath().normalize()).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * 필드 값의 "\", 탭, 줄바꿈을 이스케이프한다.
+     *
+     * @param value 필드 값
+     * @return 이스케이프된 값
+     */
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    /**
+     * escape 로 이스케이프한 필드 값을 되돌린다.
+     *
+     * @param value 이스케이프된 값
+     * @return 필드 값
+     */
+    static String unescape(String value) {
+        if (value.indexOf('\\') == -1) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int idx = 0; idx < value.length(); idx++) {
+            char ch = value.charAt(idx);
+            if (ch == '\\' && idx + 1 < value.length()) {
+                char next = value.charAt(++idx);
+                builder.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                builder.append(ch);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,373 @@
+package com.diquest.ir.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * setting 폴더를 압축한 파일(zip, tar, tar.gz)을 읽고 쓰는 클래스
+ * 압축 파일을 풀지 않고 앞에서부터 순서대로 항목을 읽으며, 변환된 항목은 순서대로 압축 파일에 기록한다.
+ * 항목 내용은 처리할 항목만 1건씩 메모리에 읽으므로, 사용 메모리는 동시에 처리 중인 항목 수에 비례한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+final class SettingArchive {
+
+    /** 압축 파일 읽기/쓰기 버퍼 크기 (byte) */
+    static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    /** 크기를 모르는 항목을 읽을 때의 초기 버퍼 크기 (byte) */
+    private static final int INITIAL_CONTENT_BUFFER_SIZE = 16 * 1024;
+
+    private SettingArchive() {
+    }
+
+    /**
+     * 압축 파일 형식
+     */
+    enum Format {
+        ZIP, TAR, TAR_GZ
+    }
+
+    /**
+     * 파일 확장자로 압축 파일 형식을 확인한다.
+     *
+     * @param path 파일 경로
+     * @return 압축 파일 형식 (압축 파일 확장자가 아닐 경우 null)
+     */
+    static Format getFormat(String path) {
+        String lowerCasePath = path.toLowerCase(Locale.ROOT);
+        if (lowerCasePath.endsWith(".zip")) {
+            return Format.ZIP;
+        } else if (lowerCasePath.endsWith(".tar")) {
+            return Format.TAR;
+        } else if (lowerCasePath.endsWith(".tar.gz") || lowerCasePath.endsWith(".tgz")) {
+            return Format.TAR_GZ;
+        }
+        return null;
+    }
+
+    /**
+     * 입력 경로가 압축 파일인지 확인한다. (압축 파일 확장자를 가진 일반 파일)
+     *
+     * @param inputFilePath m4 setting 폴더 또는 압축 파일 경로
+     * @return 압축 파일일 경우 true
+     */
+    static boolean isArchiveInput(String inputFilePath) {
+        return getFormat(inputFilePath) != null && Files.isRegularFile(Paths.get(inputFilePath));
+    }
+
+    /**
+     * 출력 경로가 압축 파일인지 확인한다. (압축 파일 확장자를 가진 경로)
+     *
+     * @param outputFilePath m5 setting 저장 폴더 또는 압축 파일 경로
+     * @return 압축 파일일 경우 true
+     */
+    static boolean isArchiveOutput(String outputFilePath) {
+        return getFormat(outputFilePath) != null && !Files.isDirectory(Paths.get(outputFilePath));
+    }
+
+    /**
+     * 압축 파일 항목을 읽어오는 EntryReader 를 연다.
+     *
+     * @param archiveFile 압축 파일
+     * @return 항목을 순서대로 읽는 EntryReader
+     */
+    static EntryReader openReader(Path archiveFile) throws IOException {
+        Format format = getFormat(archiveFile.toString());
+        InputStream input = new BufferedInputStream(Files.newInputStream(archiveFile), STREAM_BUFFER_SIZE);
+        try {
+            if (format == Format.ZIP) {
+                return new ZipEntryReader(new ZipInputStream(input));
+            } else if (format == Format.TAR_GZ) {
+                input = new GZIPInputStream(input, STREAM_BUFFER_SIZE);
+            }
+            return new TarArchive.Reader(input);
+        } catch (IOException | RuntimeException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 압축 파일에 항목을 기록하는 EntryWriter 를 연다.
+     * 임시 파일에 기록한 뒤 close 할 때 대상 파일로 교체한다.
+     *
+     * @param archiveFile 만들 압축 파일
+     * @return 항목을 순서대로 기록하는 EntryWriter
+     */
+    static EntryWriter openWriter(Path archiveFile) throws IOException {
+        Format format = getFormat(archiveFile.toString());
+        Path parent = archiveFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tempFile = Paths.get(archiveFile + XmlFileWriter.TEMP_FILE_SUFFIX);
+        OutputStream output = new BufferedOutputStream(Files.newOutputStream(tempFile), STREAM_BUFFER_SIZE);
+        try {
+            if (format == Format.ZIP) {
+                return new ZipEntryWriter(new ZipOutputStream(output), tempFile, archiveFile);
+            } else if (format == Format.TAR_GZ) {
+                output = new GZIPOutputStream(output, STREAM_BUFFER_SIZE);
+            }
+            return new TarArchive.Writer(output, tempFile, archiveFile);
+        } catch (IOException | RuntimeException e) {
+            output.close();
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * 압축 파일 항목명을 setting 폴더 기준 상대 경로로 정리한다. ("./" 와 앞쪽 "/" 제거)
+     *
+     * @param name 압축 파일에 기록된 항목명
+     * @return 정리된 항목명
+     */
+    static String normalizeEntryName(String name) {
+        String normalized = name.replace('\\', '/');
+        while (normalized.startsWith("./") || normalized.startsWith("/")) {
+            normalized = normalized.substring(normalized.startsWith("./") ? 2 : 1);
+        }
+        return normalized;
+    }
+
+    /**
+     * 압축 파일에 기록된 항목명을 확인한 뒤 정리한다.
+     * 출력 폴더 밖을 가리킬 수 있는 항목명(".." 경로, 절대 경로, 드라이브 경로)은 받아들이지 않는다.
+     *
+     * @param name 압축 파일에 기록된 항목명
+     * @return 정리된 항목명
+     * @throws UnsafeEntryException 항목명이 setting 폴더 밖을 가리킬 경우
+     */
+    static String checkEntryName(String name) throws UnsafeEntryException {
+        String path = name.replace('\\', '/');
+        boolean unsafe = path.startsWith("/") || (path.length() >= 2 && path.charAt(1) == ':');
+        for (String segment : path.split("/")) {
+            unsafe |= "..".equals(segment);
+        }
+        if (unsafe) {
+            throw new UnsafeEntryException(name);
+        }
+        return normalizeEntryName(path);
+    }
+
+    /**
+     * 입력 스트림에서 정해진 크기만큼 읽는다. (크기를 모를 경우 끝까지 읽는다.)
+     *
+     * @param input 입력 스트림
+     * @param size  읽을 크기 (모를 경우 -1)
+     * @return 읽은 내용
+     */
+    static byte[] readContent(InputStream input, long size) throws IOException {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IOException("압축 파일 항목이 너무 큽니다: " + size + " bytes");
+        }
+        if (size < 0) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream(INITIAL_CONTENT_BUFFER_SIZE);
+            byte[] buffer = new byte[INITIAL_CONTENT_BUFFER_SIZE];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return content.toByteArray();
+        }
+        byte[] content = new byte[(int) size];
+        int offset = 0;
+        while (offset < content.length) {
+            int read = input.read(content, offset, content.length - offset);
+            if (read == -1) {
+                throw new IOException("압축 파일 항목이 예상보다 짧습니다: " + offset + "/" + size + " bytes");
+            }
+            offset += read;
+        }
+        return content;
+    }
+
+    /**
+     * 압축 파일 항목 정보
+     */
+    static final class Entry {
+
+        private final String name;
+        private final long size;
+        private final long lastModified;
+
+        Entry(String name, long size, long lastModified) {
+            this.name = name;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * @return setting 폴더 기준 상대 경로 ("/" 구분)
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * @return 항목 크기 (byte, 모를 경우 -1)
+         */
+        long getSize() {
+            return size;
+        }
+
+        /**
+         * @return 수정시각 (ms)
+         */
+        long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    /**
+     * setting 폴더 밖을 가리키는 압축 파일 항목
+     * 이 오류가 발생한 뒤에도 next 를 호출하면 다음 항목을 계속 읽을 수 있다.
+     */
+    static final class UnsafeEntryException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String entryName;
+
+        UnsafeEntryException(String entryName) {
+            super("setting 폴더 밖을 가리키는 압축 파일 항목입니다: " + entryName);
+            this.entryName = entryName;
+        }
+
+        /**
+         * @return 압축 파일에 기록된 항목명
+         */
+        String getEntryName() {
+            return entryName;
+        }
+    }
+
+    /**
+     * 압축 파일의 일반 파일 항목을 앞에서부터 순서대로 읽는다. (폴더 항목은 건너뛴다.)
+     */
+    interface EntryReader extends Closeable {
+
+        /**
+         * 다음 항목으로 이동한다. 이전 항목 내용을 읽지 않았으면 건너뛴다.
+         *
+         * @return 다음 항목 (더 이상 없을 경우 null)
+         * @throws UnsafeEntryException 항목명이 setting 폴더 밖을 가리킬 경우 (다음 호출 시 그 다음 항목으로 이동)
+         */
+        Entry next() throws IOException;
+
+        /**
+         * @return 현재 항목 내용
+         */
+        byte[] readContent() throws IOException;
+    }
+
+    /**
+     * 압축 파일에 항목을 기록한다. 여러 스레드에서 호출할 수 있으며 호출한 순서대로 기록된다.
+     */
+    interface EntryWriter extends Closeable {
+
+        /**
+         * @param name         항목명 ("/" 구분)
+         * @param content      항목 내용
+         * @param lastModified 수정시각 (ms)
+         */
+        void write(String name, byte[] content, long lastModified) throws IOException;
+
+        /**
+         * 압축 파일 기록을 마치고 임시 파일을 대상 파일로 교체한다.
+         */
+        @Override
+        void close() throws IOException;
+
+        /**
+         * 압축 파일 기록을 취소하고 임시 파일을 삭제한다. 대상 파일(이전 실행 결과)은 그대로 둔다.
+         */
+        void abort() throws IOException;
+    }
+
+    private static final class ZipEntryReader implements EntryReader {
+
+        private final ZipInputStream input;
+        private ZipEntry current;
+
+        ZipEntryReader(ZipInputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        public Entry next() throws IOException {
+            while ((current = input.getNextEntry()) != null) {
+                if (!current.isDirectory()) {
+                    return new Entry(checkEntryName(current.getName()), current.getSize(), current.getTime());
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public byte[] readContent() throws IOException {
+            return SettingArchive.readContent(input, current.getSize());
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+    private static final class ZipEntryWriter implements EntryWriter {
+
+        private final ZipOutputStream output;
+        private final Path tempFile;
+        private final Path archiveFile;
+
+        ZipEntryWriter(ZipOutputStream output, Path tempFile, Path archiveFile) {
+            this.output = output;
+            this.tempFile = tempFile;
+            this.archiveFile = archiveFile;
+        }
+
+        @Override
+        public synchronized void write(String name, byte[] content, long lastModified) throws IOException {
+            ZipEntry entry = new ZipEntry(name);
+            entry.setTime(lastModified);
+            output.putNextEntry(entry);
+            output.write(content);
+            output.closeEntry();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                output.close();
+                XmlFileWriter.moveIntoPlace(tempFile, archiveFile);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+
+        @Override
+        public synchronized void abort() throws IOException {
+            try {
+                output.close();
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+}
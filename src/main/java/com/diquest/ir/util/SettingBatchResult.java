@@ -0,0 +1,44 @@
+package com.diquest.ir.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 메모리 일괄 변환 결과
+ * 변환된 설정 파일은 요청 순서대로 담기며, 변환 대상이 아니거나 실패한 파일은 빠진다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class SettingBatchResult {
+
+    private final List<ConvertedSetting> converted;
+    private final List<SettingConversionException> failures;
+
+    SettingBatchResult(List<ConvertedSetting> converted, List<SettingConversionException> failures) {
+        this.converted = Collections.unmodifiableList(new ArrayList<>(converted));
+        this.failures = Collections.unmodifiableList(new ArrayList<>(failures));
+    }
+
+    /**
+     * @return 변환된 설정 파일 목록 (요청 순서)
+     */
+    public List<ConvertedSetting> getConverted() {
+        return converted;
+    }
+
+    /**
+     * @return 변환에 실패한 설정 파일 목록 (요청 순서)
+     */
+    public List<SettingConversionException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return 변환에 실패한 설정 파일이 하나라도 있을 경우 true
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
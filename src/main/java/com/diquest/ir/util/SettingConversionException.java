@@ -0,0 +1,30 @@
+package com.diquest.ir.util;
+
+/**
+ * 메모리 변환 중 설정 파일 1건의 변환에 실패했을 때 발생하는 예외
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class SettingConversionException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String settingPath;
+
+    /**
+     * @param settingPath 변환에 실패한 설정 파일의 논리 경로
+     * @param cause       발생한 오류
+     */
+    public SettingConversionException(String settingPath, Throwable cause) {
+        super(settingPath + " : " + cause, cause);
+        this.settingPath = settingPath;
+    }
+
+    /**
+     * @return 변환에 실패한 설정 파일의 논리 경로
+     */
+    public String getSettingPath() {
+        return settingPath;
+    }
+}
@@ -0,0 +1,45 @@
+package com.diquest.ir.util;
+
+/**
+ * 메모리에 있는 설정 파일 1건 (setting 폴더 기준 논리 경로와 파일 내용)
+ * 설정 저장소 등 파일시스템이 아닌 곳에서 가져온 설정을 변환할 때 사용한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class SettingDocument {
+
+    private final String path;
+    private final byte[] content;
+
+    /**
+     * @param path    setting 폴더 기준 논리 경로 ("/" 구분, 예: COLLECTION_NAME/dbwatcher/watcher.xml)
+     * @param content 파일 내용 (복사하지 않으므로 변환이 끝날 때까지 수정하면 안 된다.)
+     */
+    public SettingDocument(String path, byte[] content) {
+        if (path == null || content == null) {
+            throw new IllegalArgumentException("설정 파일 경로와 내용이 필요합니다.");
+        }
+        this.path = path;
+        this.content = content;
+    }
+
+    /**
+     * @return setting 폴더 기준 논리 경로
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return 파일 내용
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    @Override
+    public String toString() {
+        return path + " (" + content.length + " bytes)";
+    }
+}
@@ -0,0 +1,313 @@
+package com.diquest.ir.util;
+
+import java.io.File;
+
+import org.w3c.dom.Document;
+
+/**
+ * 설정 파일 1건의 변환 작업 상태
+ * 읽기(파싱) → 변환 → 저장 단계를 거치면서 각 단계의 결과를 담아 다음 단계로 넘긴다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+class SettingFileTask {
+
+    private final File xmlFile;
+    private ConversionManifest.Entry manifestEntry;
+    private byte[] sourceContent;
+    private long sourceLastModified;
+    private long sourceSize = -1;
+    private long reservedMemory;
+    private String xmlDeclaration;
+    private XmlSource xmlSource;
+    private Document document;
+    private DbWatcherTemplate template;
+    private ConversionCache.Claim cacheClaim;
+    private byte[] cachedContent;
+    private boolean cacheHit;
+    private boolean largeSource;
+    private String saveFilePath;
+    private byte[] convertedContent;
+    private String savedMessage;
+    private final long[] phaseNanos = new long[ConversionMetrics.Phase.values().length];
+    private ConversionMetrics.Phase currentPhase;
+    private long bytesRead;
+    private long bytesWritten;
+    private boolean outputIdentical;
+
+    SettingFileTask(File xmlFile) {
+        this.xmlFile = xmlFile;
+    }
+
+    File getXmlFile() {
+        return xmlFile;
+    }
+
+    ConversionManifest.Entry getManifestEntry() {
+        return manifestEntry;
+    }
+
+    void setManifestEntry(ConversionManifest.Entry manifestEntry) {
+        this.manifestEntry = manifestEntry;
+    }
+
+    /**
+     * @return 압축 파일 항목이나 메모리 변환 요청으로 전달된 원본 내용 (폴더에서 읽는 파일일 경우 null)
+     */
+    byte[] getSourceContent() {
+        return sourceContent;
+    }
+
+    /**
+     * @return 압축 파일에 기록되었거나 탐색 단계에서 확인한 원본 수정시각 (ms, 메모리 변환 요청일 경우 0)
+     */
+    long getSourceLastModified() {
+        return sourceLastModified;
+    }
+
+    void setSourceLastModified(long sourceLastModified) {
+        this.sourceLastModified = sourceLastModified;
+    }
+
+    /**
+     * 이미 읽어온 원본 내용을 설정한다. 읽기 단계에서 파일 대신 이 내용을 사용한다.
+     *
+     * @param sourceContent      원본 내용
+     * @param sourceLastModified 원본 수정시각 (ms)
+     */
+    void setSourceContent(byte[] sourceContent, long sourceLastModified) {
+        this.sourceContent = sourceContent;
+        this.sourceLastModified = sourceLastModified;
+    }
+
+    /**
+     * @return 탐색 단계에서 확인한 원본 크기 (byte, 모를 경우 -1)
+     */
+    long getSourceSize() {
+        return sourceSize;
+    }
+
+    void setSourceSize(long sourceSize) {
+        this.sourceSize = sourceSize;
+    }
+
+    /**
+     * @return 이 작업이 MemoryBudget 에서 예약한 메모리 (byte)
+     */
+    long getReservedMemory() {
+        return reservedMemory;
+    }
+
+    void setReservedMemory(long reservedMemory) {
+        this.reservedMemory = reservedMemory;
+    }
+
+    String getXmlDeclaration() {
+        return xmlDeclaration;
+    }
+
+    void setXmlDeclaration(String xmlDeclaration) {
+        this.xmlDeclaration = xmlDeclaration;
+    }
+
+    /**
+     * @return 스트리밍으로 변환할 파일 내용 (DOM 으로 읽었거나 읽지 않은 파일일 경우 null)
+     */
+    XmlSource getXmlSource() {
+        return xmlSource;
+    }
+
+    void setXmlSource(XmlSource xmlSource) {
+        this.xmlSource = xmlSource;
+    }
+
+    /**
+     * @return 파싱된 Document (DOM 으로 읽지 않은 파일일 경우 null)
+     */
+    Document getDocument() {
+        return document;
+    }
+
+    void setDocument(Document document) {
+        this.document = document;
+    }
+
+    /**
+     * @return 변환 결과를 캐시에 넣을 때 사용할 정규화된 내용 (캐시를 사용하지 않거나 캐시에서 찾은 경우 null)
+     */
+    DbWatcherTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * @param template   캐시에 넣을 결과를 변환할 정규화된 내용
+     * @param cacheClaim 이 작업이 선점한 캐시 키 (변환하지 못하고 작업을 놓아주면 선점을 푼다.)
+     */
+    void setTemplate(DbWatcherTemplate template, ConversionCache.Claim cacheClaim) {
+        this.template = template;
+        this.cacheClaim = cacheClaim;
+    }
+
+    /**
+     * @return 이 작업이 선점한 캐시 키 (캐시를 사용하지 않거나 캐시에서 찾은 경우 null)
+     */
+    ConversionCache.Claim getCacheClaim() {
+        return cacheClaim;
+    }
+
+    /**
+     * @return 캐시에서 찾은 변환 결과 (캐시에서 찾지 못했을 경우 null)
+     */
+    byte[] getCachedContent() {
+        return cachedContent;
+    }
+
+    void setCachedContent(byte[] cachedContent) {
+        this.cachedContent = cachedContent;
+        this.cacheHit = true;
+    }
+
+    /**
+     * @return 변환하지 않고 캐시된 변환 결과를 사용했을 경우 true
+     */
+    boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    /**
+     * @return 스레드별 파서/Transformer 의 내부 버퍼를 크게 늘릴 만큼 큰 파일일 경우 true (읽기 단계에서 정한다.)
+     */
+    boolean isLargeSource() {
+        return largeSource;
+    }
+
+    void setLargeSource(boolean largeSource) {
+        this.largeSource = largeSource;
+    }
+
+    /**
+     * 변환이 끝난 뒤 더 이상 필요 없는 읽기 결과를 놓아준다.
+     * 선점한 캐시 키를 변환하지 못했으면 선점을 풀어, 같은 내용을 기다리는 다른 작업이 변환하도록 한다.
+     */
+    void releaseParsed() {
+        if (cacheClaim != null) {
+            cacheClaim.abandon();
+            cacheClaim = null;
+        }
+        xmlSource = null;
+        document = null;
+        template = null;
+        cachedContent = null;
+    }
+
+    /**
+     * 처리가 끝난 작업의 원본 내용과 변환 결과를 놓아준다.
+     * 작업 객체가 스레드 변수 등에 남아 있어도 큰 내용은 메모리에서 해제되도록 한다.
+     */
+    void releaseContent() {
+        releaseParsed();
+        sourceContent = null;
+        convertedContent = null;
+    }
+
+    /**
+     * @return 저장할 파일 경로 (저장 대상이 아닐 경우 null)
+     */
+    String getSaveFilePath() {
+        return saveFilePath;
+    }
+
+    /**
+     * @return 저장할 파일 내용 (원본을 그대로 복사할 경우 null)
+     */
+    byte[] getConvertedContent() {
+        return convertedContent;
+    }
+
+    /**
+     * @return 저장 후 출력할 메시지 (저장 경로 앞에 붙는다.)
+     */
+    String getSavedMessage() {
+        return savedMessage;
+    }
+
+    /**
+     * 변환 결과를 설정한다.
+     *
+     * @param saveFilePath     저장할 파일 경로
+     * @param convertedContent 저장할 파일 내용 (원본을 그대로 복사할 경우 null)
+     * @param savedMessage     저장 후 출력할 메시지
+     */
+    void setOutput(String saveFilePath, byte[] convertedContent, String savedMessage) {
+        this.saveFilePath = saveFilePath;
+        this.convertedContent = convertedContent;
+        this.savedMessage = savedMessage;
+    }
+
+    /**
+     * 단계 시작을 기록한다. 오류가 발생하면 마지막으로 시작한 단계의 오류로 집계된다.
+     *
+     * @param phase 시작하는 단계
+     * @return 시작 시각 (ns)
+     */
+    long startPhase(ConversionMetrics.Phase phase) {
+        currentPhase = phase;
+        return System.nanoTime();
+    }
+
+    /**
+     * 단계 소요시간을 기록한다.
+     *
+     * @param phase     끝난 단계
+     * @param startedAt startPhase 가 돌려준 시작 시각 (ns)
+     * @return 소요시간 (ns)
+     */
+    long endPhase(ConversionMetrics.Phase phase, long startedAt) {
+        long elapsed = System.nanoTime() - startedAt;
+        phaseNanos[phase.ordinal()] += elapsed;
+        return elapsed;
+    }
+
+    /**
+     * 단계 소요시간을 더한다. (startPhase/endPhase 밖에서 측정한 시간)
+     */
+    void addPhaseNanos(ConversionMetrics.Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    long getPhaseNanos(ConversionMetrics.Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    ConversionMetrics.Phase getCurrentPhase() {
+        return currentPhase;
+    }
+
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    void addBytesRead(long bytes) {
+        bytesRead += bytes;
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    void addBytesWritten(long bytes) {
+        bytesWritten += bytes;
+    }
+
+    /**
+     * @return 저장할 내용이 이미 저장된 파일과 같아서 기록하지 않았을 경우 true
+     */
+    boolean isOutputIdentical() {
+        return outputIdentical;
+    }
+
+    void setOutputIdentical(boolean outputIdentical) {
+        this.outputIdentical = outputIdentical;
+    }
+}
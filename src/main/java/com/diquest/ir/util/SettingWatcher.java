@@ -0,0 +1,266 @@
+package com.diquest.ir.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * m4 setting 폴더의 변경을 감시하여 바뀐 파일만 m5 setting 폴더로 계속 변환하는 클래스
+ * 새로 생긴 컬렉션 폴더도 감시 대상에 추가하며, 짧은 시간에 몰린 변경은 모아서 한 번에 변환한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class SettingWatcher implements Closeable {
+
+    /** 기본 변경 묶음 대기 시간 (ms) */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+    /** 변경이 계속 이어지더라도 대기 시간의 이 배수가 지나면 변환한다. */
+    private static final int MAX_DEBOUNCE_FACTOR = 5;
+
+    private final XmlFileProcessor xmlFileProcessor;
+    private final String inputFilePath;
+    private final String outputFilePath;
+    private final long debounceMillis;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+
+    /**
+     * @param xmlFileProcessor  변환에 사용할 XmlFileProcessor
+     * @param inputFilePath     감시할 기존 m4 setting 폴더 경로
+     * @param outputFilePath    변환된 m5 setting 파일을 저장할 폴더 경로
+     * @param debounceMillis    마지막 변경 후 변환을 시작하기까지 기다리는 시간 (ms)
+     */
+    public SettingWatcher(
+            XmlFileProcessor xmlFileProcessor,
+            String inputFilePath,
+            String outputFilePath,
+            long debounceMillis
+    ) throws IOException {
+        this.xmlFileProcessor = xmlFileProcessor;
+        this.inputFilePath = inputFilePath;
+        this.outputFilePath = outputFilePath;
+        this.debounceMillis = debounceMillis;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        registerAll(Paths.get(inputFilePath), null);
+    }
+
+    /**
+     * 감시를 시작한다. close 가 호출되거나 스레드가 인터럽트될 때까지 반환하지 않는다.
+     */
+    public void run() throws IOException {
+        Set<Path> changedPaths = new LinkedHashSet<>();
+        long firstChangedAt = 0;
+        long lastChangedAt = 0;
+        try {
+            while (true) {
+                WatchKey key;
+                if (changedPaths.isEmpty()) {
+                    key = watchService.take();
+                } else {
+                    long now = System.currentTimeMillis();
+                    long waitMillis = Math.min(
+                            lastChangedAt + debounceMillis - now,
+                            firstChangedAt + debounceMillis * MAX_DEBOUNCE_FACTOR - now
+                    );
+                    key = (waitMillis > 0) ? watchService.poll(waitMillis, TimeUnit.MILLISECONDS) : null;
+                }
+                if (key == null) {  // 대기 시간 동안 변경이 없으면 모아둔 변경을 변환한다.
+                    convertChangedPaths(changedPaths);
+                    changedPaths.clear();
+                    continue;
+                }
+                if (changedPaths.isEmpty()) {
+                    firstChangedAt = System.currentTimeMillis();
+                }
+                lastChangedAt = System.currentTimeMillis();
+                collectChangedPaths(key, changedPaths);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close 호출로 감시 종료
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    /**
+     * 감시 이벤트에서 바뀐 경로를 모은다.
+     * 새로 생긴 폴더는 감시 대상에 추가하고, 폴더 안에 이미 있는 파일들도 바뀐 경로로 추가한다.
+     * 이벤트를 처리하는 사이 삭제된 폴더 등 이벤트별 오류는 경고만 남기고 감시를 계속한다.
+     */
+    private void collectChangedPaths(WatchKey key, Set<Path> changedPaths) {
+        Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            try {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // 이벤트가 유실되었으므로 폴더 전체를 다시 확인한다.
+                    ConversionLog.warn("Watch events overflowed, rescanning: " + directory);
+                    registerAll(directory, changedPaths);
+                    continue;
+                }
+                Path changedPath = directory.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changedPath)) {
+                    registerAll(changedPath, changedPaths);
+                } else {
+                    changedPaths.add(changedPath);
+                }
+            } catch (IOException e) {
+                ConversionLog.warn("Failed to watch: " + directory.resolve(String.valueOf(event.context())) + " : " + e);
+            }
+        }
+        if (!key.reset()) { // 삭제된 폴더
+            watchedDirectories.remove(key);
+        }
+    }
+
+    /**
+     * 폴더와 하위 폴더를 모두 감시 대상에 추가한다.
+     *
+     * @param root         감시를 시작할 폴더
+     * @param changedPaths 폴더 안의 파일을 추가할 변경 목록 (null 일 경우 추가하지 않음)
+     */
+    private void registerAll(Path root, Set<Path> changedPaths) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!watchedDirectories.containsValue(dir)) {
+                    WatchKey key;
+                    try {
+                        key = dir.register(
+                                watchService,
+                                StandardWatchEventKinds.ENTRY_CREATE,
+                                StandardWatchEventKinds.ENTRY_MODIFY,
+                                StandardWatchEventKinds.ENTRY_DELETE
+                        );
+                    } catch (NoSuchFileException e) {
+                        return skipMissing(dir, e);
+                    }
+                    watchedDirectories.put(key, dir);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+                return skipMissing(file, e);
+            }
+
+            /**
+             * 탐색 중 삭제된 하위 경로는 건너뛴다. (삭제 이벤트로 따로 처리된다.)
+             */
+            private FileVisitResult skipMissing(Path path, IOException e) throws IOException {
+                if (path.equals(root) || !(e instanceof NoSuchFileException)) {
+                    throw e;
+                }
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (changedPaths != null) {
+                    changedPaths.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * 모아둔 변경 경로를 변환한다.
+     * 남아 있는 파일은 기존 변환 규칙으로 다시 변환하고, 삭제된 파일은 변환되어 있던 출력 파일을 삭제한다.
+     */
+    private void convertChangedPaths(Set<Path> changedPaths) {
+        List<File> changedFiles = new ArrayList<>();
+        for (Path changedPath : changedPaths) {
+            if (isInsideOutputFolder(changedPath)) {
+                continue;
+            }
+            if (!XmlFileProcessor.isTargetXmlFile(changedPath)) {
+                if (Files.notExists(changedPath)) {
+                    deleteConvertedFolder(changedPath);
+                }
+                continue;
+            }
+            if (Files.isRegularFile(changedPath)) {
+                changedFiles.add(changedPath.toFile());
+            } else if (Files.notExists(changedPath)) {
+                try {
+                    String deletedFilePath = xmlFileProcessor.deleteConvertedFile(changedPath.toFile(), inputFilePath, outputFilePath);
+                    if (deletedFilePath != null) {
+                        ConversionLog.info("Deleted: " + deletedFilePath);
+                    }
+                } catch (IOException e) {
+                    ConversionLog.error("Failed: " + changedPath, e);
+                }
+            }
+        }
+        if (changedFiles.isEmpty()) {
+            return;
+        }
+        // 파일별 실패는 변환 중 기록된다.
+        xmlFileProcessor.convertFiles(changedFiles, inputFilePath, outputFilePath);
+    }
+
+    /**
+     * 삭제된 폴더(컬렉션 폴더 등)에 대응하는 출력 폴더를 삭제한다.
+     */
+    private void deleteConvertedFolder(Path deletedPath) {
+        try {
+            int deletedCount = xmlFileProcessor.deleteConvertedFolder(deletedPath.toFile(), inputFilePath, outputFilePath);
+            if (deletedCount > 0) {
+                ConversionLog.info("Deleted: " + deletedPath + " (" + deletedCount + " files)");
+            }
+        } catch (IOException e) {
+            ConversionLog.error("Failed: " + deletedPath, e);
+        }
+    }
+
+    /**
+     * 출력 폴더가 감시 폴더 안에 있을 경우 변환 결과가 다시 변환되지 않도록 제외한다.
+     */
+    private boolean isInsideOutputFolder(Path changedPath) {
+        Path outputRoot = Paths.get(outputFilePath).toAbsolutePath().normalize();
+        return changedPath.toAbsolutePath().normalize().startsWith(outputRoot);
+    }
+
+    /**
+     * 실행 중인 스레드에서 감시를 시작한다. (Ctrl+C 로 종료)
+     *
+     * @param watcher 시작할 감시 객체
+     */
+    public static void runUntilShutdown(SettingWatcher watcher) throws IOException {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                ConversionLog.error("Failed to close watcher", e);
+            }
+        }));
+        watcher.run();
+    }
+}
@@ -0,0 +1,271 @@
+package com.diquest.ir.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 여러 사이트의 setting 폴더를 한 번의 실행(JVM)에서 변환하는 일괄 변환
+ * 사이트 목록 파일에 1줄에 1개 사이트씩 IR4_HOME, IR5_HOME, m4 setting 폴더, m5 setting 저장 폴더를 기록한다.
+ * 모든 사이트가 단계별 작업 스레드 풀, 변환 결과 캐시, 메모리 한도를 함께 사용하며, 지정한 수만큼의 사이트를 동시에 변환한다.
+ * 작업 스레드는 앞선 사이트의 변환이 끝나면 다음 사이트에서 다시 사용하므로, 스레드별 XML 파서도 사이트 간에 재사용된다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class SiteBatch {
+
+    private final List<Site> sites;
+    private final ConvertorOptions options;
+    private final XmlParserPool xmlParserPool;
+    private final ConversionCache conversionCache;
+    private final MemoryBudget memoryBudget;
+
+    /**
+     * @param sites   변환할 사이트 목록
+     * @param options 모든 사이트에 적용할 실행 옵션
+     * @throws IOException 캐시 폴더를 만들지 못했을 경우
+     */
+    public SiteBatch(List<Site> sites, ConvertorOptions options) throws IOException {
+        this.sites = new ArrayList<>(sites);
+        this.options = options;
+        this.xmlParserPool = options.createXmlParserPool();
+        this.conversionCache = options.createConversionCache();
+        // 동시에 변환하는 사이트들의 파일을 합쳐서 한도를 지키도록 한도를 하나만 만든다.
+        this.memoryBudget = new MemoryBudget(options.getMemoryBudgetBytes());
+    }
+
+    /**
+     * 사이트 목록 파일을 읽어온다.
+     * 빈 줄과 # 으로 시작하는 줄은 무시하며, 항목은 탭으로 구분한다. (탭이 없는 줄은 공백으로 구분)
+     *
+     * @param siteListFile 사이트 목록 파일
+     * @return 사이트 목록
+     * @throws IllegalArgumentException 항목 수가 맞지 않거나, 같은 저장 경로를 사용하는 사이트가 있을 경우
+     */
+    public static List<Site> loadSites(Path siteListFile) throws IOException {
+        List<Site> sites = new ArrayList<>();
+        Map<Path, Integer> outputLines = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(siteListFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = (trimmed.indexOf('\t') == -1) ? trimmed.split("\\s+") : trimmed.split("\\s*\t\\s*");
+                if (fields.length != 4) {
+                    throw new IllegalArgumentException(siteListFile + ":" + lineNumber
+                            + " 사이트 항목은 IR4_HOME, IR5_HOME, m4 setting 폴더, m5 setting 저장 폴더 4개여야 합니다: " + line);
+                }
+                Integer previousLine = outputLines.put(Paths.get(fields[3]).toAbsolutePath().normalize(), lineNumber);
+                if (previousLine != null) {
+                    throw new IllegalArgumentException(siteListFile + ":" + lineNumber
+                            + " " + previousLine + "번째 줄과 같은 저장 경로를 사용합니다: " + fields[3]);
+                }
+                sites.add(new Site(sites.size() + 1, fields[0], fields[1], fields[2], fields[3]));
+            }
+        }
+        if (sites.isEmpty()) {
+            throw new IllegalArgumentException("사이트 목록 파일에 변환할 사이트가 없습니다: " + siteListFile);
+        }
+        return sites;
+    }
+
+    /**
+     * 모든 사이트를 변환한다. 사이트별 오류는 다른 사이트의 변환을 중단하지 않는다.
+     * (메모리 부족 등의 Error 는 남은 사이트를 변환하지 않고 그대로 던진다.)
+     * 기다리는 도중 호출한 스레드가 인터럽트되면 변환 중인 사이트를 멈추고, 사이트별 작업 스레드가 모두 끝날 때까지 기다린 뒤
+     * 빈 목록을 반환한다. (호출한 스레드의 인터럽트 상태는 유지된다.)
+     *
+     * @param parallelSites 동시에 변환할 사이트 수
+     * @return 사이트별 변환 결과 (사이트 목록 순서)
+     */
+    public List<SiteResult> run(int parallelSites) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelSites, sites.size())),
+                runnable -> new Thread(runnable, "m5-convert-site-" + threadNumber.incrementAndGet()));
+        // 사이트별 파이프라인의 단계 작업은 서로를 기다리므로, 동시에 변환하는 사이트의 작업 수만큼 스레드를 만들 수 있는 풀을 사용한다.
+        AtomicInteger workerNumber = new AtomicInteger();
+        ExecutorService stageExecutor = Executors.newCachedThreadPool(
+                runnable -> new Thread(runnable, "m5-convert-worker-" + workerNumber.incrementAndGet()));
+        try {
+            List<Future<SiteResult>> futures = new ArrayList<>();
+            for (Site site : sites) {
+                futures.add(executor.submit(() -> convert(site, stageExecutor)));
+            }
+            List<SiteResult> results = new ArrayList<>();
+            for (int idx = 0; idx < futures.size(); idx++) {
+                try {
+                    results.add(futures.get(idx).get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();   // 메모리 부족 등은 남은 사이트를 변환하지 않고 멈춘다.
+                    }
+                    ConversionResult result = new ConversionResult();
+                    ConversionLog.failed(result.addFailure(Paths.get(sites.get(idx).getInputFilePath()).toFile(),
+                            (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e));
+                    results.add(new SiteResult(sites.get(idx), result, 0));
+                }
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ArrayList<>();
+        } finally {
+            // 사이트 스레드만 인터럽트한다. 사이트별 변환은 단계 작업을 멈추고 모두 끝날 때까지 기다린 뒤 반환하므로,
+            // 사이트 스레드가 모두 끝나면 단계 작업 스레드도 출력 파일과 저널을 기록하지 않는다.
+            executor.shutdownNow();
+            awaitTermination(executor);
+            stageExecutor.shutdown();
+        }
+    }
+
+    /**
+     * 사이트 스레드가 모두 끝날 때까지 기다린다. 기다리는 도중 인터럽트되어도 계속 기다린 뒤 인터럽트 상태를 되돌린다.
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private SiteResult convert(Site site, ExecutorService stageExecutor) {
+        XmlFileProcessor xmlFileProcessor = options.createXmlFileProcessor(
+                site.getIr4HomePath(), site.getIr5HomePath(), xmlParserPool, conversionCache);
+        xmlFileProcessor.setMemoryBudget(memoryBudget);
+        xmlFileProcessor.setStageExecutor(stageExecutor);
+        long startedAt = System.nanoTime();
+        ConversionResult result = xmlFileProcessor.convertSettingFiles(
+                site.getInputFilePath(), site.getOutputFilePath(), options.getWorkerCount());
+        return new SiteResult(site, result, System.nanoTime() - startedAt);
+    }
+
+    /**
+     * 사이트별 측정값 파일 경로를 가져온다. (파일명 확장자 앞에 "-사이트번호"를 붙인다.)
+     *
+     * @param metricsFilePath --metrics 로 지정한 파일 경로
+     * @param site            사이트
+     * @return 사이트별 측정값 파일 경로
+     */
+    public static Path getSiteMetricsPath(String metricsFilePath, Site site) {
+        Path metricsFile = Paths.get(metricsFilePath);
+        String fileName = metricsFile.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        String siteFileName = (extensionIndex <= 0)
+                ? fileName + "-" + site.getNumber()
+                : fileName.substring(0, extensionIndex) + "-" + site.getNumber() + fileName.substring(extensionIndex);
+        return metricsFile.resolveSibling(siteFileName);
+    }
+
+    /**
+     * 일괄 변환할 사이트 1개
+     */
+    public static class Site {
+
+        private final int number;
+        private final String ir4HomePath;
+        private final String ir5HomePath;
+        private final String inputFilePath;
+        private final String outputFilePath;
+
+        public Site(int number, String ir4HomePath, String ir5HomePath, String inputFilePath, String outputFilePath) {
+            this.number = number;
+            this.ir4HomePath = ir4HomePath;
+            this.ir5HomePath = ir5HomePath;
+            this.inputFilePath = inputFilePath;
+            this.outputFilePath = outputFilePath;
+        }
+
+        /**
+         * @return 사이트 목록에서의 순번 (1부터)
+         */
+        public int getNumber() {
+            return number;
+        }
+
+        public String getIr4HomePath() {
+            return ir4HomePath;
+        }
+
+        public String getIr5HomePath() {
+            return ir5HomePath;
+        }
+
+        public String getInputFilePath() {
+            return inputFilePath;
+        }
+
+        public String getOutputFilePath() {
+            return outputFilePath;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + number + " " + inputFilePath + " -> " + outputFilePath;
+        }
+    }
+
+    /**
+     * 사이트별 변환 결과
+     */
+    public static class SiteResult {
+
+        private final Site site;
+        private final ConversionResult result;
+        private final long elapsedNanos;
+
+        SiteResult(Site site, ConversionResult result, long elapsedNanos) {
+            this.site = site;
+            this.result = result;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public Site getSite() {
+            return site;
+        }
+
+        public ConversionResult getResult() {
+            return result;
+        }
+
+        /**
+         * @return 사이트 변환 소요시간 (ns)
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Site %s : processed %d, skipped %d, resumed %d, failed %d (%.1f s)",
+                    site, result.getProcessedCount(), result.getSkippedCount(), result.getResumedCount(),
+                    result.getFailures().size(), elapsedNanos / 1e9);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.diquest.ir.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * tar 압축 파일 읽기/쓰기 (POSIX ustar 형식)
+ * 긴 항목명은 PAX 확장 헤더(path)로 기록하고, 읽을 때는 PAX 확장 헤더와 GNU 긴 이름 항목(L)을 모두 해석한다.
+ * 일반 파일 외의 항목(폴더, 링크 등)은 건너뛴다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+final class TarArchive {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int NAME_LENGTH = 100;
+    private static final int PREFIX_LENGTH = 155;
+
+    private static final int NAME_OFFSET = 0;
+    private static final int MODE_OFFSET = 100;
+    private static final int UID_OFFSET = 108;
+    private static final int GID_OFFSET = 116;
+    private static final int SIZE_OFFSET = 124;
+    private static final int MTIME_OFFSET = 136;
+    private static final int CHECKSUM_OFFSET = 148;
+    private static final int TYPE_OFFSET = 156;
+    private static final int MAGIC_OFFSET = 257;
+    private static final int VERSION_OFFSET = 263;
+    private static final int PREFIX_OFFSET = 345;
+
+    private static final byte TYPE_REGULAR = '0';
+    private static final byte TYPE_REGULAR_OLD = 0;
+    private static final byte TYPE_CONTIGUOUS = '7';
+    private static final byte TYPE_PAX_HEADER = 'x';
+    private static final byte TYPE_GNU_LONG_NAME = 'L';
+
+    private static final byte[] USTAR_MAGIC = "ustar".getBytes(StandardCharsets.US_ASCII);
+    private static final String PAX_PATH = "path";
+
+    private TarArchive() {
+    }
+
+    /**
+     * tar 항목을 앞에서부터 순서대로 읽는다.
+     */
+    static final class Reader implements SettingArchive.EntryReader {
+
+        private final InputStream input;
+        private final byte[] header = new byte[BLOCK_SIZE];
+        /** 현재 항목에서 아직 읽지 않은 내용 크기 */
+        private long remaining;
+        /** 현재 항목 내용 뒤의 빈 공간 크기 */
+        private long padding;
+
+        Reader(InputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        public SettingArchive.Entry next() throws IOException {
+            String longName = null;
+            while (true) {
+                skipFully(remaining + padding);
+                remaining = 0;
+                padding = 0;
+                if (!readBlock(header) || isZeroBlock(header)) {
+                    return null;
+                }
+                verifyChecksum(header);
+                long size = parseNumber(header, SIZE_OFFSET, 12);
+                setCurrent(size);
+                byte type = header[TYPE_OFFSET];
+                if (type == TYPE_PAX_HEADER) {
+                    String paxPath = parsePaxPath(readContent());
+                    longName = (paxPath == null) ? longName : paxPath;
+                } else if (type == TYPE_GNU_LONG_NAME) {
+                    longName = trimNull(new String(readContent(), StandardCharsets.UTF_8));
+                } else if (type == TYPE_REGULAR || type == TYPE_REGULAR_OLD || type == TYPE_CONTIGUOUS) {
+                    String name = (longName == null) ? parseName(header) : longName;
+                    long lastModified = parseNumber(header, MTIME_OFFSET, 12) * 1000;
+                    return new SettingArchive.Entry(SettingArchive.checkEntryName(name), size, lastModified);
+                } else {
+                    // 폴더, 링크, 전역 PAX 헤더 등은 건너뛴다.
+                    longName = null;
+                }
+            }
+        }
+
+        @Override
+        public byte[] readContent() throws IOException {
+            byte[] content = SettingArchive.readContent(input, remaining);
+            remaining = 0;
+            return content;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+
+        private void setCurrent(long size) {
+            remaining = size;
+            padding = (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+        }
+
+        private boolean readBlock(byte[] block) throws IOException {
+            int offset = 0;
+            while (offset < block.length) {
+                int read = input.read(block, offset, block.length - offset);
+                if (read == -1) {
+                    if (offset == 0) {
+                        return false;   // 종료 블록 없이 끝난 경우
+                    }
+                    throw new IOException("tar 헤더가 잘렸습니다.");
+                }
+                offset += read;
+            }
+            return true;
+        }
+
+        private void skipFully(long count) throws IOException {
+            long left = count;
+            while (left > 0) {
+                long skipped = input.skip(left);
+                if (skipped <= 0) {
+                    if (input.read() == -1) {
+                        throw new IOException("tar 항목이 잘렸습니다.");
+                    }
+                    skipped = 1;
+                }
+                left -= skipped;
+            }
+        }
+    }
+
+    /**
+     * tar 항목을 순서대로 기록한다.
+     */
+    static final class Writer implements SettingArchive.EntryWriter {
+
+        private final OutputStream output;
+        private final Path tempFile;
+        private final Path archiveFile;
+        private final byte[] header = new byte[BLOCK_SIZE];
+
+        Writer(OutputStream output, Path tempFile, Path archiveFile) {
+            this.output = output;
+            this.tempFile = tempFile;
+            this.archiveFile = archiveFile;
+        }
+
+        @Override
+        public synchronized void write(String name, byte[] content, long lastModified) throws IOException {
+            long mtime = lastModified / 1000;
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            int split = findPrefixSplit(name, nameBytes);
+            if (split == -1) {
+                // ustar 헤더에 담을 수 없는 이름(길거나 ASCII 가 아닌 이름)은 PAX 확장 헤더로 기록한다.
+                byte[] paxContent = formatPaxRecord(PAX_PATH, name);
+                writeHeader(asciiName("PaxHeaders/" + Math.abs(name.hashCode())), null, paxContent.length, mtime, TYPE_PAX_HEADER);
+                writeContent(paxContent);
+                writeHeader(asciiName(name), null, content.length, mtime, TYPE_REGULAR);
+            } else if (split == 0) {
+                writeHeader(nameBytes, null, content.length, mtime, TYPE_REGULAR);
+            } else {
+                writeHeader(
+                        Arrays.copyOfRange(nameBytes, split + 1, nameBytes.length),
+                        Arrays.copyOfRange(nameBytes, 0, split),
+                        content.length, mtime, TYPE_REGULAR
+                );
+            }
+            writeContent(content);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                // 종료 블록 2개
+                output.write(new byte[BLOCK_SIZE * 2]);
+                output.close();
+                XmlFileWriter.moveIntoPlace(tempFile, archiveFile);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+
+        @Override
+        public synchronized void abort() throws IOException {
+            try {
+                output.close();
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+
+        private void writeHeader(byte[] name, byte[] prefix, long size, long mtime, byte type) throws IOException {
+            Arrays.fill(header, (byte) 0);
+            System.arraycopy(name, 0, header, NAME_OFFSET, Math.min(name.length, NAME_LENGTH));
+            formatOctal(0644, header, MODE_OFFSET, 8);
+            formatOctal(0, header, UID_OFFSET, 8);
+            formatOctal(0, header, GID_OFFSET, 8);
+            formatOctal(size, header, SIZE_OFFSET, 12);
+            formatOctal(mtime, header, MTIME_OFFSET, 12);
+            header[TYPE_OFFSET] = type;
+            System.arraycopy(USTAR_MAGIC, 0, header, MAGIC_OFFSET, USTAR_MAGIC.length);
+            header[VERSION_OFFSET] = '0';
+            header[VERSION_OFFSET + 1] = '0';
+            if (prefix != null) {
+                System.arraycopy(prefix, 0, header, PREFIX_OFFSET, prefix.length);
+            }
+            // 체크섬은 체크섬 칸을 공백으로 채운 상태에서 계산하여 6자리 8진수 + NUL + 공백으로 기록한다.
+            Arrays.fill(header, CHECKSUM_OFFSET, CHECKSUM_OFFSET + 8, (byte) ' ');
+            formatOctal(checksum(header), header, CHECKSUM_OFFSET, 7);
+            output.write(header);
+        }
+
+        private void writeContent(byte[] content) throws IOException {
+            output.write(content);
+            int padding = (BLOCK_SIZE - content.length % BLOCK_SIZE) % BLOCK_SIZE;
+            if (padding > 0) {
+                output.write(new byte[padding]);
+            }
+        }
+    }
+
+    /**
+     * ustar 헤더의 이름(100 byte)과 접두어(155 byte)로 나눌 위치를 찾는다.
+     *
+     * @return 0: 이름 칸에 모두 들어감, 양수: 접두어와 이름을 나눌 "/" 위치, -1: ustar 헤더에 담을 수 없음
+     */
+    private static int findPrefixSplit(String name, byte[] nameBytes) {
+        if (nameBytes.length != name.length()) {
+            return -1;  // ASCII 가 아닌 이름
+        }
+        if (nameBytes.length <= NAME_LENGTH) {
+            return 0;
+        }
+        for (int idx = nameBytes.length - 1; idx > 0; idx--) {
+            if (nameBytes[idx] == '/' && idx <= PREFIX_LENGTH && nameBytes.length - idx - 1 <= NAME_LENGTH) {
+                return idx;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * PAX 확장 헤더 레코드를 만든다. ("길이 키=값\n", 길이는 레코드 전체 byte 수)
+     */
+    private static byte[] formatPaxRecord(String key, String value) {
+        int bodyLength = (" " + key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8).length;
+        int length = bodyLength + 1;
+        while (length != bodyLength + String.valueOf(length).length()) {
+            length = bodyLength + String.valueOf(length).length();
+        }
+        return (length + " " + key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * PAX 확장 헤더에서 path 값을 찾는다.
+     *
+     * @return path 값 (없을 경우 null)
+     */
+    private static String parsePaxPath(byte[] content) throws IOException {
+        String path = null;
+        int offset = 0;
+        while (offset < content.length) {
+            int space = offset;
+            while (space < content.length && content[space] != ' ') {
+                space++;
+            }
+            int length;
+            try {
+                length = Integer.parseInt(new String(content, offset, space - offset, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                throw new IOException("잘못된 PAX 확장 헤더입니다.", e);
+            }
+            if (length <= 0 || offset + length > content.length) {
+                throw new IOException("잘못된 PAX 확장 헤더입니다.");
+            }
+            // "키=값\n"
+            String record = new String(content, space + 1, offset + length - space - 2, StandardCharsets.UTF_8);
+            int equalIndex = record.indexOf('=');
+            if (equalIndex != -1 && PAX_PATH.equals(record.substring(0, equalIndex))) {
+                path = record.substring(equalIndex + 1);
+            }
+            offset += length;
+        }
+        return path;
+    }
+
+    private static String parseName(byte[] header) {
+        String name = parseString(header, NAME_OFFSET, NAME_LENGTH);
+        boolean ustar = true;
+        for (int idx = 0; idx < USTAR_MAGIC.length; idx++) {
+            ustar &= header[MAGIC_OFFSET + idx] == USTAR_MAGIC[idx];
+        }
+        String prefix = ustar ? parseString(header, PREFIX_OFFSET, PREFIX_LENGTH) : "";
+        return prefix.isEmpty() ? name : prefix + "/" + name;
+    }
+
+    private static String parseString(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 숫자 칸을 읽는다. (8진수 문자열, 또는 첫 byte 최상위 비트가 켜진 GNU 2진수 형식)
+     */
+    private static long parseNumber(byte[] header, int offset, int length) throws IOException {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7F;
+            for (int idx = offset + 1; idx < offset + length; idx++) {
+                value = (value << 8) | (header[idx] & 0xFF);
+            }
+            return value;
+        }
+        int idx = offset;
+        int end = offset + length;
+        while (idx < end && (header[idx] == ' ' || header[idx] == 0)) {
+            idx++;  // 앞쪽 공백
+        }
+        long value = 0;
+        for (; idx < end && header[idx] != 0 && header[idx] != ' '; idx++) {
+            byte digit = header[idx];
+            if (digit < '0' || digit > '7') {
+                throw new IOException("잘못된 tar 헤더입니다.");
+            }
+            value = (value << 3) + (digit - '0');
+        }
+        return value;
+    }
+
+    private static void formatOctal(long value, byte[] header, int offset, int length) {
+        // length - 1 자리 8진수 + NUL
+        String octal = Long.toOctalString(value);
+        int digits = length - 1;
+        for (int idx = 0; idx < digits; idx++) {
+            int octalIndex = octal.length() - digits + idx;
+            header[offset + idx] = (byte) ((octalIndex < 0) ? '0' : octal.charAt(octalIndex));
+        }
+        header[offset + digits] = 0;
+    }
+
+    private static void verifyChecksum(byte[] header) throws IOException {
+        long expected = parseNumber(header, CHECKSUM_OFFSET, 8);
+        byte[] copy = header.clone();
+        Arrays.fill(copy, CHECKSUM_OFFSET, CHECKSUM_OFFSET + 8, (byte) ' ');
+        if (checksum(copy) != expected) {
+            throw new IOException("tar 헤더 체크섬이 맞지 않습니다.");
+        }
+    }
+
+    private static long checksum(byte[] header) {
+        long sum = 0;
+        for (byte value : header) {
+            sum += value & 0xFF;
+        }
+        return sum;
+    }
+
+    private static boolean isZeroBlock(byte[] block) {
+        for (byte value : block) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String trimNull(String value) {
+        int end = value.indexOf('\0');
+        return (end == -1) ? value : value.substring(0, end);
+    }
+
+    /**
+     * PAX 확장 헤더를 사용하는 항목의 ustar 이름 칸에는 ASCII 로 바꾼 이름을 넣는다. (PAX 를 모르는 도구용)
+     */
+    private static byte[] asciiName(String name) {
+        byte[] bytes = new byte[Math.min(name.length(), NAME_LENGTH)];
+        for (int idx = 0; idx < bytes.length; idx++) {
+            char value = name.charAt(name.length() - bytes.length + idx);
+            bytes[idx] = (byte) ((value < 0x80) ? value : '_');
+        }
+        return bytes;
+    }
+}
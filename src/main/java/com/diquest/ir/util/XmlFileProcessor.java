@@ -1,41 +1,192 @@
 package com.diquest.ir.util;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.sax.SAXSource;
 
-import com.diquest.ir5.common.msg.collection.CollectionType;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 /**
  * Mariner4 세팅 xml 파일을 읽어와 m5 세팅 파일로 저장 처리하는 클래스
+ * 폴더/압축 파일 변환 외에, 파일시스템 없이 메모리의 설정 파일 내용을 변환하는 API(convert, convertAll)를 제공한다.
+ * 설정(setter)을 마친 뒤에는 여러 스레드에서 동시에 변환을 호출할 수 있다.
  *
  * @version 1.0
  * @since 2025-02-25
  */
 public class XmlFileProcessor {
 
+    /** 변환 규칙 버전 (변환 규칙이 바뀌면 올려서 증분 변환 시 모든 파일을 다시 변환하도록 한다.) */
+    public static final String CONVERTER_VERSION = "1.0";
+    /** DOM 변환 시 dbwatcher 설정 파일을 스트리밍으로 변환하는 기본 크기 기준 (byte) */
+    public static final long DEFAULT_STREAMING_THRESHOLD_BYTES = 1024L * 1024;
+    /** DOM 으로 변환할 때 예상 사용 메모리 (파일 크기 대비 배수, DOM 트리와 직렬화 결과 포함) */
+    private static final int DOM_MEMORY_FACTOR = 10;
+    /** 스트리밍으로 변환할 때 예상 사용 메모리 (파일 크기 대비 배수, 모아둔 SQL 내용과 Transformer 의 문자 버퍼, 직렬화 버퍼, 변환 결과 포함) */
+    private static final int STREAM_MEMORY_FACTOR = 6;
+    /** 변환 결과 캐시를 사용할 때 추가로 사용하는 메모리 (파일 크기 대비 배수, 정규화된 내용과 id 값을 넣은 변환 결과) */
+    private static final int CACHE_MEMORY_FACTOR = 2;
+    /** convertAll 작업 스레드가 쉬는 동안 유지되는 시간 (초) */
+    private static final long BATCH_THREAD_KEEP_ALIVE_SECONDS = 60;
+
     private final String ir4HomePath;
     private final String ir5HomePath;
+    private final XmlParserPool xmlParserPool;
+    private final XmlFileReader xmlFileReader = new XmlFileReader();
+    private boolean streamingDbWatcher = true;
+    private long streamingThresholdBytes = DEFAULT_STREAMING_THRESHOLD_BYTES;
+    private long memoryBudgetBytes;
+    private MemoryBudget memoryBudget;
+    private Executor stageExecutor;
+    private boolean incremental;
+    private boolean resume;
+    private long progressIntervalMillis;
+    private PassThroughCopier passThroughCopier = new PassThroughCopier(false);
+    private ConversionCache conversionCache;
+    private volatile String cacheParameters;
+    private ExecutorService batchExecutor;
 
     public XmlFileProcessor(String ir4HomePath, String ir5HomePath) {
+        this(ir4HomePath, ir5HomePath, XmlParserPool.shared());
+    }
+
+    public XmlFileProcessor(String ir4HomePath, String ir5HomePath, XmlParserPool xmlParserPool) {
         this.ir4HomePath = ir4HomePath;
         this.ir5HomePath = ir5HomePath;
+        this.xmlParserPool = xmlParserPool;
+    }
+
+    /**
+     * dbwatcher SQL 설정 파일을 스트리밍으로 변환할지 설정한다. (기본값 true)
+     * false 일 경우 다른 설정 파일과 같이 DOM 으로 읽어 변환한다.
+     *
+     * @param streamingDbWatcher 스트리밍 변환 여부
+     */
+    public void setStreamingDbWatcher(boolean streamingDbWatcher) {
+        this.streamingDbWatcher = streamingDbWatcher;
+        this.cacheParameters = null;
+    }
+
+    /**
+     * 큰 dbwatcher 설정 파일의 크기 기준을 설정한다. (기본값 1MB)
+     * 이 크기 이상인 파일은 DOM 변환 시(setStreamingDbWatcher(false))에도 DOM 트리를 만들지 않고 스트리밍으로 변환하며,
+     * 변환 결과 캐시를 사용하지 않는다.
+     *
+     * @param streamingThresholdBytes 크기 기준 (byte)
+     */
+    public void setStreamingThresholdBytes(long streamingThresholdBytes) {
+        this.streamingThresholdBytes = streamingThresholdBytes;
+    }
+
+    /**
+     * 폴더/압축 파일 변환 시 동시에 처리 중인 파일들이 사용할 메모리 한도를 설정한다. (기본값 0: 최대 힙 크기의 절반)
+     * 파일 크기로 예상한 메모리가 한도를 넘으면 앞선 파일의 저장이 끝날 때까지 다음 파일을 읽지 않는다.
+     *
+     * @param memoryBudgetBytes 메모리 한도 (byte)
+     */
+    public synchronized void setMemoryBudgetBytes(long memoryBudgetBytes) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.memoryBudget = null;
+    }
+
+    /**
+     * 다른 XmlFileProcessor 와 메모리 한도를 함께 사용하도록 설정한다. (여러 사이트 일괄 변환)
+     *
+     * @param memoryBudget 함께 사용할 메모리 한도
+     */
+    synchronized void setMemoryBudget(MemoryBudget memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * 폴더/압축 파일 변환의 단계별 작업을 다른 XmlFileProcessor 와 같은 스레드 풀에서 실행하도록 설정한다. (여러 사이트 일괄 변환)
+     * 지정하지 않으면 변환할 때마다 단계별 작업 스레드를 새로 만든다.
+     *
+     * @param stageExecutor 단계별 작업을 실행할 Executor (동시에 실행할 모든 작업 수만큼 스레드를 만들 수 있어야 한다.)
+     */
+    void setStageExecutor(Executor stageExecutor) {
+        this.stageExecutor = stageExecutor;
+    }
+
+    /**
+     * 증분 변환 여부를 설정한다. (기본값 false)
+     * true 일 경우 출력 폴더의 매니페스트와 비교하여 이전 실행 이후 바뀌지 않은 파일은 건너뛰고,
+     * 원본이 삭제된 출력 파일은 정리한다.
+     *
+     * @param incremental 증분 변환 여부
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * 중단된 이전 변환을 이어서 할지 설정한다. (기본값 false)
+     * 폴더에 저장할 때는 이 설정과 관계없이 변환을 마친 파일을 출력 폴더의 저널에 기록하며, true 일 경우 저널에 기록된 파일 중
+     * 원본이 바뀌지 않고 출력 파일이 남아 있는 파일은 건너뛰고, 중단된 실행이 남긴 임시 파일을 삭제한다.
+     *
+     * @param resume 이어서 변환할지 여부
+     */
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    /**
+     * 변환 중 진행 상황(처리 건수, 초당 처리량, 남은 시간)을 출력할 주기를 설정한다. (기본값 0: 출력하지 않음)
+     *
+     * @param progressIntervalMillis 출력 주기 (ms)
+     */
+    public void setProgressIntervalMillis(long progressIntervalMillis) {
+        this.progressIntervalMillis = progressIntervalMillis;
+    }
+
+    /**
+     * 그대로 복사하는 파일(collectionList.xml, profileSetting.xml)에 하드 링크를 사용할지 설정한다. (기본값 false)
+     * 원본과 대상이 같은 파일시스템에 있을 때만 하드 링크를 만들고, 만들 수 없으면 복사한다.
+     * 하드 링크는 원본과 내용을 공유하므로 변환된 파일을 수정하면 원본도 바뀐다.
+     *
+     * @param hardLinkPassThrough 하드 링크 사용 여부
+     */
+    public void setHardLinkPassThrough(boolean hardLinkPassThrough) {
+        this.passThroughCopier = new PassThroughCopier(hardLinkPassThrough);
+    }
+
+    /**
+     * dbwatcher 설정 파일 변환 결과 캐시를 설정한다. (기본값 null: 사용하지 않음)
+     * id 값을 제외한 내용이 같은 dbwatcher 설정 파일은 한 번만 변환하고, 이후에는 캐시된 결과에
+     * 파일별 id 값(대문자)만 바꾸어 저장한다. 저장 파일명의 대문자 변환은 캐시와 관계없이 파일별로 처리한다.
+     *
+     * @param conversionCache 변환 결과 캐시
+     */
+    public void setConversionCache(ConversionCache conversionCache) {
+        this.conversionCache = conversionCache;
     }
 
     /**
@@ -43,50 +194,490 @@ public class XmlFileProcessor {
      *
      * @param inputFilePath     기존 XML 파일이 있는 폴더 경로
      * @param outputFilePath    출력 파일 경로
+     * @return 변환 결과
+     * */
+    public ConversionResult convertSettingFiles(String inputFilePath, String outputFilePath) {
+        return convertSettingFiles(inputFilePath, outputFilePath, 1);
+    }
+
+    /**
+     * 기존 m4 세팅을 가져와 m5 세팅으로 변경하는 메인 함수
+     * 파일 탐색 → 읽기(파싱) → 변환 → 저장 단계를 파이프라인으로 연결하여, 읽기/변환/저장 단계를
+     * 각각 workerCount 개의 스레드에서 동시에 처리한다. 탐색 중 찾은 파일부터 바로 변환한다.
+     * 작업은 컬렉션 폴더 단위가 아니라 파일 단위로 나누므로, dbwatcher 파일이 많은 컬렉션 하나가 한 스레드에 몰리지 않는다.
+     * (workerCount 가 1 이어도 단계별 스레드는 따로 실행되지만, 파일별 변환 결과는 순서대로 1건씩 변환한 결과와 같다.)
+     * 파일별 오류는 변환을 중단하지 않고 결과에 모아서 반환한다.
+     * 입력/출력 경로가 압축 파일(.zip, .tar, .tar.gz, .tgz)이면 압축을 풀지 않고 항목을 바로 읽고 기록한다.
+     * 압축 파일 입출력은 매번 전체를 다시 만들므로 증분 변환을 하지 않는다. 변환하지 못한 파일이 있으면 출력 압축 파일은 만들지 않는다.
+     * 폴더에 저장할 때는 변환을 마친 파일을 저널에 기록하여, 중단되면 setResume(true) 로 남은 파일만 변환할 수 있다.
+     *
+     * @param inputFilePath     기존 XML 파일이 있는 폴더 또는 압축 파일 경로
+     * @param outputFilePath    출력 폴더 또는 압축 파일 경로
+     * @param workerCount       단계별 작업 스레드 수 (1 이하일 경우 단계별 1개)
+     * @return 변환 결과
      * */
-    public void convertSettingFiles(String inputFilePath, String outputFilePath) {
+    public ConversionResult convertSettingFiles(String inputFilePath, String outputFilePath, int workerCount) {
+        ConversionResult result = new ConversionResult();
+        boolean archiveInput = SettingArchive.isArchiveInput(inputFilePath);
+        boolean archiveOutput = SettingArchive.isArchiveOutput(outputFilePath);
+        ConversionManifest manifest = null;
+        if (incremental && (archiveInput || archiveOutput)) {
+            ConversionLog.warn("압축 파일 입출력에서는 증분 변환을 하지 않고 모든 파일을 변환합니다.");
+        } else if (incremental) {
+            try {
+                manifest = ConversionManifest.load(inputFilePath, outputFilePath, CONVERTER_VERSION, ir4HomePath, ir5HomePath);
+            } catch (IOException e) {
+                ConversionLog.failed(result.addFailure(new File(inputFilePath), e));
+                return result;
+            }
+        }
+
+        ConversionJournal journal = null;
+        if (resume && archiveOutput) {
+            ConversionLog.warn("압축 파일 출력에서는 이어서 변환하지 않고 모든 파일을 변환합니다.");
+        } else if (!archiveOutput) {
+            try {
+                journal = ConversionJournal.open(inputFilePath, outputFilePath, CONVERTER_VERSION, ir4HomePath, ir5HomePath, resume);
+            } catch (IOException e) {
+                ConversionLog.failed(result.addFailure(new File(outputFilePath, ConversionJournal.JOURNAL_FILE_NAME), e));
+                return result;
+            }
+        }
+
+        SettingArchive.EntryWriter archiveWriter = null;
+        if (archiveOutput) {
+            try {
+                archiveWriter = SettingArchive.openWriter(Paths.get(outputFilePath));
+            } catch (IOException e) {
+                ConversionLog.failed(result.addFailure(new File(outputFilePath), e));
+                return result;
+            }
+        }
+
+        ConversionMetrics metrics = result.getMetrics();
+        ScheduledExecutorService progress = (progressIntervalMillis > 0) ? metrics.startProgress(progressIntervalMillis) : null;
+        ConversionPipeline pipeline = new ConversionPipeline(
+                this, inputFilePath, outputFilePath, manifest, journal, result, workerCount, archiveInput, archiveWriter, stageExecutor);
+        boolean pipelineFinished = false;
         try {
-            List<File> xmlFiles = getXmlFiles(inputFilePath);
-            for (File xmlFile : xmlFiles) {
-                saveConvertedSettingFile(xmlFile, inputFilePath, outputFilePath);
+            pipeline.run();
+            pipelineFinished = true;
+        } finally {
+            if (progress != null) {
+                progress.shutdownNow();
+                ConversionLog.info(metrics.formatProgress());
+            }
+            if (archiveWriter != null) {
+                // 모든 파일을 오류 없이 기록했으면 압축 파일을 대상 경로로 옮기고,
+                // 일부만 기록했으면 이전 실행에서 만든 압축 파일을 덮어쓰지 않도록 기록을 취소한다.
+                // 저장 경로가 겹쳐 건너뛴 항목은 파일별 실패로만 기록하고 압축 파일은 그대로 만든다.
+                try {
+                    boolean allWritten = result.getFailures().size() == pipeline.getRejectedOutputCount();
+                    if (pipelineFinished && pipeline.isWalkCompleted() && allWritten && !Thread.currentThread().isInterrupted()) {
+                        archiveWriter.close();
+                    } else {
+                        archiveWriter.abort();
+                        ConversionLog.warn("변환하지 못한 파일이 있어 압축 파일을 만들지 않았습니다: " + outputFilePath);
+                    }
+                } catch (IOException e) {
+                    ConversionLog.failed(result.addFailure(new File(outputFilePath), e));
+                }
             }
-        } catch (IOException | ParserConfigurationException | SAXException e) {
-            e.printStackTrace();
         }
+
+        if (manifest != null) {
+            // 원본이 삭제된 출력 파일을 정리하고, 다음 실행을 위해 매니페스트를 저장한다.
+            // 탐색이 끝까지 진행되지 않았으면 찾지 못한 파일을 삭제된 것으로 볼 수 없으므로 정리하지 않는다.
+            try {
+                if (pipeline.isWalkCompleted() && !Thread.currentThread().isInterrupted()) {
+                    result.addPruned(manifest.prune());
+                } else {
+                    ConversionLog.warn("파일 탐색을 마치지 못하여 삭제된 원본의 출력 파일을 정리하지 않습니다.");
+                    manifest.keepUnseen();
+                }
+                manifest.save();
+            } catch (IOException e) {
+                ConversionLog.failed(result.addFailure(new File(outputFilePath, ConversionManifest.MANIFEST_FILE_NAME), e));
+            }
+        }
+        if (journal != null) {
+            // 모든 파일을 변환했으면 저널을 삭제하고, 실패하거나 중단된 파일이 있으면 다음 --resume 을 위해 남겨둔다.
+            try {
+                journal.close(!result.hasFailures() && !Thread.currentThread().isInterrupted());
+            } catch (IOException e) {
+                ConversionLog.failed(result.addFailure(new File(outputFilePath, ConversionJournal.JOURNAL_FILE_NAME), e));
+            }
+        }
+        metrics.finish();
+        return result;
+    }
+
+    /**
+     * 지정한 파일들만 순서대로 변환한다. (변경 감시 등 일부 파일만 다시 변환할 때 사용)
+     *
+     * @param xmlFiles  변환 대상 파일 목록
+     * @param inputFilePath     기존 XML 파일이 있는 폴더 경로
+     * @param outputFilePath    출력 파일 경로
+     * @return 변환 결과
+     * */
+    public ConversionResult convertFiles(List<File> xmlFiles, String inputFilePath, String outputFilePath) {
+        ConversionResult result = new ConversionResult();
+        ConversionMetrics metrics = result.getMetrics();
+        for (File xmlFile : xmlFiles) {
+            SettingFileTask task = new SettingFileTask(xmlFile);
+            metrics.addDiscovered();
+            try {
+                String savedFilePath = saveConvertedSettingFile(task, inputFilePath, outputFilePath);
+                metrics.recordFinished(task, (savedFilePath == null) ? ConversionMetrics.FileType.SKIPPED : getFileType(xmlFile));
+                result.addProcessed();
+            } catch (InterruptedException e) {
+                // 같은 내용을 변환 중인 다른 작업을 기다리다 인터럽트되었으면 남은 파일은 변환하지 않는다.
+                Thread.currentThread().interrupt();
+                metrics.recordFailure(task);
+                ConversionLog.failed(result.addFailure(task, e));
+                break;
+            } catch (Exception e) {
+                metrics.recordFailure(task);
+                ConversionLog.failed(result.addFailure(task, e));
+            } finally {
+                task.releaseParsed();
+            }
+        }
+        metrics.walkFinished();
+        metrics.finish();
+        return result;
+    }
+
+    /**
+     * 메모리에 있는 설정 파일 1건을 변환한다. 파일시스템에는 접근하지 않는다.
+     * 저장 경로 규칙(dbwatcher 파일명 대문자 변환 등)은 폴더 변환과 같으며, 논리 경로에 적용된다.
+     *
+     * @param settingPath   setting 폴더 기준 논리 경로 ("/" 구분, 예: COLLECTION_NAME/dbwatcher/watcher.xml)
+     * @param content   파일 내용
+     * @return 변환된 설정 파일 (변환 대상이 아닐 경우 null, 그대로 복사하는 파일은 원본 내용을 그대로 돌려준다.)
+     * @throws SettingConversionException 파일 내용을 해석하거나 변환하지 못했을 경우, 경로가 setting 폴더 밖을 가리킬 경우
+     * */
+    public ConvertedSetting convert(String settingPath, byte[] content) throws SettingConversionException {
+        String normalizedPath;
+        try {
+            normalizedPath = SettingArchive.checkEntryName(settingPath);
+        } catch (SettingArchive.UnsafeEntryException e) {
+            throw new SettingConversionException(settingPath, e);
+        }
+        File xmlFile = new File(MEMORY_INPUT_ROOT, normalizedPath);
+        if (!isTargetXmlFile(xmlFile)) {
+            return null;
+        }
+        SettingFileTask task = new SettingFileTask(xmlFile);
+        task.setSourceContent(content, 0);
+        try {
+            parseSettingFile(task);
+            transformSettingFile(task, MEMORY_INPUT_ROOT, MEMORY_OUTPUT_ROOT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SettingConversionException(normalizedPath, e);
+        } catch (Exception e) {
+            throw new SettingConversionException(normalizedPath, e);
+        } finally {
+            task.releaseParsed();   // 변환하지 못했으면 선점한 캐시 키를 푼다.
+        }
+        String saveFilePath = task.getSaveFilePath();
+        if (saveFilePath == null) {
+            return null;
+        }
+        byte[] convertedContent = (task.getConvertedContent() == null) ? content : task.getConvertedContent();
+        return new ConvertedSetting(
+                normalizedPath, toRelativePath(saveFilePath, MEMORY_OUTPUT_ROOT), convertedContent, getFileType(xmlFile));
+    }
+
+    /**
+     * 스트림으로 전달된 설정 파일 1건을 변환한다. 스트림은 끝까지 읽되 닫지 않는다.
+     *
+     * @param settingPath   setting 폴더 기준 논리 경로 ("/" 구분)
+     * @param input 파일 내용 스트림
+     * @return 변환된 설정 파일 (변환 대상이 아닐 경우 null)
+     * @throws IOException 스트림을 읽지 못했을 경우
+     * @throws SettingConversionException 파일 내용을 해석하거나 변환하지 못했을 경우
+     * */
+    public ConvertedSetting convert(String settingPath, InputStream input) throws IOException, SettingConversionException {
+        return convert(settingPath, SettingArchive.readContent(input, -1));
+    }
+
+    /**
+     * 메모리에 있는 설정 파일들을 workerCount 개의 스레드에서 나누어 변환한다.
+     * 작업 스레드는 이 XmlFileProcessor 가 가진 스레드 풀에서 가져오므로, 여러 번 호출해도 스레드별 XML 파서를 다시 사용한다.
+     * (풀의 스레드는 데몬 스레드이며 1분 동안 쓰이지 않으면 종료된다.)
+     * 파일별 오류는 변환을 중단하지 않고 결과에 모아서 반환한다.
+     * 기다리는 도중 호출한 스레드가 인터럽트되면 남은 파일은 변환하지 않고 작업 스레드가 모두 끝날 때까지 기다린 뒤,
+     * 그때까지 변환한 파일만 담아 반환한다. (호출한 스레드의 인터럽트 상태는 유지된다.)
+     * 작업 중 메모리 부족(OutOfMemoryError) 등의 Error 가 발생하면 남은 파일은 변환하지 않고 모두 끝난 뒤 그 Error 를 던진다.
+     *
+     * @param documents 변환할 설정 파일 목록
+     * @param workerCount   작업 스레드 수 (1 이하일 경우 호출한 스레드에서 변환)
+     * @return 변환 결과 (요청 순서)
+     * */
+    public SettingBatchResult convertAll(List<SettingDocument> documents, int workerCount) {
+        int documentCount = documents.size();
+        ConvertedSetting[] converted = new ConvertedSetting[documentCount];
+        SettingConversionException[] failures = new SettingConversionException[documentCount];
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicReference<Error> fatalError = new AtomicReference<>();
+        Runnable worker = () -> {
+            int idx;
+            while (!stopped.get() && !Thread.currentThread().isInterrupted()
+                    && (idx = nextIndex.getAndIncrement()) < documentCount) {
+                SettingDocument document = documents.get(idx);
+                try {
+                    converted[idx] = convert(document.getPath(), document.getContent());
+                } catch (SettingConversionException e) {
+                    failures[idx] = e;
+                } catch (Error e) {
+                    // 메모리 부족 등은 다음 파일에서도 반복되므로 다른 작업 스레드도 멈춘다.
+                    fatalError.compareAndSet(null, e);
+                    stopped.set(true);
+                }
+            }
+        };
+
+        int threadCount = Math.min(workerCount, documentCount);
+        if (threadCount <= 1) {
+            worker.run();
+        } else {
+            Executor executor = getBatchExecutor();
+            CountDownLatch finished = new CountDownLatch(threadCount);
+            for (int idx = 0; idx < threadCount; idx++) {
+                executor.execute(() -> {
+                    try {
+                        worker.run();
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+            }
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    finished.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // 작업 스레드가 결과를 기록하는 도중에 반환하지 않도록, 멈추게 한 뒤 끝날 때까지 기다린다.
+                    // 풀의 스레드는 다른 호출에서도 사용하므로 인터럽트하지 않고 다음 파일을 꺼내지 않게 한다.
+                    interrupted = true;
+                    stopped.set(true);
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (fatalError.get() != null) {
+            throw fatalError.get();
+        }
+
+        List<ConvertedSetting> convertedList = new ArrayList<>(documentCount);
+        List<SettingConversionException> failureList = new ArrayList<>();
+        for (int idx = 0; idx < documentCount; idx++) {
+            if (converted[idx] != null) {
+                convertedList.add(converted[idx]);
+            } else if (failures[idx] != null) {
+                failureList.add(failures[idx]);
+            }
+        }
+        return new SettingBatchResult(convertedList, failureList);
+    }
+
+    /**
+     * 원본 파일이 삭제되었을 때 변환되어 있던 출력 파일을 삭제한다.
+     *
+     * @param xmlFile   삭제된 원본 파일
+     * @param inputFilePath     기존 XML 파일이 있는 폴더 경로
+     * @param outputFilePath    출력 파일 경로
+     * @return 삭제한 출력 파일 경로 (삭제할 파일이 없었을 경우 null)
+     * */
+    public String deleteConvertedFile(File xmlFile, String inputFilePath, String outputFilePath) throws IOException {
+        String saveFilePath = resolveSaveFilePath(xmlFile, inputFilePath, outputFilePath);
+        if (saveFilePath != null && Files.deleteIfExists(Paths.get(saveFilePath))) {
+            return saveFilePath;
+        }
+        return null;
+    }
+
+    /**
+     * 원본 폴더가 삭제되었을 때 대응하는 출력 폴더와 그 안의 출력 파일을 삭제한다.
+     * 출력 폴더 밖의 경로나 출력 폴더 자체는 삭제하지 않는다.
+     *
+     * @param directory 삭제된 원본 폴더
+     * @param inputFilePath     기존 XML 파일이 있는 폴더 경로
+     * @param outputFilePath    출력 파일 경로
+     * @return 삭제한 출력 파일 수
+     * */
+    public int deleteConvertedFolder(File directory, String inputFilePath, String outputFilePath) throws IOException {
+        Path outputRoot = Paths.get(outputFilePath).toAbsolutePath().normalize();
+        Path outputDirectory = Paths.get(directory.getPath().replace(inputFilePath, outputFilePath)).toAbsolutePath().normalize();
+        if (outputDirectory.equals(outputRoot) || !outputDirectory.startsWith(outputRoot) || !Files.isDirectory(outputDirectory)) {
+            return 0;
+        }
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(outputDirectory)) {
+            paths = walk.collect(Collectors.toList());
+        }
+        // 하위 경로부터 삭제한다.
+        int deletedCount = 0;
+        for (int idx = paths.size() - 1; idx >= 0; idx--) {
+            Path path = paths.get(idx);
+            boolean regularFile = Files.isRegularFile(path);
+            if (Files.deleteIfExists(path) && regularFile) {
+                deletedCount++;
+            }
+        }
+        return deletedCount;
     }
 
     /**
      * 변경할 XML 파일을 체크 및 변경작업 후 저장한다.
      *
-     * @param xmlFile   변경 대상 설정 XML 파일
+     * @param task  변환 작업 (변경 대상 설정 XML 파일, 단계별 소요시간을 기록한다.)
      * @param inputFilePath 기존 XML 파일이 있던 setting 폴더 경로
      * @param outputFilePath    새로 생성될 XML 파일이 저장될 setting 폴더 경로
+     * @return 저장한 파일 경로 (저장 대상이 아니었을 경우 null)
      * */
-    private void saveConvertedSettingFile(
-            File xmlFile,
+    private String saveConvertedSettingFile(
+            SettingFileTask task,
             String inputFilePath,
             String outputFilePath
-    ) throws ParserConfigurationException, IOException, SAXException {
+    ) throws ParserConfigurationException, IOException, SAXException, TransformerException, InterruptedException {
+        parseSettingFile(task);
+        transformSettingFile(task, inputFilePath, outputFilePath);
+        return writeSettingFile(task);
+    }
+
+    /**
+     * 변환 대상 XML 파일을 읽어온다. (파이프라인의 읽기 단계)
+     * 그대로 복사하는 파일이나 변환 대상이 아닌 파일은 읽지 않는다.
+     * 변환 결과 캐시를 사용하는 dbwatcher 설정 파일은 같은 내용을 다른 작업이 변환 중이면 그 변환이 끝날 때까지 기다린다.
+     *
+     * @param task  변환 작업 (읽어온 내용을 담는다.)
+     * @throws InterruptedException 같은 내용을 변환 중인 다른 작업을 기다리는 도중 인터럽트되었을 경우
+     * */
+    void parseSettingFile(SettingFileTask task)
+            throws ParserConfigurationException, IOException, SAXException, TransformerException, InterruptedException {
+        File xmlFile = task.getXmlFile();
+        String fileName = xmlFile.getName();
+        String filePath = xmlFile.getPath();
+        if (
+            COLLECTION_LIST.equals(fileName)
+            || PROFILE_SETTING.equals(fileName)
+            || !(COLLECTION_SETTING.equals(fileName) || filePath.contains(DBWATCHER_FOLDER))
+        ) {
+            return;
+        }
+        // XML 파일 내용을 한 번만 읽어와 XML 선언 태그 추출과 파싱에 함께 사용한다.
+        long startedAt = task.startPhase(ConversionMetrics.Phase.READ);
+        XmlSource xmlSource = (task.getSourceContent() == null)
+                ? xmlFileReader.read(xmlFile)
+                : new XmlSource(xmlFile.toURI().toString(), ByteBuffer.wrap(task.getSourceContent()));
+        task.setXmlDeclaration(xmlSource.getXmlDeclaration());
+        task.setLargeSource(xmlSource.getLength() >= streamingThresholdBytes);
+        if (task.getSourceContent() == null) {    // 압축 파일 항목은 탐색 단계에서 읽은 크기를 기록한다.
+            task.addBytesRead(xmlSource.getLength());
+        }
+        if (
+            isCacheTarget(xmlSource.getLength())
+            && !COLLECTION_SETTING.equals(fileName)
+            && !DBWATCHER_LIST.equals(fileName)
+        ) { // id 값을 제외한 내용이 같은 dbwatcher 설정 파일을 이미 변환했으면(변환 중이면 기다린 뒤) 직렬화된 결과를 다시 사용한다.
+            DbWatcherTemplate template = DbWatcherTemplate.create(xmlSource, getCacheParameters());
+            ConversionCache.Claim claim = conversionCache.claim(template.getKey());
+            if (claim.getCachedContent() != null) {
+                task.setCachedContent(template.render(claim.getCachedContent()));
+                task.endPhase(ConversionMetrics.Phase.READ, startedAt);
+                return;
+            }
+            // 캐시에 넣을 결과는 id 값을 자리표시자로 바꾼 내용으로 변환한다.
+            task.setTemplate(template, claim);
+            xmlSource = template.getNormalizedSource();
+        }
+        task.endPhase(ConversionMetrics.Phase.READ, startedAt);
+        if (
+            isStreamingSize(xmlSource.getLength())
+            && !COLLECTION_SETTING.equals(fileName)
+            && !DBWATCHER_LIST.equals(fileName)
+        ) { // setting/COLLECTION_NAME/dbwatcher/list_내_정의된_DBWATCHER_파일.xml 은 변환 단계에서 DOM 없이 스트리밍으로 읽는다.
+            task.setXmlSource(xmlSource);
+            return;
+        }
+        startedAt = task.startPhase(ConversionMetrics.Phase.PARSE);
+        DocumentBuilder dBuilder = xmlParserPool.getDocumentBuilder();
+        Document document;
+        try {
+            document = dBuilder.parse(xmlSource.openStream(), xmlSource.getSystemId());
+        } finally {
+            discardLargeParsers(task);
+        }
+        document.getDocumentElement().normalize();
+        task.setDocument(document);
+        task.endPhase(ConversionMetrics.Phase.PARSE, startedAt);
+    }
+
+    /**
+     * 읽어온 XML 파일을 m5 설정으로 변경하여 저장할 내용을 만든다. (파이프라인의 변환 단계)
+     *
+     * @param task  변환 작업 (저장할 경로와 내용을 담는다.)
+     * @param inputFilePath 기존 XML 파일이 있던 setting 폴더 경로
+     * @param outputFilePath    새로 생성될 XML 파일이 저장될 setting 폴더 경로
+     * */
+    void transformSettingFile(
+            SettingFileTask task,
+            String inputFilePath,
+            String outputFilePath
+    ) throws ParserConfigurationException, IOException, SAXException, TransformerException {
+        try {
+            transformSettingContent(task, inputFilePath, outputFilePath);
+        } finally {
+            discardLargeParsers(task);
+        }
+    }
+
+    /**
+     * 큰 파일을 처리한 스레드의 파서와 Transformer 를 버린다.
+     * 메모리 한도는 처리 중인 파일만 예약하므로, 큰 파일로 늘어난 내부 버퍼가 작업 스레드마다 남으면 한도 밖에서 힙을 차지한다.
+     *
+     * @param task  변환 작업
+     * */
+    private void discardLargeParsers(SettingFileTask task) {
+        if (task.isLargeSource()) {
+            xmlParserPool.discardThreadInstances();
+        }
+    }
+
+    private void transformSettingContent(
+            SettingFileTask task,
+            String inputFilePath,
+            String outputFilePath
+    ) throws ParserConfigurationException, IOException, SAXException, TransformerException {
+        File xmlFile = task.getXmlFile();
         String fileName = xmlFile.getName();
         String filePath = xmlFile.getPath();
+        String xmlDeclaration = task.getXmlDeclaration();
+        Document document = task.getDocument();
+        long startedAt = task.startPhase(ConversionMetrics.Phase.TRANSFORM);
         if (
             COLLECTION_LIST.equals(fileName)    // setting/collectionList.xml
             || PROFILE_SETTING.equals(fileName)    // setting/COLLECTION_NAME/profileSetting.xml
         ) { // 딱히 m4, m5 간의 차이가 보이지 않으므로 그대로 복사한다.
             String destinationFilePath = filePath.replace(inputFilePath, outputFilePath);
-            copyFile(filePath, destinationFilePath);
-            System.out.println("Copied: " + destinationFilePath);
-        } else if (
-            COLLECTION_SETTING.equals(fileName) // setting/COLLECTION_NAME/collectionSetting.xml
-            || filePath.contains(DBWATCHER_FOLDER)  // setting/COLLECTION_NAME/dbwatcher 폴더 내 xml 파일들
-        ) {
-            // XML 파일 내용을 읽어온다.
-            // XML 선언 태그 읽기
-            String xmlDeclaration = readXmlDeclaration(filePath);// XML 파일 읽기
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-            Document document = dBuilder.parse(xmlFile);
-            document.getDocumentElement().normalize();
+            task.setOutput(destinationFilePath, null, "Copied: ");
+        } else if (task.getCachedContent() != null) {
+            // 캐시된 변환 결과를 사용하는 dbwatcher 설정 파일 (파일명은 대문자로 수정)
+            String saveFilePath = getDbWatcherSaveFilePath(fileName, filePath, inputFilePath, outputFilePath);
+            task.setOutput(saveFilePath, task.getCachedContent(), "Processed and saved with updated SQL elements: ");
+        } else if (task.getXmlSource() != null) {
+            // setting/COLLECTION_NAME/dbwatcher/list_내_정의된_DBWATCHER_파일.xml 은 DOM 없이 스트리밍으로 변환한다.
+            String saveFilePath = getDbWatcherSaveFilePath(fileName, filePath, inputFilePath, outputFilePath);
+            byte[] convertedContent = cacheConvertedContent(task, streamConvertDbWatcherFile(task.getXmlSource(), xmlDeclaration));
+            task.setOutput(saveFilePath, convertedContent, "Processed and saved with updated SQL elements: ");
+        } else if (document != null) {
             if (COLLECTION_SETTING.equals(fileName)) {  // setting/COLLECTION_NAME/collectionSetting.xml
                 // 설정내용 중 collectionSetting 내의 baseDirectory 속성 값의 경로를 수정한다. ($IR4_HOME > $IR5_HOME)
                 NodeList collectionSettingNodeList = document.getElementsByTagName("collectionSetting");
@@ -99,8 +690,10 @@ public class XmlFileProcessor {
                             collectionSettingElement.setAttribute("baseDirectory", baseDirectory);
                             // 변경된 collectionSetting.xml 내용을 m5 세팅을 저장할 별도 폴더에 저장한다.
                             String saveFilePath = filePath.replace(inputFilePath, outputFilePath);
-                            saveXmlFile(xmlDeclaration, document, saveFilePath);
-                            System.out.println("Processed and saved: " + saveFilePath);
+                            task.endPhase(ConversionMetrics.Phase.TRANSFORM, startedAt);
+                            byte[] convertedContent = serializeXmlFile(task, xmlDeclaration, document);
+                            startedAt = task.startPhase(ConversionMetrics.Phase.TRANSFORM);
+                            task.setOutput(saveFilePath, convertedContent, "Processed and saved: ");
                         }
                     }
                     String union = collectionSettingElement.getAttribute("union");
@@ -128,8 +721,10 @@ public class XmlFileProcessor {
                     }
                     // 변경된 XML 파일 저장
                     String saveFilePath = filePath.replace(inputFilePath, outputFilePath);
-                    saveXmlFile(xmlDeclaration, document, saveFilePath);
-                    System.out.println("Processed and saved with updated id attributes: " + saveFilePath);
+                    task.endPhase(ConversionMetrics.Phase.TRANSFORM, startedAt);
+                    byte[] convertedContent = serializeXmlFile(task, xmlDeclaration, document);
+                    startedAt = task.startPhase(ConversionMetrics.Phase.TRANSFORM);
+                    task.setOutput(saveFilePath, convertedContent, "Processed and saved with updated id attributes: ");
                 } else {    // setting/COLLECTION_NAME/dbwatcher/list_내_정의된_DBWATCHER_파일.xml
                     // dbwatcher 설정 파일 처리
                     NodeList idNode = document.getElementsByTagName("id");
@@ -283,114 +878,357 @@ public class XmlFileProcessor {
                     document.getDocumentElement().appendChild(sqlDocAdd);
 
                     // 변경된 XML 파일 저장 (파일명은 대문자로 수정)
-                    String saveFilePath = filePath.replace(inputFilePath, outputFilePath);
-                    int dotIndex = fileName.lastIndexOf('.');
-                    String nameWithoutExtension = (dotIndex == -1) ? fileName : fileName.substring(0, dotIndex);
-                    String fileExtension = (dotIndex == -1) ? "" : fileName.substring(dotIndex);
-                    String upperCaseName = nameWithoutExtension.toUpperCase();  // 파일명을 대문자로 변환
-                    String repUpperFileName = upperCaseName + fileExtension;
-                    saveFilePath = saveFilePath.replace(fileName, repUpperFileName);
-                    saveXmlFile(xmlDeclaration, document, saveFilePath);
-                    System.out.println("Processed and saved with updated SQL elements: " + saveFilePath);
+                    String saveFilePath = getDbWatcherSaveFilePath(fileName, filePath, inputFilePath, outputFilePath);
+                    task.endPhase(ConversionMetrics.Phase.TRANSFORM, startedAt);
+                    byte[] serializedContent = serializeXmlFile(task, xmlDeclaration, document);
+                    startedAt = task.startPhase(ConversionMetrics.Phase.TRANSFORM);
+                    byte[] convertedContent = cacheConvertedContent(task, serializedContent);
+                    task.setOutput(saveFilePath, convertedContent, "Processed and saved with updated SQL elements: ");
                 }
             }
         } else {
             // 옮길 대상이 아니거나, 아직 이관 개발이 안 된 대상 파일들은 아무것도 하지 않는다.
         }
+        task.endPhase(ConversionMetrics.Phase.TRANSFORM, startedAt);
+        task.releaseParsed();
     }
 
     /**
-     * XML 파일 목록을 가져온다.
+     * 변환된 내용을 저장하거나 원본 파일을 복사한다. (파이프라인의 저장 단계)
      *
-     * @param inputFilePath 기존 XML 파일이 있는 폴더 경로
-     * @return 변경 대상 XML 파일 목록
+     * @param task  변환 작업
+     * @return 저장한 파일 경로 (저장 대상이 아니었을 경우 null)
      * */
-    private List<File> getXmlFiles(String inputFilePath) throws IOException {
-        return Files.walk(Paths.get(inputFilePath))
-                .filter(Files::isRegularFile)
-                .filter(path -> path.toString().endsWith(".xml"))
-                .filter(path -> !path.getFileName().toString().startsWith("old_"))
-                .map(java.nio.file.Path::toFile)
-                .collect(Collectors.toList());
+    String writeSettingFile(SettingFileTask task) throws IOException {
+        String saveFilePath = task.getSaveFilePath();
+        if (saveFilePath == null) {
+            return null;
+        }
+        String savedMessage = task.getSavedMessage();
+        // 압축 파일에서 읽어온 원본은 복사 대신 읽어온 내용을 그대로 기록한다.
+        byte[] convertedContent = (task.getConvertedContent() == null) ? task.getSourceContent() : task.getConvertedContent();
+        if (convertedContent == null) {
+            long startedAt = task.startPhase(ConversionMetrics.Phase.COPY);
+            PassThroughCopier.Outcome outcome = passThroughCopier.copy(task.getXmlFile().getPath(), saveFilePath);
+            task.endPhase(ConversionMetrics.Phase.COPY, startedAt);
+            if (outcome == PassThroughCopier.Outcome.COPIED) {
+                long copiedBytes = task.getXmlFile().length();
+                task.addBytesRead(copiedBytes);
+                task.addBytesWritten(copiedBytes);
+            } else if (outcome == PassThroughCopier.Outcome.LINKED) {
+                savedMessage = "Linked: ";
+            } else {
+                task.setOutputIdentical(true);
+                savedMessage = "Skipped (identical): ";
+            }
+        } else {
+            long startedAt = task.startPhase(ConversionMetrics.Phase.WRITE);
+            if (XmlFileWriter.hasSameContent(convertedContent, saveFilePath)) {
+                // 변환 결과가 이미 저장된 파일과 같으면 다시 기록하지 않는다.
+                task.setOutputIdentical(true);
+                savedMessage = "Skipped (identical): ";
+            } else {
+                // 임시 파일에 기록한 뒤 대상 파일로 교체한다.
+                XmlFileWriter.write(convertedContent, saveFilePath);
+                task.addBytesWritten(convertedContent.length);
+            }
+            task.endPhase(ConversionMetrics.Phase.WRITE, startedAt);
+        }
+        ConversionLog.saved(task.getXmlFile(), savedMessage, saveFilePath);
+        return saveFilePath;
     }
 
     /**
-     * 파일을 복사한다.
+     * 변환된 내용이나 원본 파일을 압축 파일 항목으로 기록한다. (압축 파일 출력 시 파이프라인의 저장 단계)
+     * 저장 경로에서 출력 압축 파일 경로를 뺀 나머지를 항목명으로 사용한다.
      *
-     * @param sourceFilePath 원본 파일 경로
-     * @param destinationFilePath 대상 파일 경로
+     * @param task  변환 작업
+     * @param archiveWriter 출력 압축 파일
+     * @param outputFilePath    출력 압축 파일 경로
+     * @return 저장한 파일 경로 (저장 대상이 아니었을 경우 null)
      * */
-    private void copyFile(String sourceFilePath, String destinationFilePath) {
-        try {
-            Files.createDirectories(Paths.get(destinationFilePath).getParent());
-            Files.copy(Paths.get(sourceFilePath), Paths.get(destinationFilePath), StandardCopyOption.REPLACE_EXISTING);
-        } catch (IOException e) {
-            e.printStackTrace();
+    String writeArchiveEntry(SettingFileTask task, SettingArchive.EntryWriter archiveWriter, String outputFilePath) throws IOException {
+        String saveFilePath = task.getSaveFilePath();
+        if (saveFilePath == null) {
+            return null;
+        }
+        File xmlFile = task.getXmlFile();
+        byte[] content = task.getConvertedContent();
+        long lastModified = (task.getSourceContent() == null) ? xmlFile.lastModified() : task.getSourceLastModified();
+        long startedAt = task.startPhase(ConversionMetrics.Phase.WRITE);
+        if (content == null) {  // 그대로 복사하는 파일
+            content = (task.getSourceContent() == null) ? Files.readAllBytes(xmlFile.toPath()) : task.getSourceContent();
+            if (task.getSourceContent() == null) {
+                task.addBytesRead(content.length);
+            }
         }
+        archiveWriter.write(toRelativePath(saveFilePath, outputFilePath), content, lastModified);
+        task.endPhase(ConversionMetrics.Phase.WRITE, startedAt);
+        task.addBytesWritten(content.length);
+        ConversionLog.saved(task.getXmlFile(), task.getSavedMessage(), saveFilePath);
+        return saveFilePath;
     }
 
     /**
-     * XML 기본 선언 태그 가져오기
+     * 저장 경로가 출력 경로 안에 있는지 확인한다.
      *
-     * @param filePath XML 파일 경로
-     * @return 읽어온 XML 선언 태그 (없을 경우 기본 XML 선언 태그)
+     * @param saveFilePath  저장 경로 (저장 대상이 아닐 경우 null)
+     * @param outputFilePath    출력 폴더 또는 압축 파일 경로
+     * @throws IOException 저장 경로가 출력 경로 밖을 가리킬 경우
      * */
-    private String readXmlDeclaration(String filePath) {
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String firstLine = br.readLine();
-            if (firstLine != null && firstLine.startsWith("<?xml")) {
-                return firstLine;
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+    static void checkInsideOutput(String saveFilePath, String outputFilePath) throws IOException {
+        if (saveFilePath == null) {
+            return;
+        }
+        Path outputRoot = Paths.get(outputFilePath).toAbsolutePath().normalize();
+        Path savePath = Paths.get(saveFilePath).toAbsolutePath().normalize();
+        if (savePath.equals(outputRoot) || !savePath.startsWith(outputRoot)) {
+            throw new IOException("저장 경로가 출력 경로 밖을 가리킵니다: " + saveFilePath);
+        }
+    }
+
+    /**
+     * 저장 경로를 출력 경로 기준 상대 경로로 바꾼다. (압축 파일 항목명, 메모리 변환 결과 경로)
+     *
+     * @param saveFilePath  저장 경로
+     * @param outputFilePath    출력 폴더 또는 압축 파일 경로
+     * @return "/" 로 구분된 상대 경로
+     * */
+    private static String toRelativePath(String saveFilePath, String outputFilePath) {
+        return saveFilePath.substring(Math.min(saveFilePath.length(), outputFilePath.length() + 1))
+                .replace(File.separatorChar, '/');
+    }
+
+    /**
+     * 측정값 집계에 사용할 파일 종류를 가져온다.
+     *
+     * @param xmlFile   원본 파일
+     * @return 파일 종류 (변환 대상이 아닐 경우 SKIPPED)
+     * */
+    static ConversionMetrics.FileType getFileType(File xmlFile) {
+        String fileName = xmlFile.getName();
+        String filePath = xmlFile.getPath();
+        if (COLLECTION_LIST.equals(fileName) || PROFILE_SETTING.equals(fileName)) {
+            return ConversionMetrics.FileType.COPIED;
+        } else if (COLLECTION_SETTING.equals(fileName)) {
+            return ConversionMetrics.FileType.COLLECTION_SETTING;
+        } else if (filePath.contains(DBWATCHER_FOLDER)) {
+            return DBWATCHER_LIST.equals(fileName) ? ConversionMetrics.FileType.DBWATCHER_LIST : ConversionMetrics.FileType.DBWATCHER;
+        }
+        return ConversionMetrics.FileType.SKIPPED;
+    }
+
+    /**
+     * 원본 파일이 변환되어 저장되는 경로를 가져온다.
+     *
+     * @param xmlFile   원본 파일
+     * @param inputFilePath 기존 XML 파일이 있던 setting 폴더 경로
+     * @param outputFilePath    새로 생성될 XML 파일이 저장될 setting 폴더 경로
+     * @return 저장되는 경로 (변환 대상이 아닐 경우 null)
+     * */
+    String resolveSaveFilePath(File xmlFile, String inputFilePath, String outputFilePath) {
+        String fileName = xmlFile.getName();
+        String filePath = xmlFile.getPath();
+        if (
+            COLLECTION_LIST.equals(fileName)
+            || PROFILE_SETTING.equals(fileName)
+            || COLLECTION_SETTING.equals(fileName)
+            || (filePath.contains(DBWATCHER_FOLDER) && DBWATCHER_LIST.equals(fileName))
+        ) {
+            return filePath.replace(inputFilePath, outputFilePath);
+        } else if (filePath.contains(DBWATCHER_FOLDER)) {
+            return getDbWatcherSaveFilePath(fileName, filePath, inputFilePath, outputFilePath);
         }
-        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"; // 기본 XML 선언 태그
+        return null;
     }
 
     /**
-     * XML 파일을 저장한다.
+     * dbwatcher 설정 파일을 저장할 경로를 가져온다. (파일명은 대문자로 수정)
      *
+     * @param fileName  dbwatcher 설정 파일명
+     * @param filePath  dbwatcher 설정 파일 경로
+     * @param inputFilePath 기존 XML 파일이 있던 setting 폴더 경로
+     * @param outputFilePath    새로 생성될 XML 파일이 저장될 setting 폴더 경로
+     * @return 저장할 파일 경로
+     * */
+    private String getDbWatcherSaveFilePath(String fileName, String filePath, String inputFilePath, String outputFilePath) {
+        String saveFilePath = filePath.replace(inputFilePath, outputFilePath);
+        int dotIndex = fileName.lastIndexOf('.');
+        String nameWithoutExtension = (dotIndex == -1) ? fileName : fileName.substring(0, dotIndex);
+        String fileExtension = (dotIndex == -1) ? "" : fileName.substring(dotIndex);
+        String upperCaseName = nameWithoutExtension.toUpperCase();  // 파일명을 대문자로 변환
+        String repUpperFileName = upperCaseName + fileExtension;
+        return saveFilePath.replace(fileName, repUpperFileName);
+    }
+
+    /**
+     * dbwatcher 설정 파일을 DOM 없이 스트리밍으로 변환한다.
+     * 변환 규칙과 결과는 DOM 변환과 동일하다.
+     *
+     * @param xmlSource 변경 대상 dbwatcher 설정 파일 내용
      * @param xmlDeclaration XML 선언 태그
-     * @param doc XML Document 객체
-     * @param filePath XML 파일을 저장할 경로
+     * @return 변환된 파일 내용
      * */
-    private void saveXmlFile(String xmlDeclaration, Document doc, String filePath) {
+    private byte[] streamConvertDbWatcherFile(XmlSource xmlSource, String xmlDeclaration)
+            throws ParserConfigurationException, SAXException, IOException, TransformerException {
+        DbWatcherStreamConverter converter = new DbWatcherStreamConverter(xmlParserPool.getXmlReader());
+        InputSource inputSource = new InputSource(xmlSource.openStream());
+        inputSource.setSystemId(xmlSource.getSystemId());
+        // 변환 결과는 원본과 크기가 비슷하므로 원본 크기보다 조금 크게 버퍼를 잡는다.
+        int expectedSize = (int) Math.min(Integer.MAX_VALUE - 8, xmlSource.getLength() + (long) xmlSource.getLength() / 8);
+        return serialize(xmlDeclaration, new SAXSource(converter, inputSource), expectedSize);
+    }
+
+    /**
+     * 스레드별로 재사용하는 Transformer 로 직렬화한다.
+     * 직렬화가 끝나면 Transformer 를 초기화하여, 다음 파일을 직렬화할 때까지 출력 버퍼와 원본을 참조하지 않게 한다.
+     *
+     * @param xmlDeclaration XML 선언 태그
+     * @param source         직렬화할 XML 내용 (DOM 또는 SAX 이벤트)
+     * @param expectedSize   예상 결과 크기 (byte, 모를 경우 0)
+     * @return 선언된 인코딩으로 직렬화된 파일 내용
+     * */
+    private byte[] serialize(String xmlDeclaration, Source source, int expectedSize) throws IOException, TransformerException {
+        Transformer transformer = xmlParserPool.getTransformer();
         try {
-            // 경로가 존재하지 않을 경우 생성
-            File file = new File(filePath);
-            File parentDir = file.getParentFile();
-            if (!parentDir.exists()) {
-                parentDir.mkdirs();
-            }
+            return XmlFileWriter.serialize(xmlDeclaration, source, transformer, expectedSize);
+        } finally {
+            transformer.reset();
+        }
+    }
 
-            // 임시 파일에 저장
-            File tempFile = new File(filePath + ".tmp");
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-
-            DOMSource source = new DOMSource(doc);
-            StreamResult result = new StreamResult(tempFile);
-            transformer.transform(source, result);
-
-            // 최종 파일에 XML 선언 태그와 함께 저장
-            try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
-                writer.println(xmlDeclaration);
-                try (BufferedReader br = new BufferedReader(new FileReader(tempFile))) {
-                    String line;
-                    while ((line = br.readLine()) != null) {
-                        writer.println(line);
-                    }
-                }
-            }
+    /**
+     * 정규화된 내용으로 변환한 결과를 캐시에 넣고(같은 내용을 기다리는 작업에도 넘긴다.), 이 파일의 id 값(대문자)을 넣은 변환 결과를 돌려준다.
+     *
+     * @param task  변환 작업
+     * @param convertedContent 변환 결과 (캐시를 사용하지 않을 경우 원본 내용의 변환 결과)
+     * @return 저장할 파일 내용
+     * */
+    private byte[] cacheConvertedContent(SettingFileTask task, byte[] convertedContent) {
+        DbWatcherTemplate template = task.getTemplate();
+        if (template == null) {
+            return convertedContent;
+        }
+        task.getCacheClaim().complete(convertedContent);
+        return template.render(convertedContent);
+    }
 
-            // 임시 파일 삭제
-            tempFile.delete();
-        } catch (Exception e) {
-            e.printStackTrace();
+    /**
+     * @return convertAll 작업 스레드 풀 (처음 호출할 때 만든다.)
+     * */
+    private synchronized ExecutorService getBatchExecutor() {
+        if (batchExecutor == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            // 동시에 호출된 convertAll 들이 서로를 기다리지 않도록 필요한 만큼 스레드를 만들고, 쉬는 스레드는 정해진 시간 뒤 종료한다.
+            batchExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, BATCH_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "m5-convert-batch-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        return batchExecutor;
+    }
+
+    /**
+     * @return 폴더/압축 파일 변환 시 사용할 메모리 한도 (동시에 실행되는 변환끼리 함께 사용한다.)
+     * */
+    synchronized MemoryBudget getMemoryBudget() {
+        if (memoryBudget == null) {
+            memoryBudget = new MemoryBudget(memoryBudgetBytes);
+        }
+        return memoryBudget;
+    }
+
+    /**
+     * 변환 작업 1건이 사용할 메모리를 파일 크기로 예상한다.
+     * 그대로 복사하는 파일은 폴더에서 읽을 때 힙을 사용하지 않으므로 원본 내용을 메모리에 올린 경우만 계산한다.
+     *
+     * @param task  변환 작업 (탐색 단계에서 확인한 크기)
+     * @param sourceInMemory    원본 내용을 메모리에 올려서 넘기는 경우 true (압축 파일 입력)
+     * @return 예상 사용 메모리 (byte)
+     * */
+    long estimateMemory(SettingFileTask task, boolean sourceInMemory) {
+        long size = Math.max(0, task.getSourceSize());
+        long sourceBytes = sourceInMemory ? size : 0;
+        switch (getFileType(task.getXmlFile())) {
+            case COLLECTION_SETTING:
+            case DBWATCHER_LIST:
+                return sourceBytes + size * DOM_MEMORY_FACTOR;
+            case DBWATCHER:
+                return sourceBytes + size * ((isStreamingSize(size) ? STREAM_MEMORY_FACTOR : DOM_MEMORY_FACTOR)
+                        + (isCacheTarget(size) ? CACHE_MEMORY_FACTOR : 0));
+            default:
+                return sourceBytes;
+        }
+    }
+
+    /**
+     * dbwatcher 설정 파일을 스트리밍으로 변환할지 확인한다. (DOM 변환이어도 크기 기준 이상이면 스트리밍)
+     * */
+    private boolean isStreamingSize(long size) {
+        return streamingDbWatcher || size >= streamingThresholdBytes;
+    }
+
+    /**
+     * dbwatcher 설정 파일에 변환 결과 캐시를 사용할지 확인한다.
+     * 크기 기준 이상인 파일은 정규화된 내용과 캐시된 결과가 변환보다 메모리를 많이 차지하므로 캐시하지 않는다.
+     * */
+    private boolean isCacheTarget(long size) {
+        return conversionCache != null && size < streamingThresholdBytes;
+    }
+
+    /**
+     * 변환 결과에 영향을 주는 설정값 (캐시 키에 포함한다.)
+     * 변환 규칙 버전, 변환 방식, Transformer 구현체, 줄바꿈 문자가 같아야 같은 결과가 나온다.
+     *
+     * @return 캐시 키에 포함할 설정값
+     * */
+    private String getCacheParameters() throws TransformerException {
+        if (cacheParameters == null) {
+            cacheParameters = CONVERTER_VERSION
+                    + '\n' + (streamingDbWatcher ? "stream" : "dom")
+                    + '\n' + xmlParserPool.getTransformer().getClass().getName()
+                    + '\n' + System.lineSeparator();
         }
+        return cacheParameters;
+    }
+
+    /**
+     * 변환 대상 XML 파일 경로인지 확인한다. (old_ 로 시작하는 백업 파일 제외)
+     *
+     * @param path 파일 경로
+     * @return 변환 대상일 경우 true
+     * */
+    static boolean isTargetXmlFile(Path path) {
+        return path.toString().endsWith(".xml") && !path.getFileName().toString().startsWith("old_");
+    }
+
+    /**
+     * 변환 대상 XML 파일인지 확인한다. (압축 파일 항목처럼 파일시스템 경로로 바꿀 수 없는 경로에도 사용)
+     *
+     * @param xmlFile 파일
+     * @return 변환 대상일 경우 true
+     * */
+    static boolean isTargetXmlFile(File xmlFile) {
+        return xmlFile.getPath().endsWith(".xml") && !xmlFile.getName().startsWith("old_");
+    }
+
+    /**
+     * XML 파일 내용을 직렬화한다.
+     * 직렬화 시간은 변환과 별도의 단계로 기록하므로, 호출하는 쪽에서 변환 단계를 끝낸 뒤 호출하고 다시 시작한다.
+     *
+     * @param task  변환 작업 (직렬화 소요시간을 기록한다.)
+     * @param xmlDeclaration XML 선언 태그
+     * @param doc XML Document 객체
+     * @return 선언된 인코딩으로 직렬화된 파일 내용
+     * */
+    private byte[] serializeXmlFile(SettingFileTask task, String xmlDeclaration, Document doc) throws IOException, TransformerException {
+        long startedAt = task.startPhase(ConversionMetrics.Phase.SERIALIZE);
+        // 선언된 인코딩으로 한 번에 직렬화하고, 파일 기록은 저장 단계에서 한다.
+        byte[] content = serialize(xmlDeclaration, new DOMSource(doc), 0);
+        task.endPhase(ConversionMetrics.Phase.SERIALIZE, startedAt);
+        return content;
     }
 
     /**
@@ -418,6 +1256,10 @@ public class XmlFileProcessor {
         parentNode.replaceChild(newElement, oldElement);
     }
 
+    /** 메모리 변환 시 논리 경로 앞에 붙이는 가상 폴더 (파일시스템에는 접근하지 않는다.) */
+    private static final String MEMORY_INPUT_ROOT = new File("/.m4-setting").getPath();
+    private static final String MEMORY_OUTPUT_ROOT = new File("/.m5-setting").getPath();
+
     private static final String COLLECTION_LIST = "collectionList.xml";
     private static final String DBWATCHER_FOLDER = "dbwatcher";
     private static final String COLLECTION_SETTING = "collectionSetting.xml";
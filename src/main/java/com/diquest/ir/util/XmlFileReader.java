@@ -0,0 +1,73 @@
+package com.diquest.ir.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * XML 파일을 한 번만 읽어 XmlSource 로 만드는 클래스
+ * 작은 파일은 파일 크기만큼의 배열에 읽고, 큰 파일은 메모리 매핑으로 읽는다.
+ * 읽어온 내용은 반환된 XmlSource 가 소유하므로, 다른 스레드로 넘겨 변환해도 복사하지 않는다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class XmlFileReader {
+
+    /** 이 크기 이상의 파일은 메모리 매핑으로 읽는다. (byte) */
+    public static final int DEFAULT_MAPPING_THRESHOLD = 8 * 1024 * 1024;
+
+    private final int mappingThreshold;
+
+    public XmlFileReader() {
+        this(DEFAULT_MAPPING_THRESHOLD);
+    }
+
+    /**
+     * @param mappingThreshold 이 크기 이상의 파일은 메모리 매핑으로 읽는다. (byte)
+     */
+    public XmlFileReader(int mappingThreshold) {
+        this.mappingThreshold = mappingThreshold;
+    }
+
+    /**
+     * 파일 내용을 읽어온다.
+     *
+     * @param xmlFile 읽을 XML 파일
+     * @return 읽어온 파일 내용
+     */
+    public XmlSource read(File xmlFile) throws IOException {
+        String systemId = xmlFile.toURI().toString();
+        try (FileChannel channel = FileChannel.open(xmlFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= mappingThreshold) {
+                // 매핑은 채널을 닫은 뒤에도 유효하다.
+                return new XmlSource(systemId, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+            // 파일 끝(EOF)을 한 번에 확인할 수 있도록 파일 크기보다 1 byte 크게 잡는다.
+            ByteBuffer target = ByteBuffer.allocate((int) size + 1);
+            // 읽는 도중 파일 크기가 바뀔 수 있으므로 끝에 도달할 때까지 읽는다.
+            while (channel.read(target) >= 0) {
+                if (!target.hasRemaining()) {
+                    if (target.capacity() >= mappingThreshold) {
+                        throw new IOException("파일을 읽는 도중 크기가 변경되었습니다: " + xmlFile.getPath());
+                    }
+                    target = grow(target);
+                }
+            }
+            // JDK 9 이상에서 빌드해도 Java 8 에서 실행되도록 ByteBuffer 가 아닌 Buffer 의 메서드로 호출한다.
+            ((Buffer) target).flip();
+            return new XmlSource(systemId, target);
+        }
+    }
+
+    private ByteBuffer grow(ByteBuffer target) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.min(mappingThreshold, target.capacity() << 1));
+        ((Buffer) target).flip();
+        grown.put(target);
+        return grown;
+    }
+}
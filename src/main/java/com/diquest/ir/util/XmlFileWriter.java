@@ -0,0 +1,205 @@
+package com.diquest.ir.util;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamResult;
+
+/**
+ * XML 선언 태그와 XML 내용을 선언된 인코딩의 바이트로 직렬화하고, 직렬화된 내용을 파일로 기록하는 클래스
+ * 같은 폴더의 임시 파일(파일명.tmp)에 기록한 뒤 대상 파일로 이름을 바꾸므로, 중간에 실패해도 기존 파일이 깨지지 않는다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class XmlFileWriter {
+
+    /** 임시 파일 확장자 */
+    public static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private static final int INITIAL_SERIALIZE_BUFFER_SIZE = 16 * 1024;
+    private static final int COMPARE_BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern ENCODING_PATTERN = Pattern.compile("encoding\\s*=\\s*[\"']([^\"']+)[\"']");
+
+    private XmlFileWriter() {
+    }
+
+    /**
+     * XML 선언 태그에 지정된 인코딩을 가져온다.
+     *
+     * @param xmlDeclaration XML 선언 태그
+     * @return 선언된 인코딩 (없거나 지원하지 않는 인코딩일 경우 UTF-8)
+     */
+    public static Charset getDeclaredCharset(String xmlDeclaration) {
+        Matcher matcher = ENCODING_PATTERN.matcher(xmlDeclaration);
+        if (matcher.find()) {
+            try {
+                return Charset.forName(matcher.group(1));
+            } catch (IllegalArgumentException e) {
+                // 지원하지 않는 인코딩은 XML 기본 인코딩으로 처리한다.
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * XML 선언 태그와 XML 내용을 선언된 인코딩의 바이트로 직렬화한다.
+     * 큰 파일은 예상 크기만큼 버퍼를 미리 잡아, 버퍼를 늘리면서 생기는 복사와 여유 공간을 줄인다.
+     *
+     * @param xmlDeclaration XML 선언 태그
+     * @param source         직렬화할 XML 내용 (DOM 또는 SAX 이벤트)
+     * @param transformer    직렬화에 사용할 Transformer
+     * @param expectedSize   예상 결과 크기 (byte, 모를 경우 0)
+     * @return 직렬화된 파일 내용
+     */
+    public static byte[] serialize(String xmlDeclaration, Source source, Transformer transformer, int expectedSize)
+            throws IOException, TransformerException {
+        Charset charset = getDeclaredCharset(xmlDeclaration);
+        transformer.setOutputProperty(OutputKeys.ENCODING, charset.name());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(INITIAL_SERIALIZE_BUFFER_SIZE, expectedSize));
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(output, charset))) {
+            writer.write(xmlDeclaration);
+            writer.write(System.lineSeparator());
+            transformer.transform(source, new StreamResult(writer));
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * 직렬화된 XML 파일 내용을 저장한다.
+     *
+     * @param content  직렬화된 파일 내용
+     * @param filePath XML 파일을 저장할 경로
+     */
+    public static void write(byte[] content, String filePath) throws IOException {
+        Path file = Paths.get(filePath);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+
+        Path tempFile = Paths.get(filePath + TEMP_FILE_SUFFIX);
+        try {
+            Files.write(tempFile, content);
+            moveIntoPlace(tempFile, file);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 직렬화된 XML 파일 내용이 이미 저장된 파일과 같은지 확인한다.
+     * 같으면 다시 기록하지 않아 수정시각도 그대로 유지된다.
+     *
+     * @param content  직렬화된 파일 내용
+     * @param filePath 저장할 파일 경로
+     * @return 같은 내용의 파일이 이미 있을 경우 true
+     */
+    public static boolean hasSameContent(byte[] content, String filePath) throws IOException {
+        Path file = Paths.get(filePath);
+        if (!Files.isRegularFile(file) || Files.size(file) != content.length) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.min(content.length, COMPARE_BUFFER_SIZE));
+            int offset = 0;
+            while (offset < content.length) {
+                ((Buffer) buffer).clear();
+                int readLength = channel.read(buffer);
+                if (readLength <= 0) {
+                    return false;
+                }
+                if (offset + readLength > content.length) {   // 비교 도중 파일 크기가 늘어난 경우
+                    return false;
+                }
+                ((Buffer) buffer).flip();
+                if (!buffer.equals(ByteBuffer.wrap(content, offset, readLength))) {
+                    return false;
+                }
+                offset += readLength;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 두 파일의 내용이 같은지 확인한다.
+     *
+     * @param file  비교할 파일
+     * @param other 비교할 다른 파일
+     * @return 내용이 같을 경우 true
+     */
+    public static boolean hasSameContent(Path file, Path other) throws IOException {
+        try (
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            FileChannel otherChannel = FileChannel.open(other, StandardOpenOption.READ)
+        ) {
+            if (channel.size() != otherChannel.size()) {
+                return false;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(COMPARE_BUFFER_SIZE);
+            ByteBuffer otherBuffer = ByteBuffer.allocate(COMPARE_BUFFER_SIZE);
+            while (true) {
+                ((Buffer) buffer).clear();
+                ((Buffer) otherBuffer).clear();
+                int readLength = readFully(channel, buffer);
+                int otherReadLength = readFully(otherChannel, otherBuffer);
+                if (readLength != otherReadLength) {
+                    return false;
+                }
+                if (readLength == 0) {
+                    return true;
+                }
+                ((Buffer) buffer).flip();
+                ((Buffer) otherBuffer).flip();
+                if (!buffer.equals(otherBuffer)) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int readLength = channel.read(buffer);
+            if (readLength < 0) {
+                break;
+            }
+            total += readLength;
+        }
+        return total;
+    }
+
+    /**
+     * 임시 파일을 대상 파일로 교체한다. 파일시스템이 원자적 이동을 지원하지 않으면 일반 이동으로 처리한다.
+     *
+     * @param tempFile 임시 파일
+     * @param file     대상 파일
+     */
+    static void moveIntoPlace(Path tempFile, Path file) throws IOException {
+        try {
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
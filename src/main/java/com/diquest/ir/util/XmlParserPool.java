@@ -0,0 +1,198 @@
+package com.diquest.ir.util;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+
+/**
+ * XML 파서 / Transformer 재사용 풀
+ * 팩토리는 풀 당 한 번만 생성하고, DocumentBuilder / Transformer 는 스레드별로 하나씩 만들어 파일마다 초기화 후 재사용한다.
+ * 파서와 Transformer 는 초기화해도 큰 파일을 처리하며 늘어난 내부 버퍼를 그대로 가지고 있으므로,
+ * 큰 파일을 처리한 스레드는 discardThreadInstances 로 버려서 메모리 한도 밖에서 스레드 수만큼 쌓이지 않게 한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class XmlParserPool {
+
+    /** JDK 내장 DocumentBuilderFactory 구현체 */
+    public static final String JDK_DOCUMENT_BUILDER_FACTORY = "com.sun.org.apache.xerces.internal.jaxp.DocumentBuilderFactoryImpl";
+    /** JDK 내장 TransformerFactory 구현체 */
+    public static final String JDK_TRANSFORMER_FACTORY = "com.sun.org.apache.xalan.internal.xsltc.trax.TransformerFactoryImpl";
+    /** JDK 내장 SAXParserFactory 구현체 */
+    public static final String JDK_SAX_PARSER_FACTORY = "com.sun.org.apache.xerces.internal.jaxp.SAXParserFactoryImpl";
+    /** 구현체 클래스명 대신 사용할 수 있는 JDK 내장 구현체 별칭 */
+    public static final String JDK_ALIAS = "jdk";
+
+    /**
+     * 파싱 오류를 표준 오류([Fatal Error] ...)로 출력하지 않고 예외로만 전달한다.
+     * 오류는 파일별 실패로 기록되므로, 로그 수준과 관계없이 콘솔에 따로 출력되지 않도록 한다.
+     */
+    private static final ErrorHandler RETHROWING_ERROR_HANDLER = new ErrorHandler() {
+        @Override
+        public void warning(SAXParseException e) {
+            // 경고는 변환 결과에 영향이 없으므로 무시한다.
+        }
+
+        @Override
+        public void error(SAXParseException e) throws SAXParseException {
+            throw e;
+        }
+
+        @Override
+        public void fatalError(SAXParseException e) throws SAXParseException {
+            throw e;
+        }
+    };
+
+    private final DocumentBuilderFactory documentBuilderFactory;
+    private final TransformerFactory transformerFactory;
+    private final String saxParserFactoryClassName;
+    private volatile SAXParserFactory saxParserFactory;
+    private final ThreadLocal<DocumentBuilder> documentBuilders = new ThreadLocal<>();
+    private final ThreadLocal<Transformer> transformers = new ThreadLocal<>();
+    private final ThreadLocal<SAXParser> saxParsers = new ThreadLocal<>();
+
+    /**
+     * DocumentBuilderFactory 를 JDK 내장 구현체(jdk)로 지정하면 스트리밍 변환에 쓰는 SAXParserFactory 도 JDK 내장 구현체로 고정된다.
+     *
+     * @param documentBuilderFactoryClassName 사용할 DocumentBuilderFactory 구현체 (null 일 경우 JAXP 기본 탐색)
+     * @param transformerFactoryClassName     사용할 TransformerFactory 구현체 (null 일 경우 JAXP 기본 탐색)
+     */
+    public XmlParserPool(String documentBuilderFactoryClassName, String transformerFactoryClassName) {
+        ClassLoader classLoader = XmlParserPool.class.getClassLoader();
+        this.saxParserFactoryClassName = JDK_ALIAS.equalsIgnoreCase(documentBuilderFactoryClassName)
+                ? JDK_SAX_PARSER_FACTORY : null;
+        if (documentBuilderFactoryClassName == null) {
+            this.documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        } else {
+            // 구현체를 직접 지정하면 서비스 탐색(ServiceLoader)을 하지 않는다.
+            this.documentBuilderFactory = DocumentBuilderFactory.newInstance(
+                    resolveAlias(documentBuilderFactoryClassName, JDK_DOCUMENT_BUILDER_FACTORY), classLoader);
+        }
+        if (transformerFactoryClassName == null) {
+            this.transformerFactory = TransformerFactory.newInstance();
+        } else {
+            this.transformerFactory = TransformerFactory.newInstance(
+                    resolveAlias(transformerFactoryClassName, JDK_TRANSFORMER_FACTORY), classLoader);
+        }
+    }
+
+    /**
+     * @return 프로세스 전체에서 공유하는 기본 풀
+     */
+    public static XmlParserPool shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /** 기본 풀은 처음 사용될 때 생성한다. (구현체를 지정한 경우 기본 탐색이 실행되지 않도록) */
+    private static class SharedHolder {
+        private static final XmlParserPool INSTANCE = new XmlParserPool(null, null);
+    }
+
+    private static String resolveAlias(String className, String jdkClassName) {
+        return JDK_ALIAS.equalsIgnoreCase(className) ? jdkClassName : className;
+    }
+
+    /**
+     * 현재 스레드에서 사용할 DocumentBuilder 를 초기화하여 가져온다.
+     * 파싱 오류는 표준 오류로 출력하지 않고 SAXParseException 으로 던진다.
+     *
+     * @return 초기화된 DocumentBuilder
+     */
+    public DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilder documentBuilder = documentBuilders.get();
+        if (documentBuilder == null) {
+            // 팩토리는 스레드 안전성이 보장되지 않으므로 생성 시에만 동기화한다.
+            synchronized (documentBuilderFactory) {
+                documentBuilder = documentBuilderFactory.newDocumentBuilder();
+            }
+            documentBuilders.set(documentBuilder);
+        } else {
+            documentBuilder.reset();
+        }
+        // reset 은 ErrorHandler 도 초기화하므로 가져올 때마다 지정한다.
+        documentBuilder.setErrorHandler(RETHROWING_ERROR_HANDLER);
+        return documentBuilder;
+    }
+
+    /**
+     * 현재 스레드에서 사용할 Transformer 를 초기화하여 가져온다.
+     * 들여쓰기 4칸, XML 선언 태그 생략 설정이 적용되어 있다.
+     *
+     * @return 초기화된 Transformer
+     */
+    public Transformer getTransformer() throws TransformerConfigurationException {
+        Transformer transformer = transformers.get();
+        if (transformer == null) {
+            synchronized (transformerFactory) {
+                transformer = transformerFactory.newTransformer();
+            }
+            transformers.set(transformer);
+        } else {
+            transformer.reset();
+        }
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        return transformer;
+    }
+
+    /**
+     * 현재 스레드에서 사용할 XMLReader 를 초기화하여 가져온다. (스트리밍 변환용)
+     * DocumentBuilder 와 같이 네임스페이스를 해석하지 않는다.
+     *
+     * @return 초기화된 XMLReader
+     */
+    public XMLReader getXmlReader() throws ParserConfigurationException, SAXException {
+        SAXParser saxParser = saxParsers.get();
+        if (saxParser == null) {
+            SAXParserFactory factory = getSaxParserFactory();
+            synchronized (factory) {
+                saxParser = factory.newSAXParser();
+            }
+            saxParsers.set(saxParser);
+        } else {
+            saxParser.reset();
+        }
+        return saxParser.getXMLReader();
+    }
+
+    /**
+     * 현재 스레드의 DocumentBuilder / Transformer / XMLReader 를 버린다. 다음에 가져올 때 새로 만든다.
+     * (큰 파일을 처리한 뒤 호출하여, 늘어난 내부 버퍼가 스레드가 끝날 때까지 남지 않게 한다.)
+     */
+    public void discardThreadInstances() {
+        documentBuilders.remove();
+        transformers.remove();
+        saxParsers.remove();
+    }
+
+    /** SAXParserFactory 는 스트리밍 변환을 처음 사용할 때 생성한다. */
+    private SAXParserFactory getSaxParserFactory() {
+        SAXParserFactory factory = saxParserFactory;
+        if (factory == null) {
+            synchronized (this) {
+                factory = saxParserFactory;
+                if (factory == null) {
+                    factory = (saxParserFactoryClassName == null)
+                            ? SAXParserFactory.newInstance()
+                            : SAXParserFactory.newInstance(saxParserFactoryClassName, XmlParserPool.class.getClassLoader());
+                    saxParserFactory = factory;
+                }
+            }
+        }
+        return factory;
+    }
+}
@@ -0,0 +1,140 @@
+package com.diquest.ir.util;
+
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 한 번 읽어들인 XML 파일 내용
+ * XML 선언 태그는 앞부분 바이트에서 추출하고, 같은 바이트로 DOM 파싱을 한다.
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class XmlSource {
+
+    /** XML 선언 태그가 없을 경우 사용하는 기본 XML 선언 태그 */
+    public static final String DEFAULT_XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+
+    private static final byte[] XML_DECLARATION_PREFIX = "<?xml".getBytes(StandardCharsets.US_ASCII);
+
+    private final String systemId;
+    private final ByteBuffer content;
+    private String xmlDeclaration;
+
+    /**
+     * @param systemId 파싱 오류 메시지에 표시될 파일 위치
+     * @param content  파일 내용 (position 0 부터 limit 까지)
+     */
+    public XmlSource(String systemId, ByteBuffer content) {
+        this.systemId = systemId;
+        this.content = content;
+    }
+
+    /**
+     * @return 파싱 오류 메시지에 표시될 파일 위치
+     */
+    public String getSystemId() {
+        return systemId;
+    }
+
+    /**
+     * @return 파일 크기 (byte)
+     */
+    public int getLength() {
+        return content.limit();
+    }
+
+    /**
+     * @return 파일 내용 (읽기 전용 복사본, 원본 위치는 변하지 않는다.)
+     */
+    public ByteBuffer getContent() {
+        return content.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return 파일 내용을 처음부터 읽는 스트림
+     */
+    public InputStream openStream() {
+        return new ByteBufferInputStream(content.duplicate());
+    }
+
+    /**
+     * 파일 첫 줄이 XML 선언 태그일 경우 첫 줄을, 아닐 경우 기본 XML 선언 태그를 돌려준다.
+     *
+     * @return XML 선언 태그
+     */
+    public String getXmlDeclaration() {
+        if (xmlDeclaration == null) {
+            xmlDeclaration = sniffXmlDeclaration();
+        }
+        return xmlDeclaration;
+    }
+
+    private String sniffXmlDeclaration() {
+        int length = content.limit();
+        if (length < XML_DECLARATION_PREFIX.length) {
+            return DEFAULT_XML_DECLARATION;
+        }
+        for (int idx = 0; idx < XML_DECLARATION_PREFIX.length; idx++) {
+            if (content.get(idx) != XML_DECLARATION_PREFIX[idx]) {
+                return DEFAULT_XML_DECLARATION;
+            }
+        }
+        int lineEnd = 0;
+        while (lineEnd < length && content.get(lineEnd) != '\n' && content.get(lineEnd) != '\r') {
+            lineEnd++;
+        }
+        byte[] firstLine = new byte[lineEnd];
+        for (int idx = 0; idx < lineEnd; idx++) {
+            firstLine[idx] = content.get(idx);
+        }
+        // 선언 태그 자체는 ASCII 이므로 먼저 ASCII 로 읽어 인코딩을 확인한 뒤 해당 인코딩으로 다시 읽는다.
+        Charset charset = XmlFileWriter.getDeclaredCharset(new String(firstLine, StandardCharsets.ISO_8859_1));
+        return new String(firstLine, charset);
+    }
+
+    /**
+     * ByteBuffer 를 읽는 InputStream
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int readLength = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, readLength);
+            return readLength;
+        }
+
+        @Override
+        public long skip(long count) {
+            int skipLength = (int) Math.max(0, Math.min(count, buffer.remaining()));
+            ((Buffer) buffer).position(buffer.position() + skipLength);
+            return skipLength;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
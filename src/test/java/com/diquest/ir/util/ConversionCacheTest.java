@@ -0,0 +1,188 @@
+package com.diquest.ir.util;
+
+import static com.diquest.ir.util.SettingFixtures.utf8;
+import static com.diquest.ir.util.SettingFixtures.watcher;
+import static com.diquest.ir.util.SettingFixtures.write;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * dbwatcher 설정 파일 변환 결과 캐시의 키 정규화, 캐시된 결과 재사용, 변환 중인 키의 선점을 확인하는 테스트
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class ConversionCacheTest {
+
+    private static final String SETTING_PATH = "C1/dbwatcher/watcher.xml";
+    private static final String SQL_TAGS =
+            "  <fullCollectSql>SELECT * FROM T WHERE ID = 'w1'</fullCollectSql>\n"
+            + "  <updateIdSelectSql>SELECT ID FROM T</updateIdSelectSql>\n"
+            + "  <incCollectSql>SELECT * FROM T WHERE ID IN (?)</incCollectSql>\n";
+    /** 캐시 키를 만들 수 있는 id 와 원본 내용으로만 캐시 키를 만드는 id */
+    private static final String[] IDS = {
+            "w1", "watcher_02", "한글", "", "a&amp;b", "<![CDATA[c1]]>", " w1 ", "<!-- id -->w2"
+    };
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void templateKeyIgnoresOnlyIdValue() {
+        String key = template(watcher("w1", SQL_TAGS)).getKey();
+        assertEquals(key, template(watcher("other_id", SQL_TAGS)).getKey());
+        assertNotEquals(key, template(watcher("w1", SQL_TAGS.replace("FROM T", "FROM U"))).getKey());
+        assertNotEquals(key, DbWatcherTemplate.create(source(watcher("w1", SQL_TAGS)), "other-parameters").getKey());
+    }
+
+    @Test
+    public void unsafeIdIsNotNormalized() {
+        // 빈 id, 엔티티 참조, CDATA 는 자리표시자로 바꾸지 않고 원본 내용이 같은 파일끼리만 키를 공유한다.
+        for (String id : new String[] {"", "a&amp;b", "<![CDATA[c1]]>"}) {
+            String content = watcher(id, SQL_TAGS);
+            XmlSource source = source(content);
+            DbWatcherTemplate template = DbWatcherTemplate.create(source, "parameters");
+            assertSame(id, source, template.getNormalizedSource());
+            assertEquals(id, template.getKey(), template(content).getKey());
+            assertNotEquals(id, template(watcher("w1", SQL_TAGS)).getKey(), template.getKey());
+        }
+        // 주석 안의 id 태그는 건너뛰고 첫 번째 id 태그의 값을 바꾼다.
+        String commented = "<dbwatcher>\n  <!-- <id>x</id> -->\n  <id>w2</id>\n" + SQL_TAGS + "</dbwatcher>\n";
+        assertEquals(template(commented.replace("w2", "w3")).getKey(), template(commented).getKey());
+        assertNotEquals(template(commented.replace(">x<", ">y<")).getKey(), template(commented).getKey());
+    }
+
+    @Test
+    public void renderReplacesPlaceholderWithUpperCaseId() {
+        byte[] converted = utf8("<id>" + DbWatcherTemplate.ID_PLACEHOLDER + "</id>");
+        assertArrayEquals(utf8("<id>WATCHER_02</id>"),
+                template(watcher("watcher_02", SQL_TAGS)).render(converted));
+        assertSame(converted, template(watcher("a&amp;b", SQL_TAGS)).render(converted));
+    }
+
+    @Test
+    public void cachedOutputMatchesUncachedOutput() throws Exception {
+        for (boolean streaming : new boolean[] {true, false}) {
+            XmlFileProcessor cachedProcessor = new XmlFileProcessor("/ir4", "/ir5");
+            cachedProcessor.setStreamingDbWatcher(streaming);
+            cachedProcessor.setConversionCache(new ConversionCache(ConversionCache.DEFAULT_MEMORY_BYTES, null));
+            XmlFileProcessor processor = new XmlFileProcessor("/ir4", "/ir5");
+            processor.setStreamingDbWatcher(streaming);
+            // 같은 템플릿을 두 번씩 변환하여 두 번째는 캐시된 결과를 사용하게 한다.
+            for (int round = 0; round < 2; round++) {
+                for (String id : IDS) {
+                    byte[] content = utf8(watcher(id, SQL_TAGS));
+                    assertArrayEquals(streaming + " " + id,
+                            processor.convert(SETTING_PATH, content).getContent(),
+                            cachedProcessor.convert(SETTING_PATH, content).getContent());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void concurrentDuplicatesMatchUncachedOutput() throws IOException {
+        File inputFolder = temporaryFolder.newFolder("m4", "setting");
+        for (int idx = 0; idx < 32; idx++) {
+            write(new File(inputFolder, "C1/dbwatcher/w" + idx + ".xml"), watcher("w" + idx, SQL_TAGS));
+        }
+        File cachedOutput = new File(temporaryFolder.getRoot(), "m5-cached");
+        File uncachedOutput = new File(temporaryFolder.getRoot(), "m5");
+        XmlFileProcessor cachedProcessor = new XmlFileProcessor("/ir4", "/ir5");
+        cachedProcessor.setConversionCache(new ConversionCache(ConversionCache.DEFAULT_MEMORY_BYTES, null));
+        assertFalse(cachedProcessor.convertSettingFiles(inputFolder.getPath(), cachedOutput.getPath(), 4).hasFailures());
+        assertFalse(new XmlFileProcessor("/ir4", "/ir5").convertSettingFiles(inputFolder.getPath(), uncachedOutput.getPath(), 1).hasFailures());
+
+        for (int idx = 0; idx < 32; idx++) {
+            String path = "C1/dbwatcher/W" + idx + ".xml";
+            assertArrayEquals(path,
+                    Files.readAllBytes(new File(uncachedOutput, path).toPath()),
+                    Files.readAllBytes(new File(cachedOutput, path).toPath()));
+        }
+    }
+
+    @Test
+    public void diskEntriesSurviveNewCache() throws Exception {
+        byte[] content = utf8("<converted/>");
+        ConversionCache.Claim claim = new ConversionCache(0, temporaryFolder.getRoot().toPath()).claim("0123abcd");
+        assertNull(claim.getCachedContent());
+        claim.complete(content);
+
+        ConversionCache reopened = new ConversionCache(ConversionCache.DEFAULT_MEMORY_BYTES, temporaryFolder.getRoot().toPath());
+        assertArrayEquals(content, reopened.claim("0123abcd").getCachedContent());
+    }
+
+    @Test
+    public void claimWaitsForOwner() throws Exception {
+        ConversionCache cache = new ConversionCache(ConversionCache.DEFAULT_MEMORY_BYTES, null);
+        ConversionCache.Claim owner = cache.claim("key");
+        assertNull(owner.getCachedContent());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ConversionCache.Claim> waiter = executor.submit(() -> cache.claim("key"));
+            assertWaiting(waiter);
+            byte[] content = utf8("<converted/>");
+            owner.complete(content);
+            assertArrayEquals(content, waiter.get(10, TimeUnit.SECONDS).getCachedContent());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void abandonedClaimIsTakenOver() throws Exception {
+        ConversionCache cache = new ConversionCache(ConversionCache.DEFAULT_MEMORY_BYTES, null);
+        ConversionCache.Claim owner = cache.claim("key");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ConversionCache.Claim> waiter = executor.submit(() -> cache.claim("key"));
+            assertWaiting(waiter);
+            owner.abandon();
+            // 선점한 작업이 변환하지 못했으면 기다리던 작업이 선점한다.
+            ConversionCache.Claim next = waiter.get(10, TimeUnit.SECONDS);
+            assertNull(next.getCachedContent());
+            next.complete(utf8("<converted/>"));
+            // 이미 끝난 선점은 다시 끝내도 무시한다.
+            owner.complete(utf8("<ignored/>"));
+            assertArrayEquals(utf8("<converted/>"), cache.claim("key").getCachedContent());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertWaiting(Future<?> waiter) throws Exception {
+        try {
+            waiter.get(200, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return;
+        }
+        fail("waiter returned before the owner finished");
+    }
+
+    private static DbWatcherTemplate template(String content) {
+        return DbWatcherTemplate.create(source(content), "parameters");
+    }
+
+    private static XmlSource source(String content) {
+        return new XmlSource("file:/" + SETTING_PATH, ByteBuffer.wrap(utf8(content)));
+    }
+}
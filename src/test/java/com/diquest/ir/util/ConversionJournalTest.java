@@ -0,0 +1,203 @@
+package com.diquest.ir.util;
+
+import static com.diquest.ir.util.SettingFixtures.read;
+import static com.diquest.ir.util.SettingFixtures.utf8;
+import static com.diquest.ir.util.SettingFixtures.watcher;
+import static com.diquest.ir.util.SettingFixtures.write;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 이어서 변환하기 위한 저널의 기록/읽기, 잘리거나 손상된 줄 무시, 중단된 실행이 남긴 임시 파일 정리를 확인하는 테스트
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class ConversionJournalTest {
+
+    private static final String WATCHER_OUTPUT = "<converted/>";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File inputFolder;
+    private File outputFolder;
+    private File watcherFile;
+    private File listFile;
+    private File watcherOutput;
+
+    @Before
+    public void setUp() throws IOException {
+        inputFolder = temporaryFolder.newFolder("m4", "setting");
+        outputFolder = new File(temporaryFolder.getRoot(), "m5/setting");
+        watcherFile = write(new File(inputFolder, "C1/dbwatcher/w1.xml"), watcher("w1"));
+        listFile = write(new File(inputFolder, "C1/dbwatcher/list.xml"), "<list><element id=\"w1\"/></list>");
+        watcherOutput = write(new File(outputFolder, "C1/dbwatcher/W1.xml"), WATCHER_OUTPUT);
+    }
+
+    @Test
+    public void recordedFilesAreCompletedOnResume() throws IOException {
+        recordWatcher(open(false));
+
+        ConversionJournal journal = open(true);
+        assertEquals(watcherOutput.getPath(), journal.getCompletedOutput(watcherFile, watcherFile.length(), watcherFile.lastModified()));
+        // 원본이 바뀌었으면 다시 변환한다.
+        assertNull(journal.getCompletedOutput(watcherFile, watcherFile.length() + 1, watcherFile.lastModified()));
+        assertNull(journal.getCompletedOutput(watcherFile, watcherFile.length(), watcherFile.lastModified() + 1000));
+        assertNull(journal.getCompletedOutput(listFile, listFile.length(), listFile.lastModified()));
+        journal.close(false);
+
+        // 출력 파일이 지워졌으면 다시 변환한다.
+        assertTrue(watcherOutput.delete());
+        journal = open(true);
+        assertNull(journal.getCompletedOutput(watcherFile, watcherFile.length(), watcherFile.lastModified()));
+        journal.close(false);
+    }
+
+    @Test
+    public void damagedOutputIsConvertedAgain() throws IOException {
+        File copiedOutput = new File(outputFolder, "C1/dbwatcher/list.xml");
+        Files.copy(listFile.toPath(), copiedOutput.toPath());
+        ConversionJournal journal = open(false);
+        journal.record(watcherFile, watcherFile.length(), watcherFile.lastModified(), watcherOutput.getPath(), utf8(WATCHER_OUTPUT));
+        journal.record(listFile, listFile.length(), listFile.lastModified(), copiedOutput.getPath(), null);
+        journal.close(false);
+
+        journal = open(true);
+        assertEquals(copiedOutput.getPath(), journal.getCompletedOutput(listFile, listFile.length(), listFile.lastModified()));
+        journal.close(false);
+
+        // 전원이 꺼져 이름만 바뀌고 내용은 디스크에 남지 않은 출력 파일 (크기는 같고 내용은 0)
+        Files.write(watcherOutput.toPath(), new byte[(int) watcherOutput.length()]);
+        // 그대로 복사한 파일은 원본 내용과 비교한다.
+        Files.write(copiedOutput.toPath(), new byte[0]);
+        journal = open(true);
+        assertNull(journal.getCompletedOutput(watcherFile, watcherFile.length(), watcherFile.lastModified()));
+        assertNull(journal.getCompletedOutput(listFile, listFile.length(), listFile.lastModified()));
+        journal.close(false);
+    }
+
+    @Test
+    public void damagedLinesAreIgnored() throws IOException {
+        ConversionJournal journal = open(false);
+        journal.record(watcherFile, watcherFile.length(), watcherFile.lastModified(), watcherOutput.getPath(), utf8(WATCHER_OUTPUT));
+        journal.record(listFile, listFile.length(), listFile.lastModified(), null, null);
+        journal.close(false);
+
+        Path journalFile = getJournalFile();
+        List<String> lines = new ArrayList<>();
+        for (String line : Files.readAllLines(journalFile, StandardCharsets.UTF_8)) {
+            if (line.startsWith("C1/dbwatcher/w1.xml")) {
+                line = line.replace("w1.xml", "w2.xml");    // CRC 와 맞지 않는 줄
+            } else if (line.startsWith("C1/dbwatcher/list.xml")) {
+                line = line.substring(0, line.length() - 3);    // 기록 도중 잘린 줄
+            }
+            lines.add(line);
+        }
+        Files.write(journalFile, lines, StandardCharsets.UTF_8);
+
+        journal = open(true);
+        assertNull(journal.getCompletedOutput(watcherFile, watcherFile.length(), watcherFile.lastModified()));
+        assertNull(journal.getCompletedOutput(new File(watcherFile.getParentFile(), "w2.xml"), watcherFile.length(), watcherFile.lastModified()));
+        assertNull(journal.getCompletedOutput(listFile, listFile.length(), listFile.lastModified()));
+        journal.close(false);
+    }
+
+    @Test
+    public void unterminatedLastLineIsNotContinued() throws IOException {
+        ConversionJournal journal = open(false);
+        journal.record(listFile, listFile.length(), listFile.lastModified(), null, null);
+        journal.close(false);
+        // 중단된 실행이 마지막 줄을 끝까지 기록하지 못한 경우
+        Files.write(getJournalFile(), utf8("C1/dbwatcher/w1.xml\t12"), StandardOpenOption.APPEND);
+
+        recordWatcher(open(true));
+
+        journal = open(true);
+        assertEquals("", journal.getCompletedOutput(listFile, listFile.length(), listFile.lastModified()));
+        assertEquals(watcherOutput.getPath(), journal.getCompletedOutput(watcherFile, watcherFile.length(), watcherFile.lastModified()));
+        journal.close(false);
+    }
+
+    @Test
+    public void changedParametersDiscardRecords() throws IOException {
+        recordWatcher(open(false));
+
+        ConversionJournal journal = ConversionJournal.open(
+                inputFolder.getPath(), outputFolder.getPath(), XmlFileProcessor.CONVERTER_VERSION, "/ir4", "/other", true);
+        assertNull(journal.getCompletedOutput(watcherFile, watcherFile.length(), watcherFile.lastModified()));
+        journal.close(false);
+    }
+
+    @Test
+    public void completedJournalIsDeleted() throws IOException {
+        ConversionJournal journal = open(false);
+        assertTrue(Files.isRegularFile(getJournalFile()));
+        journal.close(true);
+        assertFalse(Files.exists(getJournalFile()));
+    }
+
+    @Test
+    public void resumeRemovesOrphanedTempFiles() throws IOException {
+        File orphanedOutput = write(new File(outputFolder, "C1/dbwatcher/W2.xml" + XmlFileWriter.TEMP_FILE_SUFFIX), "<partial");
+        File orphanedManifest = write(new File(outputFolder, ConversionManifest.MANIFEST_FILE_NAME + XmlFileWriter.TEMP_FILE_SUFFIX), "#");
+        File otherFile = write(new File(outputFolder, "C1/notes.txt" + XmlFileWriter.TEMP_FILE_SUFFIX), "notes");
+
+        // 이어서 변환하지 않을 때는 임시 파일을 그대로 둔다.
+        open(false).close(false);
+        assertTrue(orphanedOutput.exists());
+
+        open(true).close(false);
+        assertFalse(orphanedOutput.exists());
+        assertFalse(orphanedManifest.exists());
+        assertTrue(otherFile.exists());
+        assertTrue(watcherOutput.exists());
+    }
+
+    @Test
+    public void resumeSkipsConvertedFiles() throws IOException {
+        recordWatcher(open(false));
+
+        XmlFileProcessor xmlFileProcessor = new XmlFileProcessor("/ir4", "/ir5");
+        xmlFileProcessor.setResume(true);
+        ConversionResult result = xmlFileProcessor.convertSettingFiles(inputFolder.getPath(), outputFolder.getPath(), 2);
+
+        assertFalse(String.valueOf(result.getFailures()), result.hasFailures());
+        assertEquals(1, result.getResumedCount());
+        assertEquals(1, result.getProcessedCount());
+        // 저널에 기록된 파일은 다시 변환하지 않는다.
+        assertEquals(WATCHER_OUTPUT, read(watcherOutput));
+        assertTrue(new File(outputFolder, "C1/dbwatcher/list.xml").isFile());
+        // 모든 파일을 변환했으면 저널을 삭제한다.
+        assertFalse(Files.exists(getJournalFile()));
+    }
+
+    private void recordWatcher(ConversionJournal journal) throws IOException {
+        journal.record(watcherFile, watcherFile.length(), watcherFile.lastModified(), watcherOutput.getPath(), utf8(WATCHER_OUTPUT));
+        journal.close(false);
+    }
+
+    private ConversionJournal open(boolean resume) throws IOException {
+        return ConversionJournal.open(inputFolder.getPath(), outputFolder.getPath(), XmlFileProcessor.CONVERTER_VERSION, "/ir4", "/ir5", resume);
+    }
+
+    private Path getJournalFile() {
+        return outputFolder.toPath().resolve(ConversionJournal.JOURNAL_FILE_NAME);
+    }
+}
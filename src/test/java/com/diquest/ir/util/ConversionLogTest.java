@@ -0,0 +1,259 @@
+package com.diquest.ir.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 이벤트 수준별 콘솔/로그 파일 기록, 로그 파일의 JSON 문자열 이스케이프, 종료 시 남은 이벤트 기록을 확인하는 테스트
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class ConversionLogTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File logFile;
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Before
+    public void setUp() throws IOException {
+        logFile = new File(temporaryFolder.getRoot(), "logs/convert.log");
+        originalOut = System.out;
+        originalErr = System.err;
+        System.setOut(new PrintStream(out, true, "UTF-8"));
+        System.setErr(new PrintStream(err, true, "UTF-8"));
+    }
+
+    @After
+    public void tearDown() {
+        ConversionLog.close();
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    @Test
+    public void levelFiltersConsoleAndLogFile() throws IOException {
+        configure("--log-level=warn");
+        logEachLevel();
+        ConversionLog.close();
+
+        assertEquals(Arrays.asList("warn", "error"), levels(readLogFile()));
+        assertFalse(console(out).contains("debug message"));
+        assertFalse(console(out).contains("info message"));
+        assertTrue(console(out).contains("warn message"));
+        assertTrue(console(err).contains("error message"));
+    }
+
+    @Test
+    public void quietPrintsWarningsButLogsEverything() throws IOException {
+        configure("--log-level=debug", "--quiet");
+        logEachLevel();
+        ConversionLog.saved(new File("C1/dbwatcher/a.xml"), "Processed: ", "out/C1/dbwatcher/A.xml");
+        ConversionLog.summary("summary message");
+        ConversionLog.summaryFailure("summary failure");
+        ConversionLog.close();
+
+        assertEquals(Arrays.asList("debug", "info", "warn", "error", "info", "summary", "summary"), levels(readLogFile()));
+        assertEquals("warn message" + System.lineSeparator() + "summary message" + System.lineSeparator(), console(out));
+        assertTrue(console(err).startsWith("error message : java.lang.IllegalStateException: cause"));
+        assertTrue(console(err).endsWith("summary failure" + System.lineSeparator()));
+    }
+
+    @Test
+    public void summaryPrintsOnlySummary() throws IOException {
+        configure("--summary");
+        logEachLevel();
+        ConversionLog.summary("summary message");
+        ConversionLog.summaryFailure("summary failure");
+        ConversionLog.close();
+
+        assertEquals(Arrays.asList("info", "warn", "error", "summary", "summary"), levels(readLogFile()));
+        assertEquals("summary message" + System.lineSeparator(), console(out));
+        assertEquals("summary failure" + System.lineSeparator(), console(err));
+    }
+
+    @Test
+    public void logFileEscapesJsonStrings() throws IOException {
+        String message = "따옴표 \" 역슬래시 \\ 줄바꿈\n탭\t복귀\r제어\u0001문자 끝";
+        File xmlFile = new File("수집/dbwatcher/\"감시\".xml");
+        configure();
+        ConversionLog.warn(message);
+        ConversionLog.saved(xmlFile, "Copied: ", "출력/\tA.xml");
+        ConversionLog.close();
+
+        List<String> lines = Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0), lines.get(0).contains("\\u0001"));
+        Map<String, String> warning = parseJson(lines.get(0));
+        assertEquals("warn", warning.get("level"));
+        assertEquals("message", warning.get("event"));
+        assertEquals(message, warning.get("message"));
+        Map<String, String> saved = parseJson(lines.get(1));
+        assertEquals("saved", saved.get("event"));
+        assertEquals(xmlFile.getPath(), saved.get("file"));
+        assertEquals("출력/\tA.xml", saved.get("output"));
+        assertEquals("Copied", saved.get("message"));
+    }
+
+    @Test
+    public void closeWritesQueuedEvents() throws IOException {
+        configure("--summary");
+        int eventCount = 20000;
+        for (int i = 0; i < eventCount; i++) {
+            ConversionLog.info("event " + i);
+        }
+        ConversionLog.close();
+
+        List<Map<String, String>> events = readLogFile();
+        assertEquals(eventCount, events.size());
+        assertEquals("event " + (eventCount - 1), events.get(eventCount - 1).get("message"));
+    }
+
+    @Test
+    public void exitWritesQueuedEvents() throws Exception {
+        Process process = new ProcessBuilder(
+                new File(System.getProperty("java.home"), "bin/java").getPath(),
+                "-cp", System.getProperty("java.class.path"),
+                ExitAfterLogging.class.getName(), logFile.getPath()
+        ).redirectErrorStream(true).redirectOutput(temporaryFolder.newFile("exit.out")).start();
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+        assertEquals(3, process.exitValue());
+
+        List<Map<String, String>> events = readLogFile();
+        assertEquals(ExitAfterLogging.EVENT_COUNT + 1, events.size());
+        assertEquals("summary", events.get(ExitAfterLogging.EVENT_COUNT).get("level"));
+    }
+
+    /**
+     * 이벤트를 기록한 직후 System.exit 로 종료하는 프로세스
+     */
+    public static class ExitAfterLogging {
+
+        static final int EVENT_COUNT = 20000;
+
+        public static void main(String[] args) throws IOException {
+            ConvertorOptions.parse(new String[] {"--summary", "--log-file=" + args[0]}, 0).configureLog();
+            for (int i = 0; i < EVENT_COUNT; i++) {
+                ConversionLog.info("event " + i);
+            }
+            ConversionLog.summary("exiting");
+            System.exit(3);
+        }
+    }
+
+    private void configure(String... options) throws IOException {
+        String[] args = new String[options.length + 1];
+        System.arraycopy(options, 0, args, 0, options.length);
+        args[options.length] = "--log-file=" + logFile.getPath();
+        ConvertorOptions.parse(args, 0).configureLog();
+    }
+
+    private static void logEachLevel() {
+        ConversionLog.debug("debug message");
+        ConversionLog.info("info message");
+        ConversionLog.warn("warn message");
+        ConversionLog.error("error message", new IllegalStateException("cause"));
+    }
+
+    private static String console(ByteArrayOutputStream console) throws UnsupportedEncodingException {
+        return console.toString("UTF-8");
+    }
+
+    private List<Map<String, String>> readLogFile() throws IOException {
+        List<Map<String, String>> events = new ArrayList<>();
+        for (String line : Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8)) {
+            events.add(parseJson(line));
+        }
+        return events;
+    }
+
+    private static List<String> levels(List<Map<String, String>> events) {
+        List<String> levels = new ArrayList<>();
+        for (Map<String, String> event : events) {
+            levels.add(event.get("level"));
+        }
+        return levels;
+    }
+
+    /**
+     * 로그 파일 1줄(문자열 값만 있는 JSON 객체)을 읽는다.
+     */
+    private static Map<String, String> parseJson(String line) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        int[] position = {skipSpaces(line, expect(line, 0, '{'))};
+        while (line.charAt(position[0]) != '}') {
+            String name = parseJsonString(line, position);
+            position[0] = skipSpaces(line, expect(line, position[0], ':'));
+            fields.put(name, parseJsonString(line, position));
+            if (line.charAt(position[0]) == ',') {
+                position[0] = skipSpaces(line, position[0] + 1);
+            }
+        }
+        assertEquals(line, line.length() - 1, position[0]);
+        return fields;
+    }
+
+    private static String parseJsonString(String line, int[] position) {
+        StringBuilder value = new StringBuilder();
+        int idx = expect(line, position[0], '"');
+        while (line.charAt(idx) != '"') {
+            char ch = line.charAt(idx++);
+            assertTrue("이스케이프하지 않은 제어 문자: " + line, ch >= 0x20);
+            if (ch == '\\') {
+                char escaped = line.charAt(idx++);
+                switch (escaped) {
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        value.append((char) Integer.parseInt(line.substring(idx, idx + 4), 16));
+                        idx += 4;
+                        break;
+                    default: value.append(escaped);
+                }
+            } else {
+                value.append(ch);
+            }
+        }
+        position[0] = skipSpaces(line, idx + 1);
+        return value.toString();
+    }
+
+    private static int expect(String line, int idx, char expected) {
+        assertEquals(line, expected, line.charAt(idx));
+        return idx + 1;
+    }
+
+    private static int skipSpaces(String line, int idx) {
+        while (idx < line.length() && line.charAt(idx) == ' ') {
+            idx++;
+        }
+        return idx;
+    }
+}
@@ -0,0 +1,112 @@
+package com.diquest.ir.util;
+
+import static com.diquest.ir.util.SettingFixtures.fullCollectSql;
+import static com.diquest.ir.util.SettingFixtures.read;
+import static com.diquest.ir.util.SettingFixtures.watcher;
+import static com.diquest.ir.util.SettingFixtures.write;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 증분 변환 시 바뀌지 않은 파일을 건너뛰고 원본이 삭제된 출력 파일을 정리하는지 확인하는 테스트
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class ConversionManifestTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File inputFolder;
+    private File outputFolder;
+    private File watcherFile;
+    private final XmlFileProcessor xmlFileProcessor = new XmlFileProcessor("/ir4", "/ir5");
+
+    @Before
+    public void setUp() throws IOException {
+        inputFolder = temporaryFolder.newFolder("m4", "setting");
+        outputFolder = new File(temporaryFolder.getRoot(), "m5/setting");
+        write(new File(inputFolder, "collectionList.xml"), "<collectionList><collection id=\"C1\"/></collectionList>");
+        write(new File(inputFolder, "C1/dbwatcher/list.xml"), "<list><element id=\"w1\"/></list>");
+        watcherFile = new File(inputFolder, "C1/dbwatcher/w1.xml");
+        write(watcherFile, watcher("w1"));
+        xmlFileProcessor.setIncremental(true);
+    }
+
+    @Test
+    public void unchangedFilesAreSkipped() throws IOException {
+        ConversionResult first = convert();
+        assertEquals(3, first.getProcessedCount());
+        assertEquals(0, first.getSkippedCount());
+        assertTrue(new File(outputFolder, ConversionManifest.MANIFEST_FILE_NAME).isFile());
+
+        ConversionResult second = convert();
+        assertEquals(0, second.getProcessedCount());
+        assertEquals(3, second.getSkippedCount());
+    }
+
+    @Test
+    public void touchedFileWithSameContentIsSkipped() throws IOException {
+        convert();
+        assertTrue(watcherFile.setLastModified(watcherFile.lastModified() - 60_000));
+
+        ConversionResult result = convert();
+        assertEquals(0, result.getProcessedCount());
+        assertEquals(3, result.getSkippedCount());
+    }
+
+    @Test
+    public void changedFileIsConvertedAgain() throws IOException {
+        convert();
+        write(watcherFile, watcher("w1", fullCollectSql("SELECT * FROM CHANGED")));
+
+        ConversionResult result = convert();
+        assertEquals(1, result.getProcessedCount());
+        assertEquals(2, result.getSkippedCount());
+        String converted = read(new File(outputFolder, "C1/dbwatcher/W1.xml"));
+        assertTrue(converted, converted.contains("SELECT * FROM CHANGED"));
+    }
+
+    @Test
+    public void outputOfDeletedSourceIsPruned() throws IOException {
+        File watcherOutput = new File(outputFolder, "C1/dbwatcher/W1.xml");
+        convert();
+        assertTrue(watcherOutput.isFile());
+        assertTrue(watcherFile.delete());
+
+        ConversionResult result = convert();
+        assertEquals(1, result.getPrunedCount());
+        assertEquals(2, result.getSkippedCount());
+        assertFalse(watcherOutput.exists());
+
+        // 정리한 항목은 매니페스트에서도 빠지므로 다시 정리하지 않는다.
+        assertEquals(0, convert().getPrunedCount());
+    }
+
+    @Test
+    public void outputDeletedByUserIsConvertedAgain() throws IOException {
+        File watcherOutput = new File(outputFolder, "C1/dbwatcher/W1.xml");
+        convert();
+        assertTrue(watcherOutput.delete());
+
+        ConversionResult result = convert();
+        assertEquals(1, result.getProcessedCount());
+        assertTrue(watcherOutput.isFile());
+    }
+
+    private ConversionResult convert() {
+        ConversionResult result = xmlFileProcessor.convertSettingFiles(inputFolder.getPath(), outputFolder.getPath());
+        assertFalse(String.valueOf(result.getFailures()), result.hasFailures());
+        return result;
+    }
+}
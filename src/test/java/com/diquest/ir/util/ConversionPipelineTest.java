@@ -0,0 +1,69 @@
+package com.diquest.ir.util;
+
+import static com.diquest.ir.util.SettingFixtures.watcher;
+import static com.diquest.ir.util.SettingFixtures.write;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.zip.ZipFile;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 파이프라인 변환 시 저장 경로가 겹치는 파일(a.xml, A.xml)을 하나만 변환하는지 확인하는 테스트
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class ConversionPipelineTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File inputFolder;
+    private final XmlFileProcessor xmlFileProcessor = new XmlFileProcessor("/ir4", "/ir5");
+
+    @Before
+    public void setUp() throws IOException {
+        inputFolder = temporaryFolder.newFolder("m4", "setting");
+        write(new File(inputFolder, "C1/dbwatcher/a.xml"), watcher("a"));
+        write(new File(inputFolder, "C1/dbwatcher/A.xml"), watcher("A"));
+        write(new File(inputFolder, "C1/dbwatcher/b.xml"), watcher("b"));
+    }
+
+    @Test
+    public void duplicateOutputIsRejectedOnce() throws IOException {
+        for (int workerCount : new int[] {1, 4}) {
+            File outputFolder = new File(temporaryFolder.getRoot(), "m5-" + workerCount);
+            ConversionResult result = xmlFileProcessor.convertSettingFiles(inputFolder.getPath(), outputFolder.getPath(), workerCount);
+
+            assertEquals(2, result.getProcessedCount());
+            assertEquals(1, result.getFailures().size());
+            File rejectedFile = result.getFailures().get(0).getFile();
+            assertTrue(rejectedFile.getName(), rejectedFile.getName().equalsIgnoreCase("a.xml"));
+            assertTrue(new File(outputFolder, "C1/dbwatcher/A.xml").isFile());
+            assertTrue(new File(outputFolder, "C1/dbwatcher/B.xml").isFile());
+        }
+    }
+
+    @Test
+    public void duplicateOutputDoesNotAbortArchive() throws IOException {
+        File outputArchive = new File(temporaryFolder.getRoot(), "m5-setting.zip");
+        ConversionResult result = xmlFileProcessor.convertSettingFiles(inputFolder.getPath(), outputArchive.getPath(), 2);
+
+        // 저장 경로가 겹쳐 건너뛴 항목은 파일별 실패로만 기록하고 압축 파일은 만든다.
+        assertEquals(2, result.getProcessedCount());
+        assertEquals(1, result.getFailures().size());
+        try (ZipFile zipFile = new ZipFile(outputArchive)) {
+            assertEquals(2, zipFile.size());
+            assertNotNull(zipFile.getEntry("C1/dbwatcher/A.xml"));
+            assertNotNull(zipFile.getEntry("C1/dbwatcher/B.xml"));
+        }
+    }
+}
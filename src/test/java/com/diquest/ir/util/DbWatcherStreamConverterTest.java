@@ -0,0 +1,123 @@
+package com.diquest.ir.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * dbwatcher 설정 파일의 스트리밍 변환 결과가 DOM 변환 결과와 같은지 확인하는 테스트
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class DbWatcherStreamConverterTest {
+
+    private static final String SETTING_PATH = "C1/dbwatcher/watcher.xml";
+    private static final String SQL_TAGS =
+            "  <fullCollectSqlPre>DELETE FROM T</fullCollectSqlPre>\n"
+            + "  <fullCollectSql>SELECT * FROM T</fullCollectSql>\n"
+            + "  <fullCollectSqlPost></fullCollectSqlPost>\n"
+            + "  <autoUpdateCheckPre>UPDATE X SET Y=1</autoUpdateCheckPre>\n"
+            + "  <updateIdSelectSql>SELECT ID FROM T</updateIdSelectSql>\n"
+            + "  <incCollectSql>SELECT * FROM T WHERE ID IN (?)</incCollectSql>\n"
+            + "  <autoUpdateCheckPost>UPDATE X SET Y=0</autoUpdateCheckPost>\n"
+            + "  <manualUpdateCheckPost>a</manualUpdateCheckPost>\n"
+            + "  <manualUpdateCheckPost>b</manualUpdateCheckPost>\n";
+
+    private final XmlFileProcessor streamProcessor = new XmlFileProcessor("/ir4", "/ir5");
+    private final XmlFileProcessor domProcessor = new XmlFileProcessor("/ir4", "/ir5");
+
+    public DbWatcherStreamConverterTest() {
+        domProcessor.setStreamingDbWatcher(false);
+    }
+
+    @Test
+    public void cdataAndComments() throws Exception {
+        assertSameOutput(declaration("UTF-8")
+                + "<dbwatcher b=\"1\" a=\"2\">\n"
+                + "  <id>watcher1</id>\n"
+                + "  <!-- SQL 목록 -->\n"
+                + "  <fullCollectSql><![CDATA[SELECT * FROM T WHERE A < 3 AND B > 'x']]></fullCollectSql>\n"
+                + "  <incCollectSql>SELECT 1 <!-- 주석 --> FROM <![CDATA[T]]></incCollectSql>\n"
+                + "  <?pi data?>\n"
+                + "</dbwatcher>\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void internalDtdEntities() throws Exception {
+        assertSameOutput(declaration("UTF-8")
+                + "<!DOCTYPE dbwatcher [<!ENTITY table \"T_ENTITY\">]>\n"
+                + "<dbwatcher>\n"
+                + "  <id>&table;</id>\n"
+                + "  <fullCollectSql>SELECT * FROM &table; WHERE A &lt; 3</fullCollectSql>\n"
+                + SQL_TAGS
+                + "</dbwatcher>\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void utf8ByteOrderMark() throws Exception {
+        byte[] body = (declaration("UTF-8") + "<dbwatcher>\n  <id>bom</id>\n" + SQL_TAGS + "</dbwatcher>\n")
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] content = new byte[body.length + 3];
+        content[0] = (byte) 0xEF;
+        content[1] = (byte) 0xBB;
+        content[2] = (byte) 0xBF;
+        System.arraycopy(body, 0, content, 3, body.length);
+        assertSameOutput(content);
+    }
+
+    @Test
+    public void crlfLineEndings() throws Exception {
+        assertSameOutput((declaration("UTF-8") + "<dbwatcher>\n  <id>crlf</id>\n" + SQL_TAGS
+                + "  <fullCollectSql>SELECT *\n  FROM T\n</fullCollectSql>\n</dbwatcher>\n")
+                .replace("\n", "\r\n"), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void nonUtf8Encoding() throws Exception {
+        assertSameOutput(declaration("EUC-KR")
+                + "<dbwatcher>\n  <id>한글</id>\n" + SQL_TAGS
+                + "  <fullCollectSql>SELECT '가나다' FROM T</fullCollectSql>\n</dbwatcher>\n", Charset.forName("EUC-KR"));
+    }
+
+    @Test
+    public void namespaceDeclarations() throws Exception {
+        String[] roots = {
+                "<w:dbWatcher xmlns:w=\"urn:w\" xmlns=\"urn:d\" b=\"2\" a=\"1\">",
+                "<dbWatcher xmlns:z=\"urn:z\" xmlns=\"urn:d\" xmlns:a=\"urn:a\" b=\"2\">",
+                "<a:dbWatcher xmlns:z=\"urn:z\" xmlns=\"urn:d\" xmlns:a=\"urn:a\" b=\"2\">",
+                "<z:dbWatcher xmlns:z=\"urn:z\" xmlns:a=\"urn:a\">",
+                "<dbWatcher xmlns:b=\"urn:b\" xmlns:a=\"urn:a\" xmlns=\"urn:d\">",
+                "<dbWatcher A=\"1\" xmlns:b=\"urn:b\" _x=\"2\" Z=\"3\">",
+        };
+        for (String root : roots) {
+            String tagName = root.substring(1, root.indexOf(' '));
+            assertSameOutput(declaration("UTF-8") + root + "\n  <id>ns</id>\n" + SQL_TAGS
+                    + "  <x:q xmlns:x=\"urn:x\" xmlns:c=\"urn:c\" c=\"3\" xmlns:z=\"urn:z\" z:k=\"1\"/>\n"
+                    + "  <r xmlns=\"urn:r\" xmlns:y=\"urn:y\"><y:s xmlns:y=\"urn:y\"/><y:t xmlns:y=\"urn:y2\" xmlns:b=\"urn:b\"/></r>\n"
+                    + "</" + tagName + ">\n", StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String declaration(String encoding) {
+        return "<?xml version=\"1.0\" encoding=\"" + encoding + "\"?>\n";
+    }
+
+    private void assertSameOutput(String content, Charset charset) throws Exception {
+        assertSameOutput(content.getBytes(charset));
+    }
+
+    private void assertSameOutput(byte[] content) throws Exception {
+        ConvertedSetting streamed = streamProcessor.convert(SETTING_PATH, content);
+        ConvertedSetting dom = domProcessor.convert(SETTING_PATH, content);
+        assertNotNull(streamed);
+        assertNotNull(dom);
+        assertArrayEquals(new String(dom.getContent(), StandardCharsets.ISO_8859_1)
+                        + "\n----- stream -----\n" + new String(streamed.getContent(), StandardCharsets.ISO_8859_1),
+                dom.getContent(), streamed.getContent());
+    }
+}
@@ -0,0 +1,108 @@
+package com.diquest.ir.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * 메모리 한도를 넘는 예약이 반납될 때까지 기다리는지, 여러 스레드가 예약해도 한도를 넘지 않는지 확인하는 테스트
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class MemoryBudgetTest {
+
+    @Test
+    public void reserveWaitsUntilReleased() throws Exception {
+        MemoryBudget memoryBudget = new MemoryBudget(100);
+        long first = memoryBudget.reserve(70);
+        CountDownLatch reserved = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                memoryBudget.release(memoryBudget.reserve(40));
+                reserved.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        assertFalse(reserved.await(200, TimeUnit.MILLISECONDS));
+        memoryBudget.release(first);
+        assertTrue(reserved.await(5, TimeUnit.SECONDS));
+        waiter.join();
+    }
+
+    @Test
+    public void oversizedReservationRunsAlone() throws Exception {
+        MemoryBudget memoryBudget = new MemoryBudget(100);
+
+        // 진행 중인 작업이 없으면 한도보다 큰 작업도 바로 받아들인다.
+        long oversized = memoryBudget.reserve(500);
+        assertEquals(500, oversized);
+        CountDownLatch reserved = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                memoryBudget.release(memoryBudget.reserve(1));
+                reserved.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        assertFalse(reserved.await(200, TimeUnit.MILLISECONDS));
+        memoryBudget.release(oversized);
+        assertTrue(reserved.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(0, memoryBudget.reserve(0));
+    }
+
+    @Test
+    public void manyThreadsStayWithinLimit() throws Exception {
+        long limitBytes = 1000;
+        MemoryBudget memoryBudget = new MemoryBudget(limitBytes);
+        AtomicLong inUse = new AtomicLong();
+        AtomicLong maxInUse = new AtomicLong();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Random random = new Random(i);
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 200; j++) {
+                        long reserved = memoryBudget.reserve(1 + random.nextInt((int) limitBytes / 2));
+                        long current = inUse.addAndGet(reserved);
+                        maxInUse.accumulateAndGet(current, Math::max);
+                        Thread.yield();
+                        inUse.addAndGet(-reserved);
+                        memoryBudget.release(reserved);
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse("작업이 끝나지 않았습니다.", thread.isAlive());
+        }
+
+        assertNull(error.get());
+        assertTrue(String.valueOf(maxInUse.get()), maxInUse.get() <= limitBytes);
+        assertEquals(0, inUse.get());
+    }
+}
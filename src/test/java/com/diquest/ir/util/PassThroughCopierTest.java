@@ -0,0 +1,86 @@
+package com.diquest.ir.util;
+
+import static com.diquest.ir.util.SettingFixtures.utf8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 그대로 옮기는 파일을 복사하고, 대상 파일이 이미 같으면 복사하지 않는지 확인하는 테스트
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class PassThroughCopierTest {
+
+    private static final long SOURCE_MODIFIED = 1_500_000_000_000L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File source;
+    private File destination;
+
+    @Before
+    public void setUp() throws IOException {
+        source = temporaryFolder.newFile("collectionList.xml");
+        Files.write(source.toPath(), utf8("<collectionList/>"));
+        assertTrue(source.setLastModified(SOURCE_MODIFIED));
+        destination = new File(temporaryFolder.getRoot(), "m5/setting/collectionList.xml");
+    }
+
+    @Test
+    public void copiesAndKeepsModifiedTime() throws IOException {
+        PassThroughCopier copier = new PassThroughCopier(false);
+        assertEquals(PassThroughCopier.Outcome.COPIED, copier.copy(source.getPath(), destination.getPath()));
+        assertArrayEquals(Files.readAllBytes(source.toPath()), Files.readAllBytes(destination.toPath()));
+        assertEquals(SOURCE_MODIFIED, destination.lastModified());
+        assertFalse(new File(destination.getPath() + XmlFileWriter.TEMP_FILE_SUFFIX).exists());
+
+        assertEquals(PassThroughCopier.Outcome.IDENTICAL, copier.copy(source.getPath(), destination.getPath()));
+    }
+
+    @Test
+    public void sameContentWithOtherModifiedTimeIsNotCopied() throws IOException {
+        PassThroughCopier copier = new PassThroughCopier(false);
+        copier.copy(source.getPath(), destination.getPath());
+        assertTrue(destination.setLastModified(SOURCE_MODIFIED + 60_000));
+
+        assertEquals(PassThroughCopier.Outcome.IDENTICAL, copier.copy(source.getPath(), destination.getPath()));
+        assertEquals(SOURCE_MODIFIED, destination.lastModified());
+    }
+
+    @Test
+    public void changedSourceIsCopiedAgain() throws IOException {
+        PassThroughCopier copier = new PassThroughCopier(false);
+        copier.copy(source.getPath(), destination.getPath());
+        // 크기가 같아도 내용이 다르면 다시 복사한다.
+        Files.write(source.toPath(), utf8("<collectionLisT/>"));
+        assertTrue(source.setLastModified(SOURCE_MODIFIED + 60_000));
+
+        assertEquals(PassThroughCopier.Outcome.COPIED, copier.copy(source.getPath(), destination.getPath()));
+        assertArrayEquals(Files.readAllBytes(source.toPath()), Files.readAllBytes(destination.toPath()));
+    }
+
+    @Test
+    public void hardLinkSharesSourceFile() throws IOException {
+        PassThroughCopier copier = new PassThroughCopier(true);
+        PassThroughCopier.Outcome outcome = copier.copy(source.getPath(), destination.getPath());
+        if (outcome == PassThroughCopier.Outcome.LINKED) {
+            assertTrue(Files.isSameFile(source.toPath(), destination.toPath()));
+        } else {    // 하드 링크를 지원하지 않는 파일시스템
+            assertEquals(PassThroughCopier.Outcome.COPIED, outcome);
+        }
+        assertEquals(PassThroughCopier.Outcome.IDENTICAL, copier.copy(source.getPath(), destination.getPath()));
+    }
+}
@@ -0,0 +1,223 @@
+package com.diquest.ir.util;
+
+import static com.diquest.ir.util.SettingFixtures.utf8;
+import static com.diquest.ir.util.SettingFixtures.watcher;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 압축 파일 입출력 시 setting 폴더 밖을 가리키는 항목을 거부하고, 저장 경로가 겹치는 항목을 하나만 변환하는지,
+ * tar 출력의 긴 항목명/한글 항목명을 다시 읽을 수 있는지 확인하는 테스트
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class SettingArchiveTest {
+
+    private static final String WATCHER_ENTRY = "C1/dbwatcher/w1.xml";
+    private static final int TAR_BLOCK_SIZE = 512;
+    private static final List<String> UNSAFE_ENTRIES = Arrays.asList(
+            "../evil.xml", "C1/../../evil.xml", "/evil.xml", "C:/evil.xml", "..\\evil.xml", "../한글/" + repeat("x", 120) + ".xml"
+    );
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void unsafeZipEntriesAreRejected() throws IOException {
+        File archive = new File(temporaryFolder.getRoot(), "setting.zip");
+        try (ZipOutputStream output = new ZipOutputStream(Files.newOutputStream(archive.toPath()))) {
+            for (String name : UNSAFE_ENTRIES) {
+                putZipEntry(output, name, utf8(watcher("evil")));
+            }
+            putZipEntry(output, "./" + WATCHER_ENTRY, utf8(watcher("entry0")));
+        }
+        assertEntries(archive.toPath());
+    }
+
+    @Test
+    public void unsafeTarEntriesAreRejected() throws IOException {
+        for (String archiveName : new String[] {"setting.tar", "setting.tar.gz", "setting.tgz"}) {
+            Path archive = writeArchive(archiveName, UNSAFE_ENTRIES, Collections.singletonList(WATCHER_ENTRY));
+            assertEntries(archive);
+        }
+    }
+
+    @Test
+    public void unsafeEntriesAreNotWrittenOutsideOutput() throws IOException {
+        Path archive = writeArchive("setting.tar.gz", UNSAFE_ENTRIES, Collections.singletonList(WATCHER_ENTRY));
+        File outputFolder = new File(temporaryFolder.getRoot(), "out/m5");
+
+        ConversionResult result = new XmlFileProcessor("/ir4", "/ir5").convertSettingFiles(archive.toString(), outputFolder.getPath(), 2);
+
+        assertEquals(1, result.getProcessedCount());
+        assertEquals(UNSAFE_ENTRIES.size(), result.getFailures().size());
+        assertTrue(new File(outputFolder, "C1/dbwatcher/W1.xml").isFile());
+        assertFalse(new File(temporaryFolder.getRoot(), "out/EVIL.xml").exists());
+        assertFalse(new File(temporaryFolder.getRoot(), "EVIL.xml").exists());
+        assertFalse(new File(temporaryFolder.getRoot(), "out/evil.xml").exists());
+    }
+
+    @Test
+    public void duplicateEntriesAreConvertedOnce() throws IOException {
+        // 같은 항목이 두 번 있거나 대문자 변환 후 저장 경로가 같아지는 항목은 먼저 읽은 항목만 변환한다.
+        Path archive = writeArchive("setting.tar", Collections.<String>emptyList(),
+                Arrays.asList(WATCHER_ENTRY, WATCHER_ENTRY, "C1/dbwatcher/W1.xml"));
+        File outputArchive = new File(temporaryFolder.getRoot(), "m5-setting.zip");
+
+        ConversionResult result = new XmlFileProcessor("/ir4", "/ir5").convertSettingFiles(archive.toString(), outputArchive.getPath(), 2);
+
+        assertEquals(1, result.getProcessedCount());
+        assertEquals(2, result.getFailures().size());
+        try (ZipFile zipFile = new ZipFile(outputArchive)) {
+            assertEquals(1, zipFile.size());
+            ZipEntry entry = zipFile.getEntry("C1/dbwatcher/W1.xml");
+            assertNotNull(entry);
+            String converted = new String(readAll(zipFile, entry), StandardCharsets.UTF_8);
+            assertTrue(converted, converted.contains("<id>ENTRY0</id>"));
+        }
+    }
+
+    @Test
+    public void tarEntriesRoundTrip() throws IOException {
+        List<String> names = Arrays.asList(
+                WATCHER_ENTRY,
+                // 100 byte 를 넘지만 "/" 에서 나누면 ustar 접두어(155 byte)와 이름(100 byte)에 들어가는 경로
+                "C1/" + repeat("d", 80) + "/dbwatcher/" + repeat("w", 60) + ".xml",
+                // 이름 부분만 100 byte 를 넘어 PAX 확장 헤더가 필요한 경로
+                "C1/dbwatcher/" + repeat("x", 150) + ".xml",
+                "수집1/dbwatcher/감시.xml",
+                "수집1/" + repeat("가", 60) + "/dbwatcher/" + repeat("나", 40) + ".xml"
+        );
+        long lastModified = 1700000000123L;
+        for (String archiveName : new String[] {"setting.tar", "setting.tar.gz"}) {
+            Path archive = temporaryFolder.getRoot().toPath().resolve(archiveName);
+            try (SettingArchive.EntryWriter writer = SettingArchive.openWriter(archive)) {
+                for (int idx = 0; idx < names.size(); idx++) {
+                    writer.write(names.get(idx), utf8(watcher("entry" + idx)), lastModified);
+                }
+            }
+
+            List<String> readNames = new ArrayList<>();
+            try (SettingArchive.EntryReader reader = SettingArchive.openReader(archive)) {
+                SettingArchive.Entry entry;
+                while ((entry = reader.next()) != null) {
+                    assertArrayEquals(entry.getName(), utf8(watcher("entry" + readNames.size())), reader.readContent());
+                    assertEquals(entry.getName(), lastModified / 1000 * 1000, entry.getLastModified());
+                    readNames.add(entry.getName());
+                }
+            }
+            assertEquals(archiveName, names, readNames);
+        }
+
+        // PAX 확장 헤더는 ustar 헤더에 담을 수 없는 항목(긴 이름, 한글 이름)에만 기록한다.
+        byte[] tar = Files.readAllBytes(temporaryFolder.getRoot().toPath().resolve("setting.tar"));
+        assertEquals("0,0,x0,x0,x0", tarEntryTypes(tar));
+        String prefix = new String(tar, 2 * TAR_BLOCK_SIZE + 345, 155, StandardCharsets.US_ASCII).trim();
+        assertEquals("C1/" + repeat("d", 80) + "/dbwatcher", prefix);
+    }
+
+    private static void assertEntries(Path archive) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<String> rejectedNames = new ArrayList<>();
+        try (SettingArchive.EntryReader reader = SettingArchive.openReader(archive)) {
+            while (true) {
+                SettingArchive.Entry entry;
+                try {
+                    entry = reader.next();
+                } catch (SettingArchive.UnsafeEntryException e) {
+                    rejectedNames.add(e.getEntryName());
+                    continue;
+                }
+                if (entry == null) {
+                    break;
+                }
+                names.add(entry.getName());
+                assertArrayEquals(utf8(watcher("entry0")), reader.readContent());
+            }
+        }
+        assertEquals(archive.toString(), Arrays.asList(WATCHER_ENTRY), names);
+        assertEquals(archive.toString(), UNSAFE_ENTRIES.size(), rejectedNames.size());
+    }
+
+    /**
+     * 항목명을 확인하지 않는 EntryWriter 로 압축 파일을 만든다.
+     * (unsafeNames 항목은 id 를 "evil" 로, names 항목은 순서대로 "entry0", "entry1" ... 로 기록한다.)
+     */
+    private Path writeArchive(String archiveName, List<String> unsafeNames, List<String> names) throws IOException {
+        Path archive = temporaryFolder.getRoot().toPath().resolve(archiveName);
+        SettingArchive.EntryWriter writer = SettingArchive.openWriter(archive);
+        try {
+            for (String name : unsafeNames) {
+                writer.write(name, utf8(watcher("evil")), System.currentTimeMillis());
+            }
+            for (int idx = 0; idx < names.size(); idx++) {
+                writer.write(names.get(idx), utf8(watcher("entry" + idx)), System.currentTimeMillis());
+            }
+        } catch (IOException | RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+        writer.close();
+        return archive;
+    }
+
+    private static void putZipEntry(ZipOutputStream output, String name, byte[] content) throws IOException {
+        output.putNextEntry(new ZipEntry(name));
+        output.write(content);
+        output.closeEntry();
+    }
+
+    private static byte[] readAll(ZipFile zipFile, ZipEntry entry) throws IOException {
+        try (InputStream input = zipFile.getInputStream(entry)) {
+            return SettingArchive.readContent(input, -1);
+        }
+    }
+
+    /**
+     * tar 파일의 헤더 종류를 항목별로 나열한다. (PAX 확장 헤더는 뒤따르는 항목과 붙여서 "x0" 으로 표시한다.)
+     */
+    private static String tarEntryTypes(byte[] tar) {
+        StringBuilder types = new StringBuilder();
+        int offset = 0;
+        while (offset + TAR_BLOCK_SIZE <= tar.length && tar[offset] != 0) {
+            char type = (char) tar[offset + 156];
+            if (types.length() > 0 && types.charAt(types.length() - 1) != 'x') {
+                types.append(',');
+            }
+            types.append(type);
+            long size = Long.parseLong(new String(tar, offset + 124, 11, StandardCharsets.US_ASCII).trim(), 8);
+            offset += TAR_BLOCK_SIZE + (int) ((size + TAR_BLOCK_SIZE - 1) / TAR_BLOCK_SIZE) * TAR_BLOCK_SIZE;
+        }
+        return types.toString();
+    }
+
+    private static String repeat(String value, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int idx = 0; idx < count; idx++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.diquest.ir.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * 테스트에서 사용하는 m4 설정 파일 내용과 파일 생성 도우미
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+final class SettingFixtures {
+
+    /** watcher(id) 에 들어가는 기본 SQL 태그 */
+    static final String DEFAULT_SQL_TAGS = fullCollectSql("SELECT * FROM T");
+
+    private SettingFixtures() {
+    }
+
+    /**
+     * @param id dbwatcher id 태그 값 (이스케이프하지 않고 그대로 넣는다.)
+     * @return 기본 SQL 태그를 가진 UTF-8 dbwatcher 설정 파일 내용
+     */
+    static String watcher(String id) {
+        return watcher(id, DEFAULT_SQL_TAGS);
+    }
+
+    /**
+     * @param id      dbwatcher id 태그 값 (이스케이프하지 않고 그대로 넣는다.)
+     * @param sqlTags id 태그 뒤에 넣을 태그들 (줄 단위)
+     * @return UTF-8 dbwatcher 설정 파일 내용
+     */
+    static String watcher(String id, String sqlTags) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<dbwatcher>\n  <id>" + id + "</id>\n" + sqlTags + "</dbwatcher>\n";
+    }
+
+    /**
+     * @param sql 전체색인 SQL
+     * @return fullCollectSql 태그 1줄
+     */
+    static String fullCollectSql(String sql) {
+        return "  <fullCollectSql>" + sql + "</fullCollectSql>\n";
+    }
+
+    static byte[] utf8(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 상위 폴더를 만든 뒤 파일을 UTF-8 로 기록한다.
+     *
+     * @return 기록한 파일
+     */
+    static File write(File file, String content) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), utf8(content));
+        return file;
+    }
+
+    static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
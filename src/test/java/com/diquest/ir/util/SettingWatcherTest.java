@@ -0,0 +1,177 @@
+package com.diquest.ir.util;
+
+import static com.diquest.ir.util.SettingFixtures.watcher;
+import static com.diquest.ir.util.SettingFixtures.write;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 감시 중 새 컬렉션 폴더 등록, 짧은 시간에 몰린 변경의 일괄 변환, 원본 삭제 시 출력 삭제,
+ * 감시 폴더 안의 출력 폴더 제외를 확인하는 테스트
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class SettingWatcherTest {
+
+    private static final long DEBOUNCE_MILLIS = 300;
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File inputFolder;
+    private final RecordingProcessor xmlFileProcessor = new RecordingProcessor();
+    private SettingWatcher settingWatcher;
+    private Thread watcherThread;
+
+    @Before
+    public void setUp() throws IOException {
+        inputFolder = temporaryFolder.newFolder("m4", "setting");
+        write(new File(inputFolder, "C1/dbwatcher/w1.xml"), watcher("w1"));
+        write(new File(inputFolder, "C1/dbwatcher/w2.xml"), watcher("w2"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (settingWatcher != null) {
+            settingWatcher.close();
+            watcherThread.join(TIMEOUT_MILLIS);
+        }
+    }
+
+    @Test
+    public void newCollectionFolderIsWatched() throws Exception {
+        File outputFolder = new File(temporaryFolder.getRoot(), "m5/setting");
+        startWatcher(outputFolder);
+
+        // 폴더와 파일을 함께 만든 경우 폴더를 등록하면서 이미 있는 파일도 변환한다.
+        write(new File(inputFolder, "C2/dbwatcher/w3.xml"), watcher("w3"));
+        awaitFile(new File(outputFolder, "C2/dbwatcher/W3.xml"));
+
+        // 등록된 새 폴더에 나중에 추가한 파일
+        write(new File(inputFolder, "C2/dbwatcher/w4.xml"), watcher("w4"));
+        awaitFile(new File(outputFolder, "C2/dbwatcher/W4.xml"));
+    }
+
+    @Test
+    public void quickChangesAreConvertedTogether() throws Exception {
+        File outputFolder = new File(temporaryFolder.getRoot(), "m5/setting");
+        startWatcher(outputFolder);
+
+        for (int i = 3; i <= 7; i++) {
+            write(new File(inputFolder, "C1/dbwatcher/w" + i + ".xml"), watcher("w" + i));
+        }
+        awaitFile(new File(outputFolder, "C1/dbwatcher/W7.xml"));
+        Thread.sleep(DEBOUNCE_MILLIS * 2);
+
+        List<List<String>> batches = xmlFileProcessor.getBatches();
+        assertEquals(String.valueOf(batches), 1, batches.size());
+        assertEquals(5, batches.get(0).size());
+    }
+
+    @Test
+    public void removedSourceDeletesOutput() throws Exception {
+        File outputFolder = new File(temporaryFolder.getRoot(), "m5/setting");
+        write(new File(inputFolder, "C2/dbwatcher/w3.xml"), watcher("w3"));
+        xmlFileProcessor.convertSettingFiles(inputFolder.getPath(), outputFolder.getPath(), 1);
+        File convertedFile = new File(outputFolder, "C1/dbwatcher/W1.xml");
+        File convertedFolder = new File(outputFolder, "C2");
+        assertTrue(convertedFile.isFile());
+        assertTrue(new File(convertedFolder, "dbwatcher/W3.xml").isFile());
+        startWatcher(outputFolder);
+
+        assertTrue(new File(inputFolder, "C1/dbwatcher/w1.xml").delete());
+        awaitCondition(() -> !convertedFile.exists());
+        assertTrue(new File(outputFolder, "C1/dbwatcher/W2.xml").isFile());
+
+        // 컬렉션 폴더를 삭제하면 변환된 컬렉션 폴더도 삭제한다.
+        assertTrue(new File(inputFolder, "C2/dbwatcher/w3.xml").delete());
+        assertTrue(new File(inputFolder, "C2/dbwatcher").delete());
+        assertTrue(new File(inputFolder, "C2").delete());
+        awaitCondition(() -> !convertedFolder.exists());
+        assertTrue(new File(outputFolder, "C1/dbwatcher/W2.xml").isFile());
+    }
+
+    @Test
+    public void outputFolderInsideWatchedTreeIsSkipped() throws Exception {
+        File outputFolder = new File(inputFolder, "converted");
+        startWatcher(outputFolder);
+
+        write(new File(inputFolder, "C1/dbwatcher/w3.xml"), watcher("w3"));
+        awaitFile(new File(outputFolder, "C1/dbwatcher/W3.xml"));
+        // 출력 폴더에 저장하며 생긴 변경은 다시 변환하지 않는다.
+        Thread.sleep(DEBOUNCE_MILLIS * 3);
+
+        assertEquals(String.valueOf(xmlFileProcessor.getBatches()), 1, xmlFileProcessor.getBatches().size());
+        assertFalse(new File(outputFolder, "converted").exists());
+    }
+
+    private void startWatcher(File outputFolder) throws IOException {
+        settingWatcher = new SettingWatcher(xmlFileProcessor, inputFolder.getPath(), outputFolder.getPath(), DEBOUNCE_MILLIS);
+        watcherThread = new Thread(() -> {
+            try {
+                settingWatcher.run();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, "setting-watcher-test");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private static void awaitFile(File file) throws InterruptedException {
+        awaitCondition(file::isFile);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue("감시 중 변환이 끝나지 않았습니다.", System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * 감시 객체가 변환을 요청한 파일 목록을 기록하는 XmlFileProcessor
+     */
+    private static class RecordingProcessor extends XmlFileProcessor {
+
+        private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingProcessor() {
+            super("/ir4", "/ir5");
+        }
+
+        @Override
+        public ConversionResult convertFiles(List<File> xmlFiles, String inputFilePath, String outputFilePath) {
+            List<String> batch = new ArrayList<>();
+            for (File xmlFile : xmlFiles) {
+                batch.add(xmlFile.getName());
+            }
+            batches.add(batch);
+            return super.convertFiles(xmlFiles, inputFilePath, outputFilePath);
+        }
+
+        List<List<String>> getBatches() {
+            synchronized (batches) {
+                return new ArrayList<>(batches);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.diquest.ir.util;
+
+import static com.diquest.ir.util.SettingFixtures.watcher;
+import static com.diquest.ir.util.SettingFixtures.write;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 사이트 목록 파일을 읽고, 여러 사이트를 함께 변환하는지 확인하는 테스트
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class SiteBatchTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void tabAndSpaceSeparatedSites() throws IOException {
+        List<SiteBatch.Site> sites = SiteBatch.loadSites(siteList(
+                "# IR4_HOME\tIR5_HOME\tm4 setting\tm5 setting",
+                "",
+                "/ir4\t/ir5\t/data/site one/setting\t/out/site one/setting",
+                "  /old/ir4   /new/ir5  /data/two/setting   /out/two/setting  ",
+                "   # 공백으로 시작하는 주석",
+                "/ir4 \t /ir5\t/data/three\t/out/three"
+        ));
+
+        assertEquals(3, sites.size());
+        assertSite(sites.get(0), 1, "/ir4", "/ir5", "/data/site one/setting", "/out/site one/setting");
+        assertSite(sites.get(1), 2, "/old/ir4", "/new/ir5", "/data/two/setting", "/out/two/setting");
+        assertSite(sites.get(2), 3, "/ir4", "/ir5", "/data/three", "/out/three");
+    }
+
+    @Test
+    public void wrongFieldCountIsRejectedWithLineNumber() throws IOException {
+        Path siteList = siteList("# sites", "/ir4\t/ir5\t/data/one\t/out/one", "/ir4 /ir5 /data/two");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> SiteBatch.loadSites(siteList));
+        assertTrue(e.getMessage(), e.getMessage().contains(siteList + ":3 "));
+
+        // 탭으로 구분한 줄은 경로 안의 공백으로 나누지 않으므로 탭이 빠진 항목을 찾아낸다.
+        Path tabSiteList = siteList("/ir4\t/ir5\t/data/one /out/one");
+        assertThrows(IllegalArgumentException.class, () -> SiteBatch.loadSites(tabSiteList));
+    }
+
+    @Test
+    public void duplicateOutputIsRejected() throws IOException {
+        Path siteList = siteList("/ir4\t/ir5\t/data/one\t/out/site", "/ir4\t/ir5\t/data/two\t/out/./other/../site");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> SiteBatch.loadSites(siteList));
+        assertTrue(e.getMessage(), e.getMessage().contains(siteList + ":2 1"));
+    }
+
+    @Test
+    public void emptySiteListIsRejected() throws IOException {
+        Path siteList = siteList("# 사이트 없음", "");
+        assertThrows(IllegalArgumentException.class, () -> SiteBatch.loadSites(siteList));
+    }
+
+    @Test
+    public void siteMetricsPath() {
+        SiteBatch.Site site = new SiteBatch.Site(2, "/ir4", "/ir5", "/in", "/out");
+        assertEquals(Paths.get("/tmp/metrics-2.json"), SiteBatch.getSiteMetricsPath("/tmp/metrics.json", site));
+        assertEquals(Paths.get("/tmp/metrics-2"), SiteBatch.getSiteMetricsPath("/tmp/metrics", site));
+        assertEquals(Paths.get("/tmp/.metrics-2"), SiteBatch.getSiteMetricsPath("/tmp/.metrics", site));
+    }
+
+    @Test
+    public void sitesAreConvertedTogether() throws IOException {
+        File[] outputFolders = new File[3];
+        String[] lines = new String[3];
+        for (int idx = 0; idx < lines.length; idx++) {
+            File inputFolder = temporaryFolder.newFolder("site" + idx, "m4");
+            write(new File(inputFolder, "C1/dbwatcher/w" + idx + ".xml"), watcher("w" + idx));
+            outputFolders[idx] = new File(temporaryFolder.getRoot(), "site" + idx + "/m5");
+            lines[idx] = "/ir4\t/ir5\t" + inputFolder + "\t" + outputFolders[idx];
+        }
+        ConvertorOptions options = ConvertorOptions.parse(new String[] {"--threads=2"}, 0);
+
+        List<SiteBatch.SiteResult> results = new SiteBatch(SiteBatch.loadSites(siteList(lines)), options).run(2);
+
+        assertEquals(3, results.size());
+        for (int idx = 0; idx < results.size(); idx++) {
+            assertEquals(idx + 1, results.get(idx).getSite().getNumber());
+            assertFalse(String.valueOf(results.get(idx).getResult().getFailures()), results.get(idx).getResult().hasFailures());
+            assertTrue(new File(outputFolders[idx], "C1/dbwatcher/W" + idx + ".xml").isFile());
+        }
+    }
+
+    private Path siteList(String... lines) throws IOException {
+        Path siteList = temporaryFolder.newFile().toPath();
+        Files.write(siteList, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return siteList;
+    }
+
+    private static void assertSite(SiteBatch.Site site, int number, String ir4HomePath, String ir5HomePath, String input, String output) {
+        assertEquals(number, site.getNumber());
+        assertEquals(ir4HomePath, site.getIr4HomePath());
+        assertEquals(ir5HomePath, site.getIr5HomePath());
+        assertEquals(input, site.getInputFilePath());
+        assertEquals(output, site.getOutputFilePath());
+    }
+}
@@ -0,0 +1,109 @@
+package com.diquest.ir.util;
+
+import static com.diquest.ir.util.SettingFixtures.fullCollectSql;
+import static com.diquest.ir.util.SettingFixtures.utf8;
+import static com.diquest.ir.util.SettingFixtures.watcher;
+import static com.diquest.ir.util.SettingFixtures.write;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.xml.transform.Transformer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 파일 크기로 예상하는 메모리 사용량과, 큰 파일을 처리한 스레드의 파서를 버리는지 확인하는 테스트
+ *
+ * @version 1.0
+ * @since 2025-02-25
+ */
+public class XmlFileProcessorMemoryTest {
+
+    private static final long STREAMING_THRESHOLD_BYTES = 4 * 1024;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void estimateMemoryByFileType() throws IOException {
+        XmlFileProcessor xmlFileProcessor = new XmlFileProcessor("/ir4", "/ir5");
+        xmlFileProcessor.setStreamingThresholdBytes(1000);
+
+        assertEquals(100 * 10, xmlFileProcessor.estimateMemory(task("C1/collectionSetting.xml", 100), false));
+        assertEquals(100 * 10, xmlFileProcessor.estimateMemory(task("C1/dbwatcher/list.xml", 100), false));
+        assertEquals(100 * 6, xmlFileProcessor.estimateMemory(task("C1/dbwatcher/a.xml", 100), false));
+        // 원본 내용을 메모리에 올린 경우 원본 크기를 더한다.
+        assertEquals(100 + 100 * 6, xmlFileProcessor.estimateMemory(task("C1/dbwatcher/a.xml", 100), true));
+        // 그대로 복사하는 파일은 원본 내용을 메모리에 올린 경우만 계산한다.
+        assertEquals(0, xmlFileProcessor.estimateMemory(task("collectionList.xml", 100), false));
+        assertEquals(100, xmlFileProcessor.estimateMemory(task("collectionList.xml", 100), true));
+
+        // DOM 변환이어도 크기 기준 이상인 dbwatcher 설정 파일은 스트리밍으로 변환한다.
+        xmlFileProcessor.setStreamingDbWatcher(false);
+        assertEquals(100 * 10, xmlFileProcessor.estimateMemory(task("C1/dbwatcher/a.xml", 100), false));
+        assertEquals(2000 * 6, xmlFileProcessor.estimateMemory(task("C1/dbwatcher/a.xml", 2000), false));
+
+        // 캐시는 크기 기준보다 작은 dbwatcher 설정 파일에만 사용한다.
+        xmlFileProcessor.setConversionCache(new ConversionCache(1024 * 1024, temporaryFolder.newFolder("cache").toPath()));
+        assertEquals(100 * (10 + 2), xmlFileProcessor.estimateMemory(task("C1/dbwatcher/a.xml", 100), false));
+        assertEquals(2000 * 6, xmlFileProcessor.estimateMemory(task("C1/dbwatcher/a.xml", 2000), false));
+    }
+
+    @Test
+    public void largeFileDiscardsThreadParsers() throws Exception {
+        XmlParserPool xmlParserPool = new XmlParserPool(null, null);
+        XmlFileProcessor xmlFileProcessor = new XmlFileProcessor("/ir4", "/ir5", xmlParserPool);
+        xmlFileProcessor.setStreamingThresholdBytes(STREAMING_THRESHOLD_BYTES);
+
+        Transformer transformer = xmlParserPool.getTransformer();
+        xmlFileProcessor.convert("C1/dbwatcher/small.xml", utf8(watcher("small")));
+        assertSame("작은 파일은 스레드의 Transformer 를 다시 사용해야 합니다.", transformer, xmlParserPool.getTransformer());
+
+        xmlFileProcessor.convert("C1/dbwatcher/large.xml", utf8(largeWatcher("large")));
+        assertNotSame(transformer, xmlParserPool.getTransformer());
+    }
+
+    @Test
+    public void manyThreadsWithSmallBudget() throws IOException {
+        File inputFolder = temporaryFolder.newFolder("m4", "setting");
+        int fileCount = 40;
+        for (int i = 0; i < fileCount; i++) {
+            write(new File(inputFolder, "C" + (i % 4) + "/dbwatcher/w" + i + ".xml"), largeWatcher("w" + i));
+        }
+        XmlFileProcessor xmlFileProcessor = new XmlFileProcessor("/ir4", "/ir5", new XmlParserPool(null, null));
+        xmlFileProcessor.setStreamingThresholdBytes(STREAMING_THRESHOLD_BYTES);
+        // 파일 1건의 예상 사용량보다 작은 한도: 16개 스레드가 있어도 한 번에 1건씩만 처리한다.
+        xmlFileProcessor.setMemoryBudgetBytes(STREAMING_THRESHOLD_BYTES);
+
+        File outputFolder = new File(temporaryFolder.getRoot(), "m5");
+        ConversionResult result = xmlFileProcessor.convertSettingFiles(inputFolder.getPath(), outputFolder.getPath(), 16);
+
+        assertTrue(String.valueOf(result.getFailures()), result.getFailures().isEmpty());
+        assertEquals(fileCount, result.getProcessedCount());
+        for (int i = 0; i < fileCount; i++) {
+            assertTrue(new File(outputFolder, "C" + (i % 4) + "/dbwatcher/W" + i + ".xml").isFile());
+        }
+    }
+
+    private static SettingFileTask task(String settingPath, long sourceSize) {
+        SettingFileTask task = new SettingFileTask(new File("m4/setting", settingPath));
+        task.setSourceSize(sourceSize);
+        return task;
+    }
+
+    /** 스트리밍 크기 기준보다 큰 dbwatcher 설정 파일 */
+    private static String largeWatcher(String id) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM T WHERE ID IN (");
+        while (sql.length() < 2 * STREAMING_THRESHOLD_BYTES) {
+            sql.append("'").append(sql.length()).append("', ");
+        }
+        return watcher(id, fullCollectSql(sql.append("'0')").toString()));
+    }
+}